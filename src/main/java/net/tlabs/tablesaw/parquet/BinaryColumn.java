@@ -0,0 +1,675 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import com.google.common.base.Preconditions;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntComparator;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.AbstractColumn;
+import tech.tablesaw.columns.AbstractColumnParser;
+import tech.tablesaw.columns.Column;
+import tech.tablesaw.selection.BitmapBackedSelection;
+import tech.tablesaw.selection.Selection;
+
+/**
+ * A column of raw byte arrays. Values are stored one after the other in a single byte array, each row keeping the
+ * offset and length of its value, so that raw hashes or keys cost their size plus 8 bytes per row.
+ * Values are ordered as unsigned bytes, like parquet orders binaries. Missing values are null.
+ * Overwritten values are not reclaimed until the column is copied.
+ */
+public class BinaryColumn extends AbstractColumn<BinaryColumn, byte[]> {
+
+    private static final int MISSING_LENGTH = -1;
+    private static final int MAX_DATA_SIZE = Integer.MAX_VALUE - 8;
+    private static final int DEFAULT_DATA_SIZE = 1024;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] data;
+    private int dataSize = 0;
+    private IntArrayList offsets;
+    private IntArrayList lengths;
+
+    private final IntComparator rowComparator = this::compareRows;
+
+    private BinaryColumn(final String name, final int initialRowCapacity) {
+        super(BinaryColumnType.instance(), name, BinaryColumnType.instance().customParser(null));
+        this.data = new byte[DEFAULT_DATA_SIZE];
+        this.offsets = new IntArrayList(initialRowCapacity);
+        this.lengths = new IntArrayList(initialRowCapacity);
+    }
+
+    /**
+     * Creates an empty BinaryColumn.
+     * @param name the column name
+     * @return the new column
+     */
+    public static BinaryColumn create(final String name) {
+        return new BinaryColumn(name, DEFAULT_ARRAY_SIZE);
+    }
+
+    /**
+     * Creates a BinaryColumn filled with missing values.
+     * @param name the column name
+     * @param initialSize the number of missing values
+     * @return the new column
+     */
+    public static BinaryColumn create(final String name, final int initialSize) {
+        final BinaryColumn column = new BinaryColumn(name, initialSize);
+        for (int i = 0; i < initialSize; i++) {
+            column.appendMissing();
+        }
+        return column;
+    }
+
+    /**
+     * Creates a BinaryColumn with the given values, null values are missing.
+     * @param name the column name
+     * @param values the values
+     * @return the new column
+     */
+    public static BinaryColumn create(final String name, final byte[]... values) {
+        final BinaryColumn column = new BinaryColumn(name, values.length);
+        for (final byte[] value : values) {
+            column.append(value);
+        }
+        return column;
+    }
+
+    private int store(final byte[] bytes, final int offset, final int length) {
+        final int start = reserve(length);
+        System.arraycopy(bytes, offset, data, start, length);
+        return start;
+    }
+
+    private int store(final ByteBuffer buffer) {
+        final int length = buffer.remaining();
+        final int start = reserve(length);
+        buffer.duplicate().get(data, start, length);
+        return start;
+    }
+
+    /**
+     * Frees the bytes of the value of a row about to be overwritten when they were the last bytes stored,
+     * e.g. when the row of a rejected record is overwritten by the next record.
+     * Values are never shared by several rows.
+     */
+    private void release(final int row) {
+        final int length = lengths.getInt(row);
+        if (length > 0 && offsets.getInt(row) + length == dataSize) {
+            dataSize = offsets.getInt(row);
+        }
+    }
+
+    private int reserve(final int length) {
+        final int start = dataSize;
+        if (length > MAX_DATA_SIZE - start) {
+            throw new IllegalStateException("Column " + name() + " cannot hold more than " + MAX_DATA_SIZE + " bytes");
+        }
+        final int needed = start + length;
+        if (needed > data.length) {
+            final int grown = data.length + (data.length >> 1);
+            data = Arrays.copyOf(data, grown < 0 || grown > MAX_DATA_SIZE ? MAX_DATA_SIZE : Math.max(grown, needed));
+        }
+        dataSize = needed;
+        return start;
+    }
+
+    @Override
+    public int size() {
+        return lengths.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return lengths.isEmpty();
+    }
+
+    @Override
+    public boolean isMissing(final int rowNumber) {
+        return lengths.getInt(rowNumber) == MISSING_LENGTH;
+    }
+
+    /**
+     * @param rowNumber the row
+     * @return the length of the value, -1 if it is missing
+     */
+    public int length(final int rowNumber) {
+        return lengths.getInt(rowNumber);
+    }
+
+    // Internal accessors, used to write values without copying them
+    byte[] data() {
+        return data;
+    }
+
+    int offset(final int rowNumber) {
+        return offsets.getInt(rowNumber);
+    }
+
+    @Override
+    public byte[] get(final int index) {
+        final int length = lengths.getInt(index);
+        if (length == MISSING_LENGTH) {
+            return null;
+        }
+        final int offset = offsets.getInt(index);
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    @Override
+    public BinaryColumn append(final byte[] value) {
+        return value == null ? appendMissing() : append(value, 0, value.length);
+    }
+
+    /**
+     * Appends a range of a byte array.
+     * @param bytes the byte array
+     * @param offset the start of the value
+     * @param length the length of the value
+     * @return this column
+     */
+    public BinaryColumn append(final byte[] bytes, final int offset, final int length) {
+        Preconditions.checkPositionIndexes(offset, offset + length, bytes.length);
+        offsets.add(store(bytes, offset, length));
+        lengths.add(length);
+        return this;
+    }
+
+    /**
+     * Appends the remaining bytes of a buffer, without changing its position.
+     * @param value the buffer, null for a missing value
+     * @return this column
+     */
+    public BinaryColumn append(final ByteBuffer value) {
+        if (value == null) {
+            return appendMissing();
+        }
+        offsets.add(store(value));
+        lengths.add(value.remaining());
+        return this;
+    }
+
+    @Override
+    public BinaryColumn appendMissing() {
+        offsets.add(0);
+        lengths.add(MISSING_LENGTH);
+        return this;
+    }
+
+    @Override
+    public BinaryColumn appendObj(final Object obj) {
+        if (obj == null) {
+            return appendMissing();
+        }
+        if (obj instanceof byte[]) {
+            return append((byte[]) obj);
+        }
+        if (obj instanceof ByteBuffer) {
+            return append((ByteBuffer) obj);
+        }
+        throw new IllegalArgumentException("Cannot append " + obj.getClass().getName() + " to BinaryColumn");
+    }
+
+    @Override
+    public BinaryColumn appendCell(final String value) {
+        return append(parser().parse(value));
+    }
+
+    @Override
+    public BinaryColumn appendCell(final String value, final AbstractColumnParser<?> parser) {
+        return appendObj(parser.parse(value));
+    }
+
+    private BinaryColumn checkType(final Column<byte[]> column) {
+        Preconditions.checkArgument(column.type() == this.type(), "Column '%s' has type %s, but column '%s' has type %s.",
+            name(), type(), column.name(), column.type());
+        return (BinaryColumn) column;
+    }
+
+    @Override
+    public BinaryColumn append(final Column<byte[]> column) {
+        final BinaryColumn binaryColumn = checkType(column);
+        final int size = binaryColumn.size();
+        for (int i = 0; i < size; i++) {
+            append(binaryColumn, i);
+        }
+        return this;
+    }
+
+    @Override
+    public BinaryColumn append(final Column<byte[]> column, final int row) {
+        final BinaryColumn binaryColumn = checkType(column);
+        final int length = binaryColumn.lengths.getInt(row);
+        if (length == MISSING_LENGTH) {
+            return appendMissing();
+        }
+        return append(binaryColumn.data, binaryColumn.offsets.getInt(row), length);
+    }
+
+    @Override
+    public BinaryColumn set(final int row, final byte[] value) {
+        return value == null ? setMissing(row) : set(row, value, 0, value.length);
+    }
+
+    /**
+     * Sets a row to a range of a byte array.
+     * @param row the row
+     * @param bytes the byte array
+     * @param offset the start of the value
+     * @param length the length of the value
+     * @return this column
+     */
+    public BinaryColumn set(final int row, final byte[] bytes, final int offset, final int length) {
+        Preconditions.checkElementIndex(row, size());
+        Preconditions.checkPositionIndexes(offset, offset + length, bytes.length);
+        release(row);
+        offsets.set(row, store(bytes, offset, length));
+        lengths.set(row, length);
+        return this;
+    }
+
+    /**
+     * Sets a row to the remaining bytes of a buffer, without changing its position.
+     * @param row the row
+     * @param value the buffer, null for a missing value
+     * @return this column
+     */
+    public BinaryColumn set(final int row, final ByteBuffer value) {
+        if (value == null) {
+            return setMissing(row);
+        }
+        Preconditions.checkElementIndex(row, size());
+        release(row);
+        offsets.set(row, store(value));
+        lengths.set(row, value.remaining());
+        return this;
+    }
+
+    @Override
+    public BinaryColumn set(final int row, final Column<byte[]> column, final int sourceRow) {
+        final BinaryColumn binaryColumn = checkType(column);
+        final int length = binaryColumn.lengths.getInt(sourceRow);
+        if (length == MISSING_LENGTH) {
+            return setMissing(row);
+        }
+        return set(row, binaryColumn.data, binaryColumn.offsets.getInt(sourceRow), length);
+    }
+
+    @Override
+    public BinaryColumn setMissing(final int row) {
+        release(row);
+        offsets.set(row, 0);
+        lengths.set(row, MISSING_LENGTH);
+        return this;
+    }
+
+    @Override
+    public int countMissing() {
+        int count = 0;
+        for (int i = 0; i < size(); i++) {
+            if (isMissing(i)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Selection isMissing() {
+        final Selection selection = new BitmapBackedSelection();
+        for (int i = 0; i < size(); i++) {
+            if (isMissing(i)) {
+                selection.add(i);
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public Selection isNotMissing() {
+        final Selection selection = new BitmapBackedSelection();
+        for (int i = 0; i < size(); i++) {
+            if (!isMissing(i)) {
+                selection.add(i);
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public Table summary() {
+        final StringColumn measure = StringColumn.create("Measure");
+        final DoubleColumn value = DoubleColumn.create("Value");
+        final int missing = countMissing();
+        measure.append("Count");
+        value.append(size());
+        measure.append("Missing");
+        value.append(missing);
+        measure.append("Total bytes");
+        long totalBytes = 0L;
+        for (int i = 0; i < size(); i++) {
+            totalBytes += Math.max(lengths.getInt(i), 0);
+        }
+        value.append(totalBytes);
+        return Table.create(name()).addColumns(measure, value);
+    }
+
+    @Override
+    public byte[][] asObjectArray() {
+        final byte[][] values = new byte[size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the value as uppercase hexadecimal bytes separated by spaces, or an empty String if it is missing.
+     * @param row the row
+     * @return the hexadecimal representation of the value
+     */
+    @Override
+    public String getString(final int row) {
+        return getUnformattedString(row);
+    }
+
+    @Override
+    public String getUnformattedString(final int row) {
+        final int length = lengths.getInt(row);
+        if (length <= 0) {
+            return "";
+        }
+        final int offset = offsets.getInt(row);
+        final char[] chars = new char[length * 3 - 1];
+        for (int i = 0; i < length; i++) {
+            final int b = data[offset + i] & 0xFF;
+            final int pos = i * 3;
+            if (i > 0) {
+                chars[pos - 1] = ' ';
+            }
+            chars[pos] = HEX_DIGITS[b >>> 4];
+            chars[pos + 1] = HEX_DIGITS[b & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    @Override
+    public void clear() {
+        dataSize = 0;
+        offsets.clear();
+        lengths.clear();
+    }
+
+    private int compareRows(final int row1, final int row2) {
+        final int length1 = lengths.getInt(row1);
+        final int length2 = lengths.getInt(row2);
+        if (length1 == MISSING_LENGTH || length2 == MISSING_LENGTH) {
+            // Missing values first
+            return Integer.compare(length1 == MISSING_LENGTH ? 0 : 1, length2 == MISSING_LENGTH ? 0 : 1);
+        }
+        final int offset1 = offsets.getInt(row1);
+        final int offset2 = offsets.getInt(row2);
+        return Arrays.compareUnsigned(data, offset1, offset1 + length1, data, offset2, offset2 + length2);
+    }
+
+    @Override
+    public IntComparator rowComparator() {
+        return rowComparator;
+    }
+
+    @Override
+    public int compare(final byte[] o1, final byte[] o2) {
+        if (o1 == null || o2 == null) {
+            return Integer.compare(o1 == null ? 0 : 1, o2 == null ? 0 : 1);
+        }
+        return Arrays.compareUnsigned(o1, o2);
+    }
+
+    private void reorder(final int[] rows) {
+        final BinaryColumn sorted = subset(rows);
+        this.data = sorted.data;
+        this.dataSize = sorted.dataSize;
+        this.offsets = sorted.offsets;
+        this.lengths = sorted.lengths;
+    }
+
+    private int[] rows() {
+        final int[] rows = new int[size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = i;
+        }
+        return rows;
+    }
+
+    @Override
+    public void sortAscending() {
+        final int[] rows = rows();
+        IntArrays.mergeSort(rows, rowComparator);
+        reorder(rows);
+    }
+
+    @Override
+    public void sortDescending() {
+        final int[] rows = rows();
+        IntArrays.mergeSort(rows, (r1, r2) -> compareRows(r2, r1));
+        reorder(rows);
+    }
+
+    @Override
+    public int byteSize() {
+        return type().byteSize();
+    }
+
+    @Override
+    public byte[] asBytes(final int rowNumber) {
+        final byte[] value = get(rowNumber);
+        return value == null ? EMPTY : value;
+    }
+
+    /**
+     * Returns the distinct non missing values, ordered as unsigned bytes.
+     * @return the set of values
+     */
+    @Override
+    public Set<byte[]> asSet() {
+        final Set<byte[]> values = new TreeSet<>(Arrays::compareUnsigned);
+        for (int i = 0; i < size(); i++) {
+            if (!isMissing(i)) {
+                values.add(get(i));
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public boolean contains(final byte[] value) {
+        return indexOf(value) >= 0;
+    }
+
+    @Override
+    public int indexOf(final Object o) {
+        for (int i = 0; i < size(); i++) {
+            if (valueEquals(i, o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(final Object o) {
+        for (int i = size() - 1; i >= 0; i--) {
+            if (valueEquals(i, o)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean valueEquals(final int row, final Object o) {
+        final int length = lengths.getInt(row);
+        if (o == null || length == MISSING_LENGTH) {
+            return o == null && length == MISSING_LENGTH;
+        }
+        if (!(o instanceof byte[])) {
+            return false;
+        }
+        final byte[] bytes = (byte[]) o;
+        final int offset = offsets.getInt(row);
+        return Arrays.equals(data, offset, offset + length, bytes, 0, bytes.length);
+    }
+
+    @Override
+    public BinaryColumn emptyCopy() {
+        return create(name());
+    }
+
+    @Override
+    public BinaryColumn emptyCopy(final int rowSize) {
+        return create(name(), rowSize);
+    }
+
+    /**
+     * Copies the column, only keeping the bytes of the current values.
+     * @return the copy
+     */
+    @Override
+    public BinaryColumn copy() {
+        return subset(rows());
+    }
+
+    @Override
+    public BinaryColumn subset(final int[] rows) {
+        final BinaryColumn subset = new BinaryColumn(name(), rows.length);
+        for (final int row : rows) {
+            subset.append(this, row);
+        }
+        return subset;
+    }
+
+    @Override
+    public BinaryColumn where(final Selection selection) {
+        return subset(selection.toArray());
+    }
+
+    @Override
+    public BinaryColumn lag(final int n) {
+        final int size = size();
+        final BinaryColumn copy = new BinaryColumn(name() + " lag(" + n + ")", size);
+        for (int i = 0; i < size; i++) {
+            final int source = i - n;
+            if (source < 0 || source >= size) {
+                copy.appendMissing();
+            } else {
+                copy.append(this, source);
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public BinaryColumn removeMissing() {
+        final BinaryColumn noMissing = emptyCopy();
+        for (int i = 0; i < size(); i++) {
+            if (!isMissing(i)) {
+                noMissing.append(this, i);
+            }
+        }
+        return noMissing;
+    }
+
+    @Override
+    public BinaryColumn unique() {
+        final Set<ByteBuffer> seen = new HashSet<>();
+        final BinaryColumn unique = new BinaryColumn(name() + " Unique values", DEFAULT_ARRAY_SIZE);
+        boolean missingSeen = false;
+        for (int i = 0; i < size(); i++) {
+            final int length = lengths.getInt(i);
+            if (length == MISSING_LENGTH) {
+                if (!missingSeen) {
+                    missingSeen = true;
+                    unique.appendMissing();
+                }
+            } else if (seen.add(ByteBuffer.wrap(data, offsets.getInt(i), length))) {
+                unique.append(this, i);
+            }
+        }
+        return unique;
+    }
+
+    @Override
+    public int valueHash(final int rowNumber) {
+        final int length = lengths.getInt(rowNumber);
+        if (length == MISSING_LENGTH) {
+            return 0;
+        }
+        final int offset = offsets.getInt(rowNumber);
+        int hash = 1;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + data[i];
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(final int rowNumber1, final int rowNumber2) {
+        final int length1 = lengths.getInt(rowNumber1);
+        final int length2 = lengths.getInt(rowNumber2);
+        if (length1 == MISSING_LENGTH || length2 == MISSING_LENGTH) {
+            return length1 == length2;
+        }
+        final int offset1 = offsets.getInt(rowNumber1);
+        final int offset2 = offsets.getInt(rowNumber2);
+        return Arrays.equals(data, offset1, offset1 + length1, data, offset2, offset2 + length2);
+    }
+
+    @Override
+    public Iterator<byte[]> iterator() {
+        return new Iterator<byte[]>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < size();
+            }
+
+            @Override
+            public byte[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(row++);
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Arrays;
+
+import tech.tablesaw.columns.AbstractColumnParser;
+import tech.tablesaw.columns.AbstractColumnType;
+import tech.tablesaw.columns.Column;
+import tech.tablesaw.io.ReadOptions;
+
+/**
+ * Column type of {@link BinaryColumn}, used for unannotated BINARY and FIXED_LEN_BYTE_ARRAY fields read with
+ * {@link TablesawParquetReadOptions.UnnanotatedBinaryAs#BINARY}.
+ */
+public final class BinaryColumnType extends AbstractColumnType {
+
+    private static final int BYTE_SIZE = 4;
+    private static BinaryColumnType INSTANCE;
+
+    private BinaryColumnType() {
+        super(BYTE_SIZE, "BINARY", "Binary");
+    }
+
+    /**
+     * @return the BinaryColumnType instance
+     */
+    public static synchronized BinaryColumnType instance() {
+        if (INSTANCE == null) {
+            INSTANCE = new BinaryColumnType();
+        }
+        return INSTANCE;
+    }
+
+    @Override
+    public BinaryColumn create(final String name) {
+        return BinaryColumn.create(name);
+    }
+
+    @Override
+    public AbstractColumnParser<byte[]> customParser(final ReadOptions readOptions) {
+        return new BinaryParser(this);
+    }
+
+    @Override
+    public boolean compare(final int col1Row, final Column<?> col1, final int col2Row, final Column<?> col2) {
+        final Object o1 = col1.get(col1Row);
+        final Object o2 = col2.get(col2Row);
+        if (o1 instanceof byte[] && o2 instanceof byte[]) {
+            return Arrays.equals((byte[]) o1, (byte[]) o2);
+        }
+        return o1 == null ? o2 == null : o1.equals(o2);
+    }
+
+    /**
+     * Parses hexadecimal strings, in the same format as {@link BinaryColumn#getString(int)}.
+     */
+    static final class BinaryParser extends AbstractColumnParser<byte[]> {
+
+        BinaryParser(final BinaryColumnType columnType) {
+            super(columnType);
+        }
+
+        @Override
+        public boolean canParse(final String s) {
+            if (isMissing(s)) {
+                return true;
+            }
+            int digits = 0;
+            for (int i = 0; i < s.length(); i++) {
+                final char c = s.charAt(i);
+                if (Character.digit(c, 16) >= 0) {
+                    digits++;
+                } else if (c != ' ') {
+                    return false;
+                }
+            }
+            return digits % 2 == 0;
+        }
+
+        @Override
+        public byte[] parse(final String s) {
+            if (isMissing(s)) {
+                return null;
+            }
+            final byte[] bytes = new byte[s.length()];
+            int length = 0;
+            int high = -1;
+            for (int i = 0; i < s.length(); i++) {
+                final char c = s.charAt(i);
+                if (c == ' ') {
+                    continue;
+                }
+                final int digit = Character.digit(c, 16);
+                if (digit < 0) {
+                    throw new IllegalArgumentException("Invalid hexadecimal character '" + c + "' in " + s);
+                }
+                if (high < 0) {
+                    high = digit;
+                } else {
+                    bytes[length++] = (byte) (high << 4 | digit);
+                    high = -1;
+                }
+            }
+            if (high >= 0) {
+                throw new IllegalArgumentException("Odd number of hexadecimal digits in " + s);
+            }
+            return Arrays.copyOf(bytes, length);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.ParquetFileRange;
+import org.apache.parquet.io.SeekableInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * InputFile reading a parquet file held in a ByteBuffer: in memory for small stream sources,
+ * or memory-mapped for local files.
+ * Column chunks are read without copy, as slices of the buffer returned by vectored reads.
+ * A mapped buffer is unmapped once the input file and all its streams are closed,
+ * instead of keeping the file mapped (and locked on Windows) until the buffer is garbage collected.
+ */
+final class ByteBufferInputFile implements InputFile, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ByteBufferInputFile.class);
+
+    private final ByteBuffer data;
+    private final String description;
+    // Not final: released on close, null for heap buffers
+    private MappedByteBuffer mapped;
+    private int openStreams = 0;
+    private boolean closed = false;
+
+    ByteBufferInputFile(final ByteBuffer data, final String description) {
+        super();
+        this.data = data.asReadOnlyBuffer();
+        this.description = description;
+        this.mapped = data instanceof MappedByteBuffer ? (MappedByteBuffer) data : null;
+    }
+
+    @Override
+    public long getLength() {
+        return data.remaining();
+    }
+
+    @Override
+    public synchronized SeekableInputStream newStream() throws IOException {
+        if (closed) {
+            throw new IOException("Cannot read closed input file " + description);
+        }
+        openStreams++;
+        return new ByteBufferInputStream(data.slice());
+    }
+
+    /**
+     * Closes this input file. Slices returned by vectored reads must not be used once their stream is closed:
+     * the mapped buffer is unmapped when both this input file and all its streams are closed.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        releaseIfUnused();
+    }
+
+    private synchronized void streamClosed() {
+        openStreams--;
+        releaseIfUnused();
+    }
+
+    private void releaseIfUnused() {
+        if (closed && openStreams == 0 && mapped != null) {
+            Unmapper.unmap(mapped);
+            mapped = null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * ByteArrayOutputStream giving access to its content without copy.
+     */
+    static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        ExposedByteArrayOutputStream() {
+            super(64 * 1024);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+
+    /**
+     * Unmaps buffers with sun.misc.Unsafe#invokeCleaner when available,
+     * otherwise buffers are left to the garbage collector.
+     */
+    private static final class Unmapper {
+        private static final Object UNSAFE;
+        private static final Method INVOKE_CLEANER;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            try {
+                final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                unsafe = theUnsafe.get(null);
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.debug("Mapped buffers cannot be unmapped explicitly", e);
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+        }
+
+        private Unmapper() {
+            super();
+        }
+
+        static void unmap(final MappedByteBuffer buffer) {
+            if (INVOKE_CLEANER == null) {
+                return;
+            }
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.debug("Unable to unmap buffer, left to the garbage collector", e);
+            }
+        }
+    }
+
+    private final class ByteBufferInputStream extends SeekableInputStream {
+        private final ByteBuffer buffer;
+        private boolean released = false;
+
+        private ByteBufferInputStream(final ByteBuffer buffer) {
+            super();
+            this.buffer = buffer;
+        }
+
+        @Override
+        public long getPos() {
+            return buffer.position();
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                streamClosed();
+            }
+        }
+
+        @Override
+        public void seek(final long newPos) throws IOException {
+            if (newPos < 0 || newPos > buffer.limit()) {
+                throw new EOFException("Cannot seek to " + newPos + " in a stream of " + buffer.limit() + " bytes");
+            }
+            buffer.position((int) newPos);
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int readBytes = Math.min(len, buffer.remaining());
+            buffer.get(bytes, offset, readBytes);
+            return readBytes;
+        }
+
+        @Override
+        public void readFully(final byte[] bytes) throws IOException {
+            readFully(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void readFully(final byte[] bytes, final int offset, final int len) throws IOException {
+            if (len > buffer.remaining()) {
+                throw new EOFException("Cannot read " + len + " bytes at " + buffer.position());
+            }
+            buffer.get(bytes, offset, len);
+        }
+
+        @Override
+        public int read(final ByteBuffer byteBuffer) {
+            if (!byteBuffer.hasRemaining()) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int readBytes = Math.min(byteBuffer.remaining(), buffer.remaining());
+            final ByteBuffer source = buffer.slice();
+            source.limit(readBytes);
+            byteBuffer.put(source);
+            buffer.position(buffer.position() + readBytes);
+            return readBytes;
+        }
+
+        @Override
+        public void readFully(final ByteBuffer byteBuffer) throws IOException {
+            if (byteBuffer.remaining() > buffer.remaining()) {
+                throw new EOFException("Cannot read " + byteBuffer.remaining() + " bytes at " + buffer.position());
+            }
+            read(byteBuffer);
+        }
+
+        @Override
+        public boolean readVectoredAvailable(final ByteBufferAllocator allocator) {
+            return true;
+        }
+
+        /**
+         * Completes each range with a read-only slice of the underlying buffer.
+         * Vectored read buffers are not released to the allocator by parquet, so slices can be shared.
+         */
+        @Override
+        public void readVectored(final List<ParquetFileRange> ranges, final ByteBufferAllocator allocator)
+                throws IOException {
+            for (final ParquetFileRange range : ranges) {
+                final long end = range.getOffset() + range.getLength();
+                if (range.getOffset() < 0 || end > buffer.limit()) {
+                    throw new EOFException("Cannot read " + range.getLength() + " bytes at " + range.getOffset());
+                }
+                final ByteBuffer slice = buffer.duplicate();
+                slice.limit((int) end).position((int) range.getOffset());
+                range.setDataReadFuture(CompletableFuture.completedFuture(slice.slice()));
+            }
+        }
+    }
+}
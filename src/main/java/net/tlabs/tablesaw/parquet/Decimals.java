@@ -0,0 +1,100 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import org.apache.parquet.io.api.Binary;
+
+/**
+ * Decodes DECIMAL values to double or float with integer arithmetic whenever the result is exactly the one
+ * BigDecimal would give: the unscaled value and the power of ten must both be exactly representable, so that the
+ * single division is correctly rounded. Wider values fall back to BigDecimal.
+ */
+final class Decimals {
+
+    private static final int MAX_LONG_BYTES = Long.BYTES;
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+    private static final long MAX_EXACT_FLOAT = 1L << 24;
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private Decimals() {
+        super();
+    }
+
+    /**
+     * Reads a big-endian two's-complement value of at most 8 bytes, without copying it.
+     * @param value the binary value, at most 8 bytes long
+     * @return the unscaled value
+     */
+    static long unscaledLong(final Binary value) {
+        final int length = value.length();
+        if (length == 0) {
+            return 0L;
+        }
+        final ByteBuffer buffer = value.toByteBuffer();
+        final int start = buffer.position();
+        // First byte is sign extended, the others are unsigned
+        long unscaled = buffer.get(start);
+        for (int i = 1; i < length; i++) {
+            unscaled = (unscaled << 8) | (buffer.get(start + i) & 0xFFL);
+        }
+        return unscaled;
+    }
+
+    static double toDouble(final long unscaled, final int scale) {
+        if (scale >= 0 && scale < DOUBLE_POWERS_OF_TEN.length
+                && unscaled >= -MAX_EXACT_DOUBLE && unscaled <= MAX_EXACT_DOUBLE) {
+            return unscaled / DOUBLE_POWERS_OF_TEN[scale];
+        }
+        return BigDecimal.valueOf(unscaled, scale).doubleValue();
+    }
+
+    static double toDouble(final Binary value, final int scale) {
+        if (value.length() <= MAX_LONG_BYTES) {
+            return toDouble(unscaledLong(value), scale);
+        }
+        return new BigDecimal(new BigInteger(value.getBytes()), scale).doubleValue();
+    }
+
+    static float toFloat(final long unscaled, final int scale) {
+        if (scale >= 0 && scale < FLOAT_POWERS_OF_TEN.length
+                && unscaled >= -MAX_EXACT_FLOAT && unscaled <= MAX_EXACT_FLOAT) {
+            return unscaled / FLOAT_POWERS_OF_TEN[scale];
+        }
+        return BigDecimal.valueOf(unscaled, scale).floatValue();
+    }
+
+    static float toFloat(final Binary value, final int scale) {
+        if (value.length() <= MAX_LONG_BYTES) {
+            return toFloat(unscaledLong(value), scale);
+        }
+        return new BigDecimal(new BigInteger(value.getBytes()), scale).floatValue();
+    }
+}
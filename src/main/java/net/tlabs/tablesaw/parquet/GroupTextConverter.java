@@ -0,0 +1,207 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.io.api.Converter;
+import org.apache.parquet.io.api.GroupConverter;
+import org.apache.parquet.io.api.PrimitiveConverter;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.LogicalTypeAnnotationVisitor;
+import org.apache.parquet.schema.LogicalTypeAnnotation.StringLogicalTypeAnnotation;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Writes the text of a group value, as {@code [name: value, name: [name: value]]}, directly into a buffer shared by
+ * the whole group tree and reused from row to row. The text of each top-level group is handed to the sink when the
+ * group ends.
+ */
+final class GroupTextConverter extends GroupConverter {
+
+    private static final int MAX_LONG_BYTES = Long.BYTES;
+
+    private final StringBuilder text;
+    private final Converter[] converters;
+    private final String name;
+    private final GroupTextConverter parent;
+    private final Consumer<String> sink;
+    // True until the first value of the current group is written
+    private boolean empty;
+
+    GroupTextConverter(final GroupType schema, final Consumer<String> sink) {
+        this(schema, null, null, sink, new StringBuilder());
+    }
+
+    private GroupTextConverter(final GroupType schema, final String name, final GroupTextConverter parent,
+        final Consumer<String> sink, final StringBuilder text) {
+        super();
+        this.text = text;
+        this.name = name;
+        this.parent = parent;
+        this.sink = sink;
+        this.converters = new Converter[schema.getFieldCount()];
+        int i = 0;
+        for (final Type field : schema.getFields()) {
+            converters[i++] = createConverter(field);
+        }
+    }
+
+    private Converter createConverter(final Type field) {
+        final String fieldName = field.getName();
+        if (!field.isPrimitive()) {
+            return new GroupTextConverter(field.asGroupType(), fieldName, this, null, text);
+        }
+        final LogicalTypeAnnotation annotation = field.getLogicalTypeAnnotation();
+        if (annotation == null) {
+            return new ValueConverter(fieldName);
+        }
+        return annotation.accept(new LogicalTypeAnnotationVisitor<Converter>() {
+            @Override
+            public Optional<Converter> visit(final StringLogicalTypeAnnotation stringLogicalType) {
+                return Optional.of(new StringValueConverter(fieldName));
+            }
+
+            @Override
+            public Optional<Converter> visit(final DecimalLogicalTypeAnnotation decimalLogicalType) {
+                return Optional.of(new DecimalValueConverter(fieldName, decimalLogicalType.getScale()));
+            }
+        }).orElseGet(() -> new ValueConverter(fieldName));
+    }
+
+    @Override
+    public Converter getConverter(final int fieldIndex) {
+        return converters[fieldIndex];
+    }
+
+    @Override
+    public void start() {
+        if (parent == null) {
+            text.setLength(0);
+        } else {
+            parent.startValue(name);
+        }
+        text.append('[');
+        empty = true;
+    }
+
+    @Override
+    public void end() {
+        text.append(']');
+        if (parent == null) {
+            sink.accept(text.toString());
+        }
+    }
+
+    private StringBuilder startValue(final String fieldName) {
+        if (empty) {
+            empty = false;
+        } else {
+            text.append(", ");
+        }
+        return text.append(fieldName).append(": ");
+    }
+
+    private class ValueConverter extends PrimitiveConverter {
+        protected final String fieldName;
+
+        ValueConverter(final String fieldName) {
+            super();
+            this.fieldName = fieldName;
+        }
+
+        @Override
+        public void addBinary(final Binary value) {
+            // Same text as an array: unannotated binaries have no readable form here
+            startValue(fieldName).append(value.getBytes());
+        }
+
+        @Override
+        public void addBoolean(final boolean value) {
+            startValue(fieldName).append(value);
+        }
+
+        @Override
+        public void addDouble(final double value) {
+            startValue(fieldName).append(value);
+        }
+
+        @Override
+        public void addFloat(final float value) {
+            startValue(fieldName).append(value);
+        }
+
+        @Override
+        public void addInt(final int value) {
+            startValue(fieldName).append(value);
+        }
+
+        @Override
+        public void addLong(final long value) {
+            startValue(fieldName).append(value);
+        }
+    }
+
+    private final class StringValueConverter extends ValueConverter {
+
+        StringValueConverter(final String fieldName) {
+            super(fieldName);
+        }
+
+        @Override
+        public void addBinary(final Binary value) {
+            startValue(fieldName).append(value.toStringUsingUTF8());
+        }
+    }
+
+    private final class DecimalValueConverter extends ValueConverter {
+        private final int scale;
+
+        DecimalValueConverter(final String fieldName, final int scale) {
+            super(fieldName);
+            this.scale = scale;
+        }
+
+        @Override
+        public void addBinary(final Binary value) {
+            final BigDecimal decimal = value.length() <= MAX_LONG_BYTES
+                ? BigDecimal.valueOf(Decimals.unscaledLong(value), scale)
+                : new BigDecimal(new BigInteger(value.getBytes()), scale);
+            startValue(fieldName).append(decimal);
+        }
+
+        @Override
+        public void addInt(final int value) {
+            startValue(fieldName).append(BigDecimal.valueOf(value, scale));
+        }
+
+        @Override
+        public void addLong(final long value) {
+            startValue(fieldName).append(BigDecimal.valueOf(value, scale));
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.parquet.bytes.ByteBufferAllocator;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.ParquetFileRange;
+import org.apache.parquet.io.SeekableInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * InputFile reading a remote http(s) file with Range requests, so that only the footer
+ * and the column chunks actually needed are transferred.
+ * The end of the file is fetched at once so that the footer is usually read in a single request.
+ * Column chunk ranges requested together are coalesced when close enough to each other.
+ * Small reads elsewhere, such as single bytes, are served from a buffer read ahead.
+ */
+final class HttpRangeInputFile implements InputFile {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HttpRangeInputFile.class);
+
+    // Size of the buffer holding the end of the file, fetched on the first read in this region,
+    // and of the buffer read ahead for small reads elsewhere
+    private static final int READ_AHEAD_SIZE = 64 * 1024;
+    // Reads shorter than this outside the buffers are served from a new read-ahead buffer
+    private static final int MAX_SMALL_READ_SIZE = 8 * 1024;
+    // Ranges separated by less than this are fetched in the same request
+    private static final int MAX_COALESCING_GAP = 128 * 1024;
+    private static final int MAX_COALESCED_SIZE = 32 * 1024 * 1024;
+
+    private final URL url;
+    private final long length;
+
+    private HttpRangeInputFile(final URL url, final long length) {
+        super();
+        this.url = url;
+        this.length = length;
+    }
+
+    /**
+     * Checks with a HEAD request that the server supports byte Range requests and returns the file length.
+     * @param uri the http(s) URI of the file
+     * @return the input file, or empty if range requests are not supported
+     * @throws IOException if the HEAD request fails
+     */
+    static Optional<InputFile> open(final URI uri) throws IOException {
+        final URL url = uri.toURL();
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("HEAD");
+            final int responseCode = connection.getResponseCode();
+            final long contentLength = connection.getContentLengthLong();
+            if (responseCode == HttpURLConnection.HTTP_OK && contentLength > 0
+                    && "bytes".equalsIgnoreCase(connection.getHeaderField("Accept-Ranges"))) {
+                return Optional.of(new HttpRangeInputFile(url, contentLength));
+            }
+            LOG.debug("Range requests not supported for {} (HTTP {})", uri.getHost(), responseCode);
+            return Optional.empty();
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public SeekableInputStream newStream() {
+        return new HttpRangeInputStream();
+    }
+
+    @Override
+    public String toString() {
+        return url.getProtocol() + "://" + url.getHost() + url.getPath();
+    }
+
+    private void readRange(final long start, final byte[] bytes, final int offset, final int len) throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestProperty("Range", "bytes=" + start + "-" + (start + len - 1));
+        final int responseCode = connection.getResponseCode();
+        if (responseCode != HttpURLConnection.HTTP_PARTIAL) {
+            connection.disconnect();
+            throw new IOException("Range request not honored for " + this + ": HTTP " + responseCode);
+        }
+        try (final InputStream in = connection.getInputStream()) {
+            IOUtils.readFully(in, bytes, offset, len);
+        }
+        LOG.debug("Read {} bytes at {} from {}", len, start, this);
+    }
+
+    private final class HttpRangeInputStream extends SeekableInputStream {
+        private long pos = 0;
+        private byte[] buffer = null;
+        private long bufferStart = 0;
+        // Reused for the small reads of page headers and single bytes
+        private byte[] readAhead = null;
+        private long readAheadStart = 0;
+        private int readAheadLength = 0;
+        private final byte[] singleByte = new byte[1];
+
+        @Override
+        public long getPos() {
+            return pos;
+        }
+
+        @Override
+        public void seek(final long newPos) throws IOException {
+            if (newPos < 0 || newPos > length) {
+                throw new EOFException("Cannot seek to " + newPos + " in " + HttpRangeInputFile.this);
+            }
+            pos = newPos;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final long skipped = Math.max(0, Math.min(n, length - pos));
+            pos += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, length - pos);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos >= length) {
+                return -1;
+            }
+            readFully(singleByte, 0, 1);
+            return singleByte[0] & 0xFF;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (pos >= length) {
+                return -1;
+            }
+            final int readBytes = (int) Math.min(len, length - pos);
+            readFully(bytes, offset, readBytes);
+            return readBytes;
+        }
+
+        @Override
+        public void readFully(final byte[] bytes) throws IOException {
+            readFully(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public void readFully(final byte[] bytes, final int offset, final int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            if (pos + len > length) {
+                throw new EOFException("Cannot read " + len + " bytes at " + pos + " in " + HttpRangeInputFile.this);
+            }
+            if (buffer == null && pos >= length - READ_AHEAD_SIZE) {
+                // the footer length, the magic and most footers are fetched in a single request
+                final int bufferSize = (int) Math.min(READ_AHEAD_SIZE, length);
+                buffer = new byte[bufferSize];
+                bufferStart = length - bufferSize;
+                readRange(bufferStart, buffer, 0, bufferSize);
+            }
+            if (isBuffered(pos, len)) {
+                System.arraycopy(buffer, (int) (pos - bufferStart), bytes, offset, len);
+            } else if (isReadAhead(pos, len)) {
+                System.arraycopy(readAhead, (int) (pos - readAheadStart), bytes, offset, len);
+            } else if (len < MAX_SMALL_READ_SIZE) {
+                if (readAhead == null) {
+                    readAhead = new byte[READ_AHEAD_SIZE];
+                }
+                readAheadStart = pos;
+                readAheadLength = (int) Math.min(READ_AHEAD_SIZE, length - pos);
+                readRange(readAheadStart, readAhead, 0, readAheadLength);
+                System.arraycopy(readAhead, 0, bytes, offset, len);
+            } else {
+                readRange(pos, bytes, offset, len);
+            }
+            pos += len;
+        }
+
+        private boolean isReadAhead(final long start, final int len) {
+            return readAheadLength > 0 && start >= readAheadStart && start + len <= readAheadStart + readAheadLength;
+        }
+
+        private boolean isBuffered(final long start, final int len) {
+            return buffer != null && start >= bufferStart && start + len <= bufferStart + buffer.length;
+        }
+
+        @Override
+        public int read(final ByteBuffer byteBuffer) throws IOException {
+            if (!byteBuffer.hasRemaining()) {
+                return 0;
+            }
+            if (pos >= length) {
+                return -1;
+            }
+            final int readBytes = (int) Math.min(byteBuffer.remaining(), length - pos);
+            final ByteBuffer slice = byteBuffer.slice();
+            slice.limit(readBytes);
+            readFully(slice);
+            byteBuffer.position(byteBuffer.position() + readBytes);
+            return readBytes;
+        }
+
+        @Override
+        public void readFully(final ByteBuffer byteBuffer) throws IOException {
+            final int len = byteBuffer.remaining();
+            if (byteBuffer.hasArray()) {
+                readFully(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), len);
+            } else {
+                final byte[] bytes = new byte[len];
+                readFully(bytes, 0, len);
+                byteBuffer.duplicate().put(bytes);
+            }
+            byteBuffer.position(byteBuffer.position() + len);
+        }
+
+        @Override
+        public boolean readVectoredAvailable(final ByteBufferAllocator allocator) {
+            return true;
+        }
+
+        /**
+         * Reads the ranges with as few requests as possible: ranges already buffered are not fetched again,
+         * the others are sorted and the ones separated by small gaps are fetched in the same request.
+         */
+        @Override
+        public void readVectored(final List<ParquetFileRange> ranges, final ByteBufferAllocator allocator)
+                throws IOException {
+            final List<ParquetFileRange> sortedRanges = new ArrayList<>(ranges.size());
+            for (final ParquetFileRange range : ranges) {
+                if (isBuffered(range.getOffset(), range.getLength())) {
+                    final ByteBuffer rangeBuffer = allocator.allocate(range.getLength());
+                    rangeBuffer.put(buffer, (int) (range.getOffset() - bufferStart), range.getLength());
+                    rangeBuffer.flip();
+                    range.setDataReadFuture(CompletableFuture.completedFuture(rangeBuffer));
+                } else {
+                    sortedRanges.add(range);
+                }
+            }
+            sortedRanges.sort(Comparator.comparingLong(ParquetFileRange::getOffset));
+            int first = 0;
+            while (first < sortedRanges.size()) {
+                final long start = sortedRanges.get(first).getOffset();
+                long end = start + sortedRanges.get(first).getLength();
+                int last = first + 1;
+                while (last < sortedRanges.size()) {
+                    final ParquetFileRange next = sortedRanges.get(last);
+                    final long nextEnd = Math.max(end, next.getOffset() + next.getLength());
+                    if (next.getOffset() - end > MAX_COALESCING_GAP || nextEnd - start > MAX_COALESCED_SIZE) {
+                        break;
+                    }
+                    end = nextEnd;
+                    last++;
+                }
+                final byte[] bytes = new byte[(int) (end - start)];
+                readRange(start, bytes, 0, bytes.length);
+                for (final ParquetFileRange range : sortedRanges.subList(first, last)) {
+                    final ByteBuffer rangeBuffer = allocator.allocate(range.getLength());
+                    rangeBuffer.put(bytes, (int) (range.getOffset() - start), range.getLength());
+                    rangeBuffer.flip();
+                    range.setDataReadFuture(CompletableFuture.completedFuture(rangeBuffer));
+                }
+                first = last;
+            }
+        }
+    }
+}
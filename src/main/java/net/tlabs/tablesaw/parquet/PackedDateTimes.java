@@ -0,0 +1,120 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.time.temporal.ChronoField;
+
+import tech.tablesaw.columns.dates.PackedLocalDate;
+import tech.tablesaw.columns.times.PackedLocalTime;
+
+/**
+ * Packs epoch based dates, times and timestamps into the int and long representations used by tablesaw's date and
+ * time columns, using integer arithmetic only. The result is identical to packing the equivalent java.time value,
+ * sub millisecond precision is truncated towards the past.
+ */
+final class PackedDateTimes {
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long JULIAN_DAY_OF_EPOCH = 2_440_588L;
+    private static final int MILLIS_PER_HOUR = 3_600_000;
+    private static final int MILLIS_PER_MINUTE = 60_000;
+    private static final int MILLIS_PER_SECOND = 1_000;
+    private static final long DAYS_PER_CYCLE = 146_097L;
+    private static final long DAYS_0000_TO_1970 = DAYS_PER_CYCLE * 5L - (30L * 365L + 7L);
+
+    private PackedDateTimes() {
+        super();
+    }
+
+    /**
+     * Packs a number of milliseconds since 1970-01-01T00:00:00 (UTC).
+     * @param epochMilli the milliseconds since the epoch, may be negative
+     * @return the packed date time
+     */
+    static long packEpochMilli(final long epochMilli) {
+        final long epochDay = Math.floorDiv(epochMilli, MILLIS_PER_DAY);
+        final int millisOfDay = (int) Math.floorMod(epochMilli, MILLIS_PER_DAY);
+        return (long) packEpochDay(epochDay) << 32 | (long) packMillisOfDay(millisOfDay) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Packs a timestamp expressed in a unit smaller than or equal to one millisecond.
+     * @param value the number of units since the epoch, may be negative
+     * @param unitsPerMilli the number of units in one millisecond (1 for millis, 1000 for micros...)
+     * @return the packed date time
+     */
+    static long packEpoch(final long value, final long unitsPerMilli) {
+        return packEpochMilli(Math.floorDiv(value, unitsPerMilli));
+    }
+
+    /**
+     * Packs a legacy INT96 timestamp.
+     * @param julianDay the julian day number
+     * @param nanosOfDay the nanoseconds since midnight, not limited to one day
+     * @return the packed date time
+     */
+    static long packJulianDay(final int julianDay, final long nanosOfDay) {
+        return packEpochMilli((julianDay - JULIAN_DAY_OF_EPOCH) * MILLIS_PER_DAY
+            + Math.floorDiv(nanosOfDay, NANOS_PER_MILLI));
+    }
+
+    /**
+     * Packs a number of days since 1970-01-01.
+     * @param epochDay the days since the epoch, may be negative
+     * @return the packed date
+     */
+    // Same algorithm as LocalDate.ofEpochDay, without creating the LocalDate
+    static int packEpochDay(final long epochDay) {
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60L;
+        long adjust = 0L;
+        if (zeroDay < 0L) {
+            final long adjustCycles = (zeroDay + 1L) / DAYS_PER_CYCLE - 1L;
+            adjust = adjustCycles * 400L;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400L * zeroDay + 591L) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365L * yearEst + yearEst / 4L - yearEst / 100L + yearEst / 400L);
+        if (doyEst < 0L) {
+            yearEst--;
+            doyEst = zeroDay - (365L * yearEst + yearEst / 4L - yearEst / 100L + yearEst / 400L);
+        }
+        yearEst += adjust;
+        final int marchDoy0 = (int) doyEst;
+        final int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        final int month = (marchMonth0 + 2) % 12 + 1;
+        final int dayOfMonth = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        return PackedLocalDate.pack((int) (yearEst + marchMonth0 / 10), month, dayOfMonth);
+    }
+
+    /**
+     * Packs a number of milliseconds since midnight.
+     * @param value the milliseconds since midnight
+     * @return the packed time
+     * @throws java.time.DateTimeException if the value is not a valid millisecond of day
+     */
+    static int packMillisOfDay(final long value) {
+        final int millisOfDay = (int) ChronoField.MILLI_OF_DAY.checkValidValue(value);
+        final int millisOfMinute = millisOfDay % MILLIS_PER_MINUTE;
+        return PackedLocalTime.of(millisOfDay / MILLIS_PER_HOUR, (millisOfDay % MILLIS_PER_HOUR) / MILLIS_PER_MINUTE,
+            millisOfMinute / MILLIS_PER_SECOND, millisOfMinute % MILLIS_PER_SECOND);
+    }
+}
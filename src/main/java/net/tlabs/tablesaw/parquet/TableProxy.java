@@ -20,12 +20,13 @@ package net.tlabs.tablesaw.parquet;
  * #L%
  */
 
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.nio.ByteBuffer;
 import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.List;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import tech.tablesaw.api.BooleanColumn;
 import tech.tablesaw.api.ColumnType;
 import tech.tablesaw.api.DateColumn;
@@ -44,11 +45,15 @@ import tech.tablesaw.columns.Column;
 import tech.tablesaw.columns.dates.PackedLocalDate;
 import tech.tablesaw.columns.times.PackedLocalTime;
 
-final class TableProxy {
+class TableProxy {
 
     private final Table table;
 
-    private final boolean[] rowColumnsSet;
+    private final Column<?>[] columns;
+    // Columns set in the current row, one bit per column
+    private final long[] rowColumnsSet;
+    // All the columns, one bit per column
+    private final long[] allColumns;
     private final BooleanColumn[] booleanColumns;
     private final ShortColumn[] shortColumns;
     private final IntColumn[] intColumns;
@@ -60,18 +65,35 @@ final class TableProxy {
     private final DateTimeColumn[] dateTimeColumns;
     private final InstantColumn[] instantColumns;
     private final StringColumn[] stringColumns;
+    private final BinaryColumn[] binaryColumns;
+    // Text of the repeated values of the current row, written once the row ends
+    private final StringBuilder[] repeatedValues;
+    private boolean repeatedValuesPending = false;
 
     private Row currentRow = null;
-    private int currentRownum;
-    private boolean rowSkipped = false;
+    private int currentRownum = -1;
+    // Rows already present in the table are pre-allocated rows, filled with missing values, to be overwritten.
+    // Values are always set in allocated rows, rows are allocated one by one when the table was not presized.
+    private int allocatedRowCount;
+    // Allocated rows from this index on were never written, and still hold missing values only
+    private int writtenRowCount = 0;
+    // Whether a string value was overwritten with a missing value, which StringColumn does not always
+    // record as missing: it only does for the missing values appended
+    private boolean stringMissingSet = false;
+    private int columnChunkStart = 0;
 
     TableProxy(final Table table) {
         super();
         this.table = table;
-        this.currentRownum = table.rowCount() - 1;
-        final List<Column<?>> columns = table.columns();
-        final int size = columns.size();
-        rowColumnsSet = new boolean[size];
+        this.allocatedRowCount = table.rowCount();
+        final List<Column<?>> tableColumns = table.columns();
+        final int size = tableColumns.size();
+        columns = new Column<?>[size];
+        rowColumnsSet = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        allColumns = new long[rowColumnsSet.length];
+        for (int i = 0; i < size; i++) {
+            allColumns[i / Long.SIZE] |= 1L << i;
+        }
         booleanColumns = new BooleanColumn[size];
         shortColumns = new ShortColumn[size];
         intColumns = new IntColumn[size];
@@ -83,12 +105,16 @@ final class TableProxy {
         dateTimeColumns = new DateTimeColumn[size];
         instantColumns = new InstantColumn[size];
         stringColumns = new StringColumn[size];
+        binaryColumns = new BinaryColumn[size];
+        repeatedValues = new StringBuilder[size];
         for (int i = 0; i < size; i++) {
-            fillColumnArrays(i, columns.get(i).type());
+            fillColumnArrays(i, tableColumns.get(i));
         }
     }
 
-    private void fillColumnArrays(final int colIndex, final ColumnType columnType) {
+    private void fillColumnArrays(final int colIndex, final Column<?> column) {
+        columns[colIndex] = column;
+        final ColumnType columnType = column.type();
         if (ColumnType.BOOLEAN.equals(columnType)) {
             booleanColumns[colIndex] = table.booleanColumn(colIndex);
         } else if (ColumnType.SHORT.equals(columnType)) {
@@ -111,136 +137,377 @@ final class TableProxy {
             instantColumns[colIndex] = table.instantColumn(colIndex);
         } else if (ColumnType.STRING.equals(columnType)) {
             stringColumns[colIndex] = table.stringColumn(colIndex);
+        } else if (BinaryColumnType.instance().equals(columnType)) {
+            binaryColumns[colIndex] = (BinaryColumn) column;
         } else {
             throw new IllegalArgumentException("Unsupported ColumnType " + columnType);
         }
     }
 
-    void appendInstant(final int colIndex, final Instant value) {
-        if(rowSkipped) {
-            instantColumns[colIndex].set(currentRownum, value);            
-        } else {
-            instantColumns[colIndex].append(value);
+    void appendPackedInstant(final int colIndex, final long packedValue) {
+        instantColumns[colIndex].set(currentRownum, packedValue);
+        setColumn(colIndex);
+    }
+
+    void appendPackedDateTime(final int colIndex, final long packedValue) {
+        dateTimeColumns[colIndex].set(currentRownum, packedValue);
+        setColumn(colIndex);
+    }
+
+    void appendPackedDate(final int colIndex, final int packedValue) {
+        dateColumns[colIndex].set(currentRownum, packedValue);
+        setColumn(colIndex);
+    }
+
+    void appendPackedTime(final int colIndex, final int packedValue) {
+        timeColumns[colIndex].set(currentRownum, packedValue);
+        setColumn(colIndex);
+    }
+
+    void appendFloat(final int colIndex, final float value) {
+        floatColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendDouble(final int colIndex, final double value) {
+        doubleColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendString(final int colIndex, final String value) {
+        stringColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendBinary(final int colIndex, final ByteBuffer value) {
+        binaryColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendRepeatedString(final int colIndex, final String value) {
+        StringBuilder builder = repeatedValues[colIndex];
+        if (builder == null) {
+            builder = new StringBuilder();
+            repeatedValues[colIndex] = builder;
         }
-        rowColumnsSet[colIndex] = true;
+        builder.append(builder.length() == 0 ? "[" : ", ").append(value);
+        repeatedValuesPending = true;
+        setColumn(colIndex);
     }
 
-    void appendDateTime(final int colIndex, final LocalDateTime value) {
-        if(rowSkipped) {
-            dateTimeColumns[colIndex].set(currentRownum, value);            
-        } else {
-            dateTimeColumns[colIndex].append(value);
+    private void endRepeatedString(final int colIndex) {
+        final StringBuilder builder = repeatedValues[colIndex];
+        final String value = builder.append(']').toString();
+        builder.setLength(0);
+        appendString(colIndex, value);
+    }
+
+    void appendBoolean(final int colIndex, final boolean value) {
+        booleanColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendShort(final int colIndex, final short value) {
+        shortColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendInt(final int colIndex, final int value) {
+        intColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    void appendLong(final int colIndex, final long value) {
+        longColumns[colIndex].set(currentRownum, value);
+        setColumn(colIndex);
+    }
+
+    /**
+     * Creates a proxy on a table. Records are appended to the tables that are not presized, see {@link Buffered}.
+     * @param table the table, with its pre-allocated rows if any
+     * @param records whether the rows are whole records, rather than the rows of a child table
+     * @return the proxy
+     */
+    static TableProxy create(final Table table, final boolean records) {
+        return records && table.rowCount() == 0 ? new Buffered(table) : new TableProxy(table);
+    }
+
+    void startRow() {
+        currentRownum++;
+        if (currentRownum >= allocatedRowCount) {
+            // the columns grow their storage in chunks as rows are appended
+            allocateRows(currentRownum + 1);
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendFloat(final int colIndex, final float value) {
-        if(rowSkipped) {
-            floatColumns[colIndex].set(currentRownum, value);            
-        } else {
-            floatColumns[colIndex].append(value);
+    private void setColumn(final int colIndex) {
+        // the shift distance only uses the low 6 bits of the column index
+        rowColumnsSet[colIndex >>> 6] |= 1L << colIndex;
+    }
+
+    void endRow() {
+        if (repeatedValuesPending) {
+            endRepeatedStrings();
+        }
+        // rows never written since their allocation already hold missing values
+        if (currentRownum < writtenRowCount) {
+            fillMissingValues();
         }
-        rowColumnsSet[colIndex] = true;
+        Arrays.fill(rowColumnsSet, 0L);
+        writtenRowCount = Math.max(writtenRowCount, currentRownum + 1);
     }
 
-    void appendDouble(final int colIndex, final double value) {
-        if(rowSkipped) {
-            doubleColumns[colIndex].set(currentRownum, value);            
-        } else {
-            doubleColumns[colIndex].append(value);
+    private void endRepeatedStrings() {
+        for (int i = 0; i < repeatedValues.length; i++) {
+            if (repeatedValues[i] != null && repeatedValues[i].length() > 0) {
+                endRepeatedString(i);
+            }
         }
-        rowColumnsSet[colIndex] = true;
+        repeatedValuesPending = false;
     }
 
-    void appendTime(final int colIndex, final LocalTime value) {
-        if(rowSkipped) {
-            timeColumns[colIndex].set(currentRownum, value);            
-        } else {
-            timeColumns[colIndex].append(value);
+    private void fillMissingValues() {
+        for (int word = 0; word < rowColumnsSet.length; word++) {
+            long missing = allColumns[word] & ~rowColumnsSet[word];
+            while (missing != 0L) {
+                final int colIndex = word * Long.SIZE + Long.numberOfTrailingZeros(missing);
+                columns[colIndex].setMissing(currentRownum);
+                stringMissingSet |= stringColumns[colIndex] != null;
+                missing &= missing - 1;
+            }
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendString(final int colIndex, final String value) {
-        if(rowSkipped) {
-            stringColumns[colIndex].set(currentRownum, value);            
-        } else {
-            stringColumns[colIndex].append(value);
+    /**
+     * Starts a block of rows filled column by column instead of row by row.
+     * The rows are allocated up front if needed.
+     * @param rowCount the number of rows in the block
+     */
+    void startColumns(final int rowCount) {
+        columnChunkStart = currentRownum + 1;
+        allocateRows(columnChunkStart + rowCount);
+    }
+
+    /**
+     * Starts filling a column of the current block of rows, from the first row of the block.
+     */
+    void startColumn() {
+        currentRownum = columnChunkStart - 1;
+    }
+
+    /**
+     * Moves to the next row of the column being filled.
+     * Rows left without value keep the missing value they were allocated with.
+     */
+    void nextColumnRow() {
+        currentRownum++;
+    }
+
+    /**
+     * Fills a column of the current block of rows from a whole column chunk of a flat schema,
+     * without a converter call per value. The methods below are the same loop for each column type:
+     * null values are skipped, and their rows keep the missing value they were allocated with.
+     * @param colIndex the column index
+     * @param columnReader the reader of the column chunk
+     * @param rowCount the number of rows in the column chunk
+     */
+    void readInts(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final IntColumn column = intColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, columnReader.getInteger());
+            }
+            columnReader.consume();
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendRepeatedString(final int colIndex, final String value) {
-        if(rowColumnsSet[colIndex]) {
-            final String initialContent = getString(colIndex, currentRownum);
-            stringColumns[colIndex].set(currentRownum, "[" + initialContent.substring(1, initialContent.length() - 1) + ", " + value + "]");
-        } else {
-            appendString(colIndex, "[" + value + "]");
+    void readShorts(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final ShortColumn column = shortColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, (short) columnReader.getInteger());
+            }
+            columnReader.consume();
         }
     }
 
-    void appendBoolean(final int colIndex, final boolean value) {
-        if(rowSkipped) {
-            booleanColumns[colIndex].set(currentRownum, value);            
+    void readLongs(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final LongColumn column = longColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        if (columnReader.getDescriptor().getPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.INT32) {
+            for (int row = columnChunkStart; row < end; row++) {
+                if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                    column.set(row, columnReader.getInteger());
+                }
+                columnReader.consume();
+            }
         } else {
-            booleanColumns[colIndex].append(value);
+            for (int row = columnChunkStart; row < end; row++) {
+                if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                    column.set(row, columnReader.getLong());
+                }
+                columnReader.consume();
+            }
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendShort(final int colIndex, final short value) {
-        if(rowSkipped) {
-            shortColumns[colIndex].set(currentRownum, value);            
-        } else {
-            shortColumns[colIndex].append(value);
+    void readFloats(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final FloatColumn column = floatColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, columnReader.getFloat());
+            }
+            columnReader.consume();
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendInt(final int colIndex, final int value) {
-        if(rowSkipped) {
-            intColumns[colIndex].set(currentRownum, value);            
+    void readDoubles(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final DoubleColumn column = doubleColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        if (columnReader.getDescriptor().getPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.FLOAT) {
+            for (int row = columnChunkStart; row < end; row++) {
+                if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                    column.set(row, columnReader.getFloat());
+                }
+                columnReader.consume();
+            }
         } else {
-            intColumns[colIndex].append(value);
+            for (int row = columnChunkStart; row < end; row++) {
+                if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                    column.set(row, columnReader.getDouble());
+                }
+                columnReader.consume();
+            }
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendLong(final int colIndex, final long value) {
-        if(rowSkipped) {
-            longColumns[colIndex].set(currentRownum, value);            
-        } else {
-            longColumns[colIndex].append(value);
+    void readBooleans(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final BooleanColumn column = booleanColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, columnReader.getBoolean());
+            }
+            columnReader.consume();
+        }
+    }
+
+    void readEpochDays(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final DateColumn column = dateColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, PackedDateTimes.packEpochDay(columnReader.getInteger()));
+            }
+            columnReader.consume();
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void appendDate(final int colIndex, final LocalDate value) {
-        if(rowSkipped) {
-            dateColumns[colIndex].set(currentRownum, value);            
+    /**
+     * @param unitsPerMilli the number of units of the INT64 values in one millisecond, INT32 values are millis
+     */
+    void readTimes(final int colIndex, final ColumnReader columnReader, final int rowCount,
+            final long unitsPerMilli) {
+        final TimeColumn column = timeColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        if (columnReader.getDescriptor().getPrimitiveType().getPrimitiveTypeName() == PrimitiveTypeName.INT32) {
+            for (int row = columnChunkStart; row < end; row++) {
+                if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                    column.set(row, PackedDateTimes.packMillisOfDay(columnReader.getInteger()));
+                }
+                columnReader.consume();
+            }
         } else {
-            dateColumns[colIndex].append(value);
+            for (int row = columnChunkStart; row < end; row++) {
+                if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                    column.set(row, PackedDateTimes.packMillisOfDay(
+                        Math.floorDiv(columnReader.getLong(), unitsPerMilli)));
+                }
+                columnReader.consume();
+            }
         }
-        rowColumnsSet[colIndex] = true;
     }
 
-    void startRow() {
-        currentRownum++;
+    /**
+     * @param unitsPerMilli the number of units of the INT64 values in one millisecond
+     */
+    void readDateTimes(final int colIndex, final ColumnReader columnReader, final int rowCount,
+            final long unitsPerMilli) {
+        final DateTimeColumn column = dateTimeColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, PackedDateTimes.packEpoch(columnReader.getLong(), unitsPerMilli));
+            }
+            columnReader.consume();
+        }
     }
 
-    void endRow() {
-        for (int i = 0; i < rowColumnsSet.length; i++) {
-            if (!rowColumnsSet[i]) {
-                if(rowSkipped) {
-                    table.column(i).setMissing(currentRownum); 
-                } else {
-                    table.column(i).appendMissing();
-                }
-            } else {
-                rowColumnsSet[i] = false;
+    /**
+     * @param unitsPerMilli the number of units of the INT64 values in one millisecond
+     */
+    void readInstants(final int colIndex, final ColumnReader columnReader, final int rowCount,
+            final long unitsPerMilli) {
+        final InstantColumn column = instantColumns[colIndex];
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        final int end = columnChunkStart + rowCount;
+        for (int row = columnChunkStart; row < end; row++) {
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                column.set(row, PackedDateTimes.packEpoch(columnReader.getLong(), unitsPerMilli));
+            }
+            columnReader.consume();
+        }
+    }
+
+    /**
+     * Ends a block of rows filled column by column instead of row by row.
+     * @param rowCount the number of rows in the block
+     */
+    void endColumns(final int rowCount) {
+        currentRownum = columnChunkStart + rowCount - 1;
+        Arrays.fill(rowColumnsSet, 0L);
+        writtenRowCount = Math.max(writtenRowCount, currentRownum + 1);
+    }
+
+    /**
+     * Appends all the rows of a table with the same columns, e.g. a partial table decoded separately.
+     * @param partialTable the table to append
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void appendTable(final Table partialTable) {
+        final int rowCount = partialTable.rowCount();
+        startColumns(rowCount);
+        // by index, as column names may not be unique
+        for (int colIndex = 0; colIndex < columns.length; colIndex++) {
+            final Column column = columns[colIndex];
+            final Column<?> partialColumn = partialTable.column(colIndex);
+            for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+                column.set(columnChunkStart + rowIndex, partialColumn, rowIndex);
+            }
+        }
+        endColumns(rowCount);
+    }
+
+    private void allocateRows(final int rowCount) {
+        // column by column, so that each loop appends to a single column
+        for (final Column<?> column : columns) {
+            for (int row = allocatedRowCount; row < rowCount; row++) {
+                column.appendMissing();
             }
         }
-        rowSkipped = false;
+        allocatedRowCount = Math.max(allocatedRowCount, rowCount);
     }
 
     Row getCurrentRow() {
@@ -281,6 +548,11 @@ final class TableProxy {
         return stringColumns[colIndex].get(rowIndex);
     }
     
+    Binary getBinary(final int colIndex, final int rowIndex) {
+        final BinaryColumn column = binaryColumns[colIndex];
+        return Binary.fromReusedByteArray(column.data(), column.offset(rowIndex), column.length(rowIndex));
+    }
+
     int getDateAsEpochDay(final int colIndex, final int rowIndex) {
         return (int) PackedLocalDate.toEpochDay(dateColumns[colIndex].getIntInternal(rowIndex));
     }
@@ -298,16 +570,287 @@ final class TableProxy {
     }
 
     Column<?> column(final int colIndex) {
-        return table.column(colIndex);
+        return columns[colIndex];
     }
 
     void skipCurrentRow() {
-        rowSkipped = true;
+        // the skipped row stays allocated and is overwritten by the next row
         currentRownum--;
     }
-    
+
+    int currentRowIndex() {
+        return currentRownum;
+    }
+
+    /**
+     * Skips all the rows written after the given row, e.g. when the parent record of these rows is skipped.
+     * @param rowIndex the index of the last row to keep, -1 to skip all rows
+     */
+    void skipRowsAfter(final int rowIndex) {
+        // skipped rows stay allocated and are overwritten by the next rows
+        currentRownum = rowIndex;
+    }
+
+    /**
+     * Returns the table, after trimming the allocated rows that were not filled.
+     * Only the rows of records skipped after the last row written are left unfilled,
+     * or the pre-allocated rows when fewer rows than expected were read.
+     * The columns are also copied when string values were overwritten with missing values,
+     * so that they are appended as missing values.
+     * @return the table
+     */
     Table getTable() {
-        if(rowSkipped) return table.dropRows(currentRownum + 1);
+        final int rowCount = currentRownum + 1;
+        if (allocatedRowCount > rowCount || stringMissingSet) {
+            // columns are all replaced at once as the table checks column sizes
+            final Column<?>[] trimmedColumns = new Column<?>[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                trimmedColumns[i] = rowCount == 0 ? columns[i].emptyCopy() : columns[i].inRange(0, rowCount);
+            }
+            table.removeColumns(columns);
+            table.addColumns(trimmedColumns);
+            for (int i = 0; i < columns.length; i++) {
+                fillColumnArrays(i, trimmedColumns[i]);
+            }
+            allocatedRowCount = rowCount;
+            writtenRowCount = Math.min(writtenRowCount, rowCount);
+            stringMissingSet = false;
+            currentRow = null;
+        }
         return table;
     }
+
+    /**
+     * Proxy for tables that are not presized, e.g. with a record filter, holding the values of the current record
+     * until the materializer returns it. Parquet only evaluates the record filter once the whole record is decoded:
+     * the record is then appended to the table when accepted, and its values dropped when rejected.
+     * Rejected records never reach the columns, so the table is never trimmed. The table must be empty.
+     */
+    static final class Buffered extends TableProxy {
+
+        private static final byte BOOLEAN = 0;
+        private static final byte SHORT = 1;
+        private static final byte INTEGER = 2;
+        private static final byte LONG = 3;
+        private static final byte FLOAT = 4;
+        private static final byte DOUBLE = 5;
+        private static final byte DATE = 6;
+        private static final byte TIME = 7;
+        private static final byte DATE_TIME = 8;
+        private static final byte INSTANT = 9;
+        private static final byte STRING = 10;
+        private static final byte BINARY = 11;
+
+        // Column types by column index, to append the values of a record
+        private final byte[] kinds;
+        // Values of the current record by column index: primitive values as bits, strings and binary values
+        private final long[] values;
+        private final String[] strings;
+        // Binary values are copied, as parquet may reuse their buffers
+        private final byte[][] bytes;
+        private final int[] byteLengths;
+
+        Buffered(final Table table) {
+            super(table);
+            if (table.rowCount() > 0) {
+                throw new IllegalArgumentException("Records can only be buffered for an empty table");
+            }
+            final int size = super.columns.length;
+            kinds = new byte[size];
+            values = new long[size];
+            strings = new String[size];
+            bytes = new byte[size][];
+            byteLengths = new int[size];
+            for (int i = 0; i < size; i++) {
+                kinds[i] = kind(i);
+            }
+        }
+
+        private byte kind(final int colIndex) {
+            if (super.booleanColumns[colIndex] != null) {
+                return BOOLEAN;
+            } else if (super.shortColumns[colIndex] != null) {
+                return SHORT;
+            } else if (super.intColumns[colIndex] != null) {
+                return INTEGER;
+            } else if (super.longColumns[colIndex] != null) {
+                return LONG;
+            } else if (super.floatColumns[colIndex] != null) {
+                return FLOAT;
+            } else if (super.doubleColumns[colIndex] != null) {
+                return DOUBLE;
+            } else if (super.dateColumns[colIndex] != null) {
+                return DATE;
+            } else if (super.timeColumns[colIndex] != null) {
+                return TIME;
+            } else if (super.dateTimeColumns[colIndex] != null) {
+                return DATE_TIME;
+            } else if (super.instantColumns[colIndex] != null) {
+                return INSTANT;
+            } else if (super.stringColumns[colIndex] != null) {
+                return STRING;
+            }
+            return BINARY;
+        }
+
+        private void setValue(final int colIndex, final long value) {
+            values[colIndex] = value;
+            super.setColumn(colIndex);
+        }
+
+        @Override
+        void appendPackedInstant(final int colIndex, final long packedValue) {
+            setValue(colIndex, packedValue);
+        }
+
+        @Override
+        void appendPackedDateTime(final int colIndex, final long packedValue) {
+            setValue(colIndex, packedValue);
+        }
+
+        @Override
+        void appendPackedDate(final int colIndex, final int packedValue) {
+            setValue(colIndex, packedValue);
+        }
+
+        @Override
+        void appendPackedTime(final int colIndex, final int packedValue) {
+            setValue(colIndex, packedValue);
+        }
+
+        @Override
+        void appendFloat(final int colIndex, final float value) {
+            setValue(colIndex, Float.floatToRawIntBits(value));
+        }
+
+        @Override
+        void appendDouble(final int colIndex, final double value) {
+            setValue(colIndex, Double.doubleToRawLongBits(value));
+        }
+
+        @Override
+        void appendString(final int colIndex, final String value) {
+            strings[colIndex] = value;
+            super.setColumn(colIndex);
+        }
+
+        @Override
+        void appendBinary(final int colIndex, final ByteBuffer value) {
+            final int length = value.remaining();
+            byte[] buffer = bytes[colIndex];
+            if (buffer == null || buffer.length < length) {
+                buffer = new byte[length];
+                bytes[colIndex] = buffer;
+            }
+            value.duplicate().get(buffer, 0, length);
+            byteLengths[colIndex] = length;
+            super.setColumn(colIndex);
+        }
+
+        @Override
+        void appendBoolean(final int colIndex, final boolean value) {
+            setValue(colIndex, value ? 1L : 0L);
+        }
+
+        @Override
+        void appendShort(final int colIndex, final short value) {
+            setValue(colIndex, value);
+        }
+
+        @Override
+        void appendInt(final int colIndex, final int value) {
+            setValue(colIndex, value);
+        }
+
+        @Override
+        void appendLong(final int colIndex, final long value) {
+            setValue(colIndex, value);
+        }
+
+        @Override
+        void startRow() {
+            // the row is only allocated once the record is accepted
+            super.currentRownum++;
+        }
+
+        @Override
+        void endRow() {
+            if (super.repeatedValuesPending) {
+                super.endRepeatedStrings();
+            }
+        }
+
+        /**
+         * Appends the accepted record to the table, and returns its row.
+         */
+        @Override
+        Row getCurrentRow() {
+            final long[] rowColumnsSet = super.rowColumnsSet;
+            final Column<?>[] columns = super.columns;
+            for (int colIndex = 0; colIndex < columns.length; colIndex++) {
+                if ((rowColumnsSet[colIndex >>> 6] & (1L << colIndex)) == 0L) {
+                    columns[colIndex].appendMissing();
+                } else {
+                    appendValue(colIndex);
+                }
+            }
+            Arrays.fill(rowColumnsSet, 0L);
+            super.allocatedRowCount = super.currentRownum + 1;
+            super.writtenRowCount = super.allocatedRowCount;
+            return super.getCurrentRow();
+        }
+
+        private void appendValue(final int colIndex) {
+            final long value = values[colIndex];
+            switch (kinds[colIndex]) {
+                case BOOLEAN:
+                    super.booleanColumns[colIndex].append(value != 0L);
+                    break;
+                case SHORT:
+                    super.shortColumns[colIndex].append((short) value);
+                    break;
+                case INTEGER:
+                    super.intColumns[colIndex].append((int) value);
+                    break;
+                case LONG:
+                    super.longColumns[colIndex].append(value);
+                    break;
+                case FLOAT:
+                    super.floatColumns[colIndex].append(Float.intBitsToFloat((int) value));
+                    break;
+                case DOUBLE:
+                    super.doubleColumns[colIndex].append(Double.longBitsToDouble(value));
+                    break;
+                case DATE:
+                    super.dateColumns[colIndex].appendInternal((int) value);
+                    break;
+                case TIME:
+                    super.timeColumns[colIndex].appendInternal((int) value);
+                    break;
+                case DATE_TIME:
+                    super.dateTimeColumns[colIndex].appendInternal(value);
+                    break;
+                case INSTANT:
+                    super.instantColumns[colIndex].appendInternal(value);
+                    break;
+                case STRING:
+                    super.stringColumns[colIndex].append(strings[colIndex]);
+                    strings[colIndex] = null;
+                    break;
+                default:
+                    super.binaryColumns[colIndex].append(bytes[colIndex], 0, byteLengths[colIndex]);
+                    break;
+            }
+        }
+
+        /**
+         * Drops the values of the rejected record.
+         */
+        @Override
+        void skipCurrentRow() {
+            Arrays.fill(super.rowColumnsSet, 0L);
+            Arrays.fill(strings, null);
+            super.currentRownum--;
+        }
+    }
 }
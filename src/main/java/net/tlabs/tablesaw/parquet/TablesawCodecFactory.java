@@ -0,0 +1,393 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.parquet.bytes.ByteBufferReleaser;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.xerial.snappy.Snappy;
+
+import com.github.luben.zstd.Zstd;
+
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+
+/**
+ * Compression codecs implemented directly on the compression libraries, without hadoop codecs.
+ * The hadoop CodecFactory requires a hadoop Configuration for every compressed column chunk:
+ * it is only created, on first use, for the codecs not supported here (LZ4, LZO, BROTLI).
+ * Not thread-safe, like the hadoop CodecFactory.
+ */
+final class TablesawCodecFactory implements CompressionCodecFactory {
+
+    private static final String ZSTD_LEVEL_PROPERTY = "parquet.compression.codec.zstd.level";
+    private static final int ZSTD_DEFAULT_LEVEL = 3;
+
+    private final ParquetConfiguration configuration;
+    private final int pageSize;
+    private final Map<CompressionCodecName, ByteBufferCodec> codecs = new EnumMap<>(CompressionCodecName.class);
+    private CompressionCodecFactory hadoopCodecFactory;
+
+    TablesawCodecFactory(final ParquetConfiguration configuration, final int pageSize) {
+        super();
+        this.configuration = configuration;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public BytesInputCompressor getCompressor(final CompressionCodecName codecName) {
+        final ByteBufferCodec codec = getCodec(codecName);
+        return codec == null ? getHadoopCodecFactory().getCompressor(codecName) : codec;
+    }
+
+    @Override
+    public BytesInputDecompressor getDecompressor(final CompressionCodecName codecName) {
+        final ByteBufferCodec codec = getCodec(codecName);
+        return codec == null ? getHadoopCodecFactory().getDecompressor(codecName) : codec;
+    }
+
+    @Override
+    public void release() {
+        codecs.clear();
+        if (hadoopCodecFactory != null) {
+            hadoopCodecFactory.release();
+            hadoopCodecFactory = null;
+        }
+    }
+
+    private ByteBufferCodec getCodec(final CompressionCodecName codecName) {
+        return codecs.computeIfAbsent(codecName, this::createCodec);
+    }
+
+    private ByteBufferCodec createCodec(final CompressionCodecName codecName) {
+        switch (codecName) {
+            case UNCOMPRESSED:
+                return new UncompressedCodec();
+            case SNAPPY:
+                return new SnappyCodec();
+            case GZIP:
+                return new GzipCodec();
+            case ZSTD:
+                return new ZstdCodec(configuration.getInt(ZSTD_LEVEL_PROPERTY, ZSTD_DEFAULT_LEVEL));
+            case LZ4_RAW:
+                return new Lz4RawCodec();
+            default:
+                return null;
+        }
+    }
+
+    private CompressionCodecFactory getHadoopCodecFactory() {
+        if (hadoopCodecFactory == null) {
+            hadoopCodecFactory = new CodecFactory(configuration, pageSize);
+        }
+        return hadoopCodecFactory;
+    }
+
+    /**
+     * Codec compressing and decompressing whole pages, read from the arrays of heap buffers
+     * or through the direct buffer API of the compression library, without copying the pages.
+     * Only input buffers without an accessible array that cannot be read directly
+     * (read-only heap buffers, or direct buffers decompressed into a heap page) are copied,
+     * into an array reused for the next pages.
+     */
+    private abstract static class ByteBufferCodec implements BytesInputCompressor, BytesInputDecompressor {
+        private final CompressionCodecName codecName;
+        private byte[] inputCopy = new byte[0];
+
+        ByteBufferCodec(final CompressionCodecName codecName) {
+            super();
+            this.codecName = codecName;
+        }
+
+        abstract BytesInput compress(byte[] input, int inputOffset, int inputLength) throws IOException;
+
+        /**
+         * @return the number of decompressed bytes
+         */
+        abstract int decompress(byte[] input, int inputOffset, int inputLength,
+            byte[] output, int outputOffset, int outputLength) throws IOException;
+
+        /**
+         * Decompresses from the position to the limit of a direct buffer to the position of another one.
+         * Codecs without a direct buffer API decompress through arrays.
+         * @return the number of decompressed bytes
+         */
+        int decompressDirect(final ByteBuffer input, final ByteBuffer output) throws IOException {
+            final byte[] decompressed = new byte[output.remaining()];
+            final int size = decompress(input, decompressed, 0, decompressed.length);
+            output.duplicate().put(decompressed, 0, size);
+            return size;
+        }
+
+        @Override
+        public BytesInput compress(final BytesInput bytes) throws IOException {
+            // a single buffer is returned without copy, other inputs are gathered in a heap buffer
+            try (final ByteBufferReleaser releaser = new ByteBufferReleaser(HeapByteBufferAllocator.getInstance())) {
+                final ByteBuffer input = bytes.toByteBuffer(releaser);
+                return input.hasArray()
+                    ? compress(input.array(), input.arrayOffset() + input.position(), input.remaining())
+                    : compress(copyInput(input), 0, input.remaining());
+            }
+        }
+
+        @Override
+        public BytesInput decompress(final BytesInput bytes, final int decompressedSize) throws IOException {
+            final byte[] output = new byte[decompressedSize];
+            try (final ByteBufferReleaser releaser = new ByteBufferReleaser(HeapByteBufferAllocator.getInstance())) {
+                decompress(bytes.toByteBuffer(releaser), ByteBuffer.wrap(output));
+            }
+            return BytesInput.from(output);
+        }
+
+        @Override
+        public void decompress(final ByteBuffer input, final int compressedSize, final ByteBuffer output,
+                final int decompressedSize) throws IOException {
+            final ByteBuffer compressed = input.duplicate();
+            compressed.limit(compressed.position() + compressedSize);
+            final ByteBuffer decompressed = output.duplicate();
+            decompressed.limit(decompressed.position() + decompressedSize);
+            decompress(compressed, decompressed);
+            input.position(input.position() + compressedSize);
+            output.position(output.position() + decompressedSize);
+        }
+
+        private void decompress(final ByteBuffer input, final ByteBuffer output) throws IOException {
+            final int size;
+            if (input.isDirect() && output.isDirect()) {
+                size = decompressDirect(input, output);
+            } else if (output.hasArray()) {
+                size = decompress(input, output.array(), output.arrayOffset() + output.position(), output.remaining());
+            } else {
+                final byte[] decompressed = new byte[output.remaining()];
+                size = decompress(input, decompressed, 0, decompressed.length);
+                output.duplicate().put(decompressed, 0, size);
+            }
+            checkDecompressedSize(size, output.remaining());
+        }
+
+        private int decompress(final ByteBuffer input, final byte[] output, final int outputOffset,
+                final int outputLength) throws IOException {
+            return input.hasArray()
+                ? decompress(input.array(), input.arrayOffset() + input.position(), input.remaining(),
+                    output, outputOffset, outputLength)
+                : decompress(copyInput(input), 0, input.remaining(), output, outputOffset, outputLength);
+        }
+
+        private byte[] copyInput(final ByteBuffer input) {
+            if (inputCopy.length < input.remaining()) {
+                inputCopy = new byte[input.remaining()];
+            }
+            input.duplicate().get(inputCopy, 0, input.remaining());
+            return inputCopy;
+        }
+
+        @Override
+        public CompressionCodecName getCodecName() {
+            return codecName;
+        }
+
+        @Override
+        public void release() {
+            inputCopy = new byte[0];
+        }
+
+        static void checkDecompressedSize(final long actualSize, final int expectedSize) throws IOException {
+            if (actualSize != expectedSize) {
+                throw new IOException("Decompressed " + actualSize + " bytes, expected " + expectedSize);
+            }
+        }
+    }
+
+    private static final class UncompressedCodec extends ByteBufferCodec {
+        UncompressedCodec() {
+            super(CompressionCodecName.UNCOMPRESSED);
+        }
+
+        @Override
+        public BytesInput compress(final BytesInput bytes) {
+            return bytes;
+        }
+
+        @Override
+        public BytesInput decompress(final BytesInput bytes, final int decompressedSize) {
+            return bytes;
+        }
+
+        @Override
+        BytesInput compress(final byte[] input, final int inputOffset, final int inputLength) {
+            return BytesInput.from(input, inputOffset, inputLength);
+        }
+
+        @Override
+        int decompress(final byte[] input, final int inputOffset, final int inputLength,
+                final byte[] output, final int outputOffset, final int outputLength) {
+            final int length = Math.min(inputLength, outputLength);
+            System.arraycopy(input, inputOffset, output, outputOffset, length);
+            return length;
+        }
+
+        @Override
+        int decompressDirect(final ByteBuffer input, final ByteBuffer output) {
+            final int length = Math.min(input.remaining(), output.remaining());
+            final ByteBuffer source = input.duplicate();
+            source.limit(source.position() + length);
+            output.duplicate().put(source);
+            return length;
+        }
+    }
+
+    private static final class SnappyCodec extends ByteBufferCodec {
+        SnappyCodec() {
+            super(CompressionCodecName.SNAPPY);
+        }
+
+        @Override
+        BytesInput compress(final byte[] input, final int inputOffset, final int inputLength) throws IOException {
+            final byte[] output = new byte[Snappy.maxCompressedLength(inputLength)];
+            return BytesInput.from(output, 0, Snappy.compress(input, inputOffset, inputLength, output, 0));
+        }
+
+        @Override
+        int decompress(final byte[] input, final int inputOffset, final int inputLength,
+                final byte[] output, final int outputOffset, final int outputLength) throws IOException {
+            if (Snappy.uncompressedLength(input, inputOffset, inputLength) > outputLength) {
+                throw new IOException("Decompressed page larger than " + outputLength + " bytes");
+            }
+            return Snappy.uncompress(input, inputOffset, inputLength, output, outputOffset);
+        }
+
+        @Override
+        int decompressDirect(final ByteBuffer input, final ByteBuffer output) throws IOException {
+            if (Snappy.uncompressedLength(input) > output.remaining()) {
+                throw new IOException("Decompressed page larger than " + output.remaining() + " bytes");
+            }
+            return Snappy.uncompress(input.duplicate(), output.duplicate());
+        }
+    }
+
+    private static final class GzipCodec extends ByteBufferCodec {
+        GzipCodec() {
+            super(CompressionCodecName.GZIP);
+        }
+
+        @Override
+        BytesInput compress(final byte[] input, final int inputOffset, final int inputLength) throws IOException {
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(inputLength / 2 + 64);
+            try (final GZIPOutputStream gzipStream = new GZIPOutputStream(output)) {
+                gzipStream.write(input, inputOffset, inputLength);
+            }
+            return BytesInput.from(output);
+        }
+
+        @Override
+        int decompress(final byte[] input, final int inputOffset, final int inputLength,
+                final byte[] output, final int outputOffset, final int outputLength) throws IOException {
+            try (final InputStream gzipStream =
+                    new GZIPInputStream(new ByteArrayInputStream(input, inputOffset, inputLength))) {
+                IOUtils.readFully(gzipStream, output, outputOffset, outputLength);
+            }
+            return outputLength;
+        }
+    }
+
+    private static final class ZstdCodec extends ByteBufferCodec {
+        private final int level;
+
+        ZstdCodec(final int level) {
+            super(CompressionCodecName.ZSTD);
+            this.level = level;
+        }
+
+        @Override
+        BytesInput compress(final byte[] input, final int inputOffset, final int inputLength) throws IOException {
+            final byte[] output = new byte[(int) Zstd.compressBound(inputLength)];
+            final long size = Zstd.compressByteArray(output, 0, output.length, input, inputOffset, inputLength, level);
+            if (Zstd.isError(size)) {
+                throw new IOException("ZSTD compression failed: " + Zstd.getErrorName(size));
+            }
+            return BytesInput.from(output, 0, (int) size);
+        }
+
+        @Override
+        int decompress(final byte[] input, final int inputOffset, final int inputLength,
+                final byte[] output, final int outputOffset, final int outputLength) throws IOException {
+            return checkError(Zstd.decompressByteArray(output, outputOffset, outputLength,
+                input, inputOffset, inputLength));
+        }
+
+        @Override
+        int decompressDirect(final ByteBuffer input, final ByteBuffer output) throws IOException {
+            return checkError(Zstd.decompressDirectByteBuffer(output, output.position(), output.remaining(),
+                input, input.position(), input.remaining()));
+        }
+
+        private static int checkError(final long size) throws IOException {
+            if (Zstd.isError(size)) {
+                throw new IOException("ZSTD decompression failed: " + Zstd.getErrorName(size));
+            }
+            return (int) size;
+        }
+    }
+
+    private static final class Lz4RawCodec extends ByteBufferCodec {
+        private final Lz4Compressor compressor = new Lz4Compressor();
+        private final Lz4Decompressor decompressor = new Lz4Decompressor();
+
+        Lz4RawCodec() {
+            super(CompressionCodecName.LZ4_RAW);
+        }
+
+        @Override
+        BytesInput compress(final byte[] input, final int inputOffset, final int inputLength) {
+            final byte[] output = new byte[compressor.maxCompressedLength(inputLength)];
+            return BytesInput.from(output, 0,
+                compressor.compress(input, inputOffset, inputLength, output, 0, output.length));
+        }
+
+        @Override
+        int decompress(final byte[] input, final int inputOffset, final int inputLength,
+                final byte[] output, final int outputOffset, final int outputLength) {
+            return decompressor.decompress(input, inputOffset, inputLength, output, outputOffset, outputLength);
+        }
+
+        @Override
+        int decompressDirect(final ByteBuffer input, final ByteBuffer output) {
+            final ByteBuffer decompressed = output.duplicate();
+            decompressor.decompress(input.duplicate(), decompressed);
+            return decompressed.position() - output.position();
+        }
+    }
+}
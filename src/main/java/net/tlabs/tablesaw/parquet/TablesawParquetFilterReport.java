@@ -0,0 +1,308 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.filter2.columnindex.RowRanges;
+import org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore;
+import org.apache.parquet.internal.filter2.columnindex.ColumnIndexStore.MissingOffsetIndexException;
+
+/**
+ * What the record filter of a read skipped: the row groups dropped at each filter level,
+ * and the pages skipped with the column index filter in the row groups read.
+ * Row groups and pages are counted as the read goes, so that the row groups left unread
+ * by a row limit or range are neither counted as read nor as skipped.
+ * Pages are only counted for the read columns whose chunks have an offset index.
+ * Use {@link TablesawParquetReadOptions.Builder#withFilterReport} to receive the report of a read.
+ */
+public final class TablesawParquetFilterReport {
+
+    private final int rowGroupCount;
+    private final int rowGroupsSkippedByStatistics;
+    private final int rowGroupsSkippedByDictionary;
+    private final int rowGroupsSkippedByBloomFilter;
+    private final int rowGroupsSkippedByColumnIndex;
+    private final int rowGroupsRead;
+    private final long pageCount;
+    private final long pagesRead;
+    private final long rowCount;
+    private final long candidateRowCount;
+
+    private TablesawParquetFilterReport(final Counter counter) {
+        super();
+        this.rowGroupCount = counter.rowGroupCount;
+        this.rowGroupsSkippedByStatistics = counter.rowGroupsSkippedByStatistics;
+        this.rowGroupsSkippedByDictionary = counter.rowGroupsSkippedByDictionary;
+        this.rowGroupsSkippedByBloomFilter = counter.rowGroupsSkippedByBloomFilter;
+        this.rowGroupsSkippedByColumnIndex = counter.rowGroupsSkippedByColumnIndex;
+        this.rowGroupsRead = counter.rowGroupsRead;
+        this.pageCount = counter.pageCount;
+        this.pagesRead = counter.pagesRead;
+        this.rowCount = counter.rowCount;
+        this.candidateRowCount = counter.candidateRowCount;
+    }
+
+    /**
+     * Counts the row groups and pages skipped by the filters while a file is read,
+     * and sends the report to the consumer of the read options once the read ends.
+     * Row groups read concurrently are counted from several threads.
+     */
+    static final class Counter {
+        private final Consumer<TablesawParquetFilterReport> consumer;
+        private final boolean columnIndexFilterUsed;
+        private int rowGroupCount;
+        private long rowCount;
+        private int rowGroupsSkippedByStatistics;
+        private int rowGroupsSkippedByDictionary;
+        private int rowGroupsSkippedByBloomFilter;
+        private int rowGroupsSkippedByColumnIndex;
+        private int rowGroupsRead;
+        private long pageCount;
+        private long pagesRead;
+        private long candidateRowCount;
+        private boolean reported = false;
+
+        /**
+         * Creates the counter of a read.
+         * @param options the read options
+         * @return the counter, or null if the options do not ask for a filter report
+         */
+        static Counter create(final TablesawParquetReadOptions options) {
+            return options.getFilterReportConsumer() == null ? null : new Counter(options);
+        }
+
+        private Counter(final TablesawParquetReadOptions options) {
+            super();
+            this.consumer = options.getFilterReportConsumer();
+            this.columnIndexFilterUsed = options.isColumnIndexFilterUsed();
+        }
+
+        /**
+         * Counts the row groups of the file, before any filter level is applied.
+         * @param rowGroups the row groups of the file
+         */
+        synchronized void fileRowGroups(final List<BlockMetaData> rowGroups) {
+            rowGroupCount = rowGroups.size();
+            rowCount = rowGroups.stream().mapToLong(BlockMetaData::getRowCount).sum();
+        }
+
+        /**
+         * Counts the row groups dropped by a filter level.
+         * @param level the filter level
+         * @param skipped the number of row groups dropped
+         */
+        synchronized void rowGroupsSkipped(final FilterLevel level, final int skipped) {
+            switch (level) {
+                case STATISTICS:
+                    rowGroupsSkippedByStatistics += skipped;
+                    break;
+                case DICTIONARY:
+                    rowGroupsSkippedByDictionary += skipped;
+                    break;
+                case BLOOMFILTER:
+                    rowGroupsSkippedByBloomFilter += skipped;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown filter level " + level);
+            }
+        }
+
+        /**
+         * Returns the rows of a row group left by the column index filter.
+         * @param reader the file reader
+         * @param rowGroupIndex the index of the row group in the reader
+         * @return the row ranges read by {@link ParquetFileReader#readFilteredRowGroup(int)}
+         */
+        RowRanges getFilteredRowRanges(final ParquetFileReader reader, final int rowGroupIndex) {
+            return columnIndexFilterUsed
+                ? reader.getRowRanges(rowGroupIndex)
+                : RowRanges.createSingle(reader.getRowGroups().get(rowGroupIndex).getRowCount());
+        }
+
+        /**
+         * Counts a row group the reader did not read, if no row was left by the column index filter.
+         * Row groups left unread for other reasons, such as a row range, are not counted.
+         * @param reader the file reader
+         * @param rowGroupIndex the index of the row group in the reader
+         */
+        void rowGroupNotRead(final ParquetFileReader reader, final int rowGroupIndex) {
+            if (reader.getRowGroups().get(rowGroupIndex).getRowCount() > 0
+                    && getFilteredRowRanges(reader, rowGroupIndex).rowCount() == 0) {
+                synchronized (this) {
+                    rowGroupsSkippedByColumnIndex++;
+                }
+            }
+        }
+
+        /**
+         * Counts a row group read, and its pages read and skipped.
+         * @param reader the file reader
+         * @param rowGroupIndex the index of the row group in the reader
+         * @param rowRanges the rows read from the row group
+         * @param columns the read columns
+         */
+        void rowGroupRead(final ParquetFileReader reader, final int rowGroupIndex, final RowRanges rowRanges,
+                final List<ColumnDescriptor> columns) {
+            final long blockRowCount = reader.getRowGroups().get(rowGroupIndex).getRowCount();
+            final ColumnIndexStore indexStore = reader.getColumnIndexStore(rowGroupIndex);
+            long rowGroupPageCount = 0;
+            long rowGroupPagesRead = 0;
+            for (final ColumnDescriptor column : columns) {
+                final OffsetIndex offsetIndex = getOffsetIndex(indexStore, ColumnPath.get(column.getPath()));
+                if (offsetIndex == null) {
+                    continue;
+                }
+                for (int pageIndex = 0; pageIndex < offsetIndex.getPageCount(); pageIndex++) {
+                    rowGroupPageCount++;
+                    if (rowRanges.isOverlapping(offsetIndex.getFirstRowIndex(pageIndex),
+                            offsetIndex.getLastRowIndex(pageIndex, blockRowCount))) {
+                        rowGroupPagesRead++;
+                    }
+                }
+            }
+            synchronized (this) {
+                rowGroupsRead++;
+                pageCount += rowGroupPageCount;
+                pagesRead += rowGroupPagesRead;
+                candidateRowCount += rowRanges.rowCount();
+            }
+        }
+
+        /**
+         * Sends the report to the consumer, once.
+         */
+        void report() {
+            final TablesawParquetFilterReport report;
+            synchronized (this) {
+                if (reported) {
+                    return;
+                }
+                reported = true;
+                report = new TablesawParquetFilterReport(this);
+            }
+            consumer.accept(report);
+        }
+    }
+
+    private static OffsetIndex getOffsetIndex(final ColumnIndexStore indexStore, final ColumnPath path) {
+        try {
+            return indexStore.getOffsetIndex(path);
+        } catch (MissingOffsetIndexException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of row groups in the file
+     */
+    public int getRowGroupCount() {
+        return rowGroupCount;
+    }
+
+    /**
+     * @return the number of row groups skipped using the min/max statistics of their column chunks
+     */
+    public int getRowGroupsSkippedByStatistics() {
+        return rowGroupsSkippedByStatistics;
+    }
+
+    /**
+     * @return the number of row groups skipped using the dictionaries of their column chunks
+     */
+    public int getRowGroupsSkippedByDictionary() {
+        return rowGroupsSkippedByDictionary;
+    }
+
+    /**
+     * @return the number of row groups skipped using the bloom filters of their column chunks
+     */
+    public int getRowGroupsSkippedByBloomFilter() {
+        return rowGroupsSkippedByBloomFilter;
+    }
+
+    /**
+     * @return the number of row groups skipped because the column index filter left none of their rows
+     */
+    public int getRowGroupsSkippedByColumnIndex() {
+        return rowGroupsSkippedByColumnIndex;
+    }
+
+    /**
+     * @return the number of row groups read, which excludes the row groups left unread by a row limit or range
+     */
+    public int getRowGroupsRead() {
+        return rowGroupsRead;
+    }
+
+    /**
+     * @return the number of pages of the read columns in the row groups read
+     */
+    public long getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * @return the number of pages read, the others being skipped with the column index filter
+     */
+    public long getPagesRead() {
+        return pagesRead;
+    }
+
+    /**
+     * @return the number of pages skipped with the column index filter in the row groups read
+     */
+    public long getPagesSkipped() {
+        return pageCount - pagesRead;
+    }
+
+    /**
+     * @return the number of rows in the file
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the number of rows in the row groups and pages read, before the record filter is applied to each row
+     */
+    public long getCandidateRowCount() {
+        return candidateRowCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TablesawParquetFilterReport [rowGroupCount=" + rowGroupCount
+            + ", rowGroupsSkippedByStatistics=" + rowGroupsSkippedByStatistics
+            + ", rowGroupsSkippedByDictionary=" + rowGroupsSkippedByDictionary
+            + ", rowGroupsSkippedByBloomFilter=" + rowGroupsSkippedByBloomFilter
+            + ", rowGroupsSkippedByColumnIndex=" + rowGroupsSkippedByColumnIndex
+            + ", rowGroupsRead=" + rowGroupsRead + ", pageCount=" + pageCount + ", pagesRead=" + pagesRead
+            + ", rowCount=" + rowCount + ", candidateRowCount=" + candidateRowCount + "]";
+    }
+}
@@ -0,0 +1,170 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.apache.parquet.hadoop.ParquetFileReader;
+
+import tech.tablesaw.api.Table;
+import tech.tablesaw.io.RuntimeIOException;
+
+/**
+ * Iterator over the rows of a parquet file, returned as a sequence of tables with the same columns.
+ * Each table holds either the rows of one row group or a fixed number of rows,
+ * see {@link TablesawParquetReadOptions.Builder#withBatchSize(int)}.
+ * Only the current batch is decoded in memory. Tables without rows are never returned.
+ * The row limit and row range of the read options apply to all the tables returned.
+ * The iterator must be closed to release the underlying file, and to receive the filter report if any.
+ * Use {@link TablesawParquetReader#iterator(TablesawParquetReadOptions)} to create instances.
+ */
+public final class TablesawParquetIterator implements Iterator<Table>, Closeable {
+
+    private final ParquetFileReader reader;
+    // Releases the input file once the reader is closed
+    private final Closeable inputFile;
+    private final TablesawRowGroupReader rowGroupReader;
+    private final int batchSize;
+    private final long fromRow;
+    private final long toRow;
+    private long remainingRows;
+    private int nextRowGroupIndex = 0;
+    private TablesawRowGroupReader.RowGroupCursor cursor = null;
+    private Table nextTable = null;
+    private boolean finished = false;
+
+    TablesawParquetIterator(final ParquetFileReader reader, final Closeable inputFile,
+            final TablesawRowGroupReader rowGroupReader, final int batchSize, final long fromRow, final long toRow,
+            final long rowLimit) {
+        super();
+        this.reader = reader;
+        this.inputFile = inputFile;
+        this.rowGroupReader = rowGroupReader;
+        this.batchSize = batchSize;
+        this.fromRow = fromRow;
+        this.toRow = toRow;
+        this.remainingRows = rowLimit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextTable == null && !finished) {
+            try {
+                nextTable = batchSize == 0 ? readRowGroupBatch() : readRowsBatch();
+            } catch (IOException e) {
+                throw new RuntimeIOException(e);
+            }
+            finished = nextTable == null;
+        }
+        return nextTable != null;
+    }
+
+    @Override
+    public Table next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final Table table = nextTable;
+        nextTable = null;
+        return table;
+    }
+
+    private Table readRowGroupBatch() throws IOException {
+        TablesawRowGroupReader.RowGroupCursor rowGroupCursor;
+        while ((rowGroupCursor = openNextRowGroup()) != null) {
+            try {
+                rowGroupReader.startNewTable(
+                    (int) Math.min(Math.min(rowGroupCursor.getRowCount(), remainingRows), Integer.MAX_VALUE));
+                final int readRows = rowGroupCursor.read((int) Math.min(remainingRows, Integer.MAX_VALUE));
+                remainingRows -= readRows;
+                if (readRows > 0) {
+                    return rowGroupReader.getTable();
+                }
+            } finally {
+                rowGroupCursor.close();
+            }
+        }
+        return null;
+    }
+
+    private Table readRowsBatch() throws IOException {
+        rowGroupReader.startNewTable((int) Math.min(batchSize, remainingRows));
+        int readRows = 0;
+        while (readRows < batchSize && remainingRows > 0) {
+            if (cursor == null || !cursor.hasMoreRows()) {
+                closeCursor();
+                cursor = openNextRowGroup();
+                if (cursor == null) {
+                    break;
+                }
+            }
+            final int batchRows = cursor.read((int) Math.min(batchSize - readRows, remainingRows));
+            readRows += batchRows;
+            remainingRows -= batchRows;
+        }
+        return readRows > 0 ? rowGroupReader.getTable() : null;
+    }
+
+    /**
+     * Opens the next row group holding rows of the range to read, until the row limit is reached.
+     */
+    private TablesawRowGroupReader.RowGroupCursor openNextRowGroup() throws IOException {
+        final int rowGroupCount = reader.getRowGroups().size();
+        while (remainingRows > 0 && nextRowGroupIndex < rowGroupCount) {
+            final TablesawRowGroupReader.RowGroupCursor rowGroupCursor = rowGroupReader.openRows(reader,
+                nextRowGroupIndex++, fromRow, toRow, remainingRows);
+            if (rowGroupCursor != null) {
+                return rowGroupCursor;
+            }
+        }
+        return null;
+    }
+
+    private void closeCursor() {
+        if (cursor != null) {
+            cursor.close();
+            cursor = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        nextTable = null;
+        try {
+            closeCursor();
+            rowGroupReader.reportFilters();
+        } finally {
+            try {
+                try {
+                    reader.close();
+                } finally {
+                    inputFile.close();
+                }
+            } catch (IOException e) {
+                throw new RuntimeIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+
+import tech.tablesaw.api.Table;
+
+/**
+ * The metadata of a parquet file, read from its footer without decoding any data:
+ * the table the file would be read to, and the sizes and statistics of its row groups and column chunks.
+ * Use {@link TablesawParquetReader#readMetadata(TablesawParquetReadOptions)} to create instances.
+ */
+public final class TablesawParquetMetadata {
+
+    private final Table schema;
+    private final String createdBy;
+    private final Map<String, String> keyValueMetadata;
+    private final List<RowGroup> rowGroups;
+
+    private TablesawParquetMetadata(final Table schema, final String createdBy,
+            final Map<String, String> keyValueMetadata, final List<RowGroup> rowGroups) {
+        super();
+        this.schema = schema;
+        this.createdBy = createdBy;
+        this.keyValueMetadata = Collections.unmodifiableMap(keyValueMetadata);
+        this.rowGroups = Collections.unmodifiableList(rowGroups);
+    }
+
+    /**
+     * Creates the metadata of a file from its footer.
+     * @param footer the footer of the file
+     * @param schema the empty table the file would be read to
+     * @return the file metadata
+     */
+    static TablesawParquetMetadata create(final ParquetMetadata footer, final Table schema) {
+        final List<RowGroup> rowGroups = new ArrayList<>(footer.getBlocks().size());
+        for (final BlockMetaData block : footer.getBlocks()) {
+            final List<ColumnChunk> columns = new ArrayList<>(block.getColumns().size());
+            for (final ColumnChunkMetaData column : block.getColumns()) {
+                columns.add(new ColumnChunk(column.getPath().toDotString(), column.getCodec(),
+                    column.getValueCount(), column.getTotalSize(), column.getTotalUncompressedSize(),
+                    column.getStatistics()));
+            }
+            rowGroups.add(new RowGroup(block.getRowIndexOffset(), block.getRowCount(), block.getCompressedSize(),
+                block.getTotalByteSize(), Collections.unmodifiableList(columns)));
+        }
+        return new TablesawParquetMetadata(schema, footer.getFileMetaData().getCreatedBy(),
+            footer.getFileMetaData().getKeyValueMetaData(), rowGroups);
+    }
+
+    /**
+     * Returns an empty table with the columns the file would be read to with the same options,
+     * with their names and types. The fields read with {@link TablesawParquetReadOptions.ManageGroupsAs#EXPLODE}
+     * are not columns of the table.
+     * @return the empty table
+     */
+    public Table getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return the application that wrote the file, if known
+     */
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    /**
+     * @return the key-value metadata of the file
+     */
+    public Map<String, String> getKeyValueMetadata() {
+        return keyValueMetadata;
+    }
+
+    /**
+     * @return the row groups of the file, in file order
+     */
+    public List<RowGroup> getRowGroups() {
+        return rowGroups;
+    }
+
+    /**
+     * @return the number of rows of the file
+     */
+    public long getRowCount() {
+        return rowGroups.stream().mapToLong(RowGroup::getRowCount).sum();
+    }
+
+    /**
+     * @return the compressed size in bytes of all the column chunks of the file
+     */
+    public long getCompressedSize() {
+        return rowGroups.stream().mapToLong(RowGroup::getCompressedSize).sum();
+    }
+
+    /**
+     * @return the uncompressed size in bytes of all the column chunks of the file
+     */
+    public long getUncompressedSize() {
+        return rowGroups.stream().mapToLong(RowGroup::getUncompressedSize).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TablesawParquetMetadata [columnCount=" + schema.columnCount() + ", rowGroupCount=" + rowGroups.size()
+            + ", rowCount=" + getRowCount() + ", compressedSize=" + getCompressedSize()
+            + ", uncompressedSize=" + getUncompressedSize() + ", createdBy=" + createdBy + "]";
+    }
+
+    /**
+     * The metadata of a row group.
+     */
+    public static final class RowGroup {
+
+        private final long firstRowIndex;
+        private final long rowCount;
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final List<ColumnChunk> columns;
+
+        private RowGroup(final long firstRowIndex, final long rowCount, final long compressedSize,
+                final long uncompressedSize, final List<ColumnChunk> columns) {
+            super();
+            this.firstRowIndex = firstRowIndex;
+            this.rowCount = rowCount;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.columns = columns;
+        }
+
+        /**
+         * @return the index in the file of the first row of the row group
+         */
+        public long getFirstRowIndex() {
+            return firstRowIndex;
+        }
+
+        /**
+         * @return the number of rows of the row group
+         */
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        /**
+         * @return the compressed size in bytes of the column chunks of the row group
+         */
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * @return the uncompressed size in bytes of the column chunks of the row group
+         */
+        public long getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        /**
+         * @return the column chunks of the row group, one per leaf column of the file schema
+         */
+        public List<ColumnChunk> getColumns() {
+            return columns;
+        }
+
+        @Override
+        public String toString() {
+            return "RowGroup [firstRowIndex=" + firstRowIndex + ", rowCount=" + rowCount
+                + ", compressedSize=" + compressedSize + ", uncompressedSize=" + uncompressedSize + "]";
+        }
+    }
+
+    /**
+     * The metadata of a column chunk of a row group.
+     */
+    public static final class ColumnChunk {
+
+        private final String path;
+        private final CompressionCodecName codec;
+        private final long valueCount;
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final Statistics<?> statistics;
+
+        private ColumnChunk(final String path, final CompressionCodecName codec, final long valueCount,
+                final long compressedSize, final long uncompressedSize, final Statistics<?> statistics) {
+            super();
+            this.path = path;
+            this.codec = codec;
+            this.valueCount = valueCount;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.statistics = statistics;
+        }
+
+        /**
+         * @return the dotted path of the column in the file schema, e.g. {@code group.field}
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return the compression codec of the column chunk
+         */
+        public CompressionCodecName getCodec() {
+            return codec;
+        }
+
+        /**
+         * @return the number of values of the column chunk, including nulls and repeated values
+         */
+        public long getValueCount() {
+            return valueCount;
+        }
+
+        /**
+         * @return the compressed size in bytes of the column chunk
+         */
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * @return the uncompressed size in bytes of the column chunk
+         */
+        public long getUncompressedSize() {
+            return uncompressedSize;
+        }
+
+        /**
+         * Returns the min/max and null count statistics of the column chunk.
+         * The statistics are empty when the writer did not store them.
+         * @return the statistics
+         */
+        public Statistics<?> getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public String toString() {
+            return "ColumnChunk [path=" + path + ", codec=" + codec + ", valueCount=" + valueCount
+                + ", compressedSize=" + compressedSize + ", uncompressedSize=" + uncompressedSize
+                + ", statistics=" + statistics + "]";
+        }
+    }
+}
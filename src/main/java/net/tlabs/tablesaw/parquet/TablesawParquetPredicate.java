@@ -0,0 +1,740 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators;
+import org.apache.parquet.filter2.predicate.Operators.SupportsLtGt;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.EnumLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.JsonLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.StringLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimeUnit;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.UUIDLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+import org.apache.parquet.schema.Type.Repetition;
+
+/**
+ * A record filter written with tablesaw values and column filter names, compiled to a parquet
+ * {@link FilterPredicate} once the schema of the file being read is known, so that row groups and pages
+ * are skipped using statistics, dictionaries, column indexes and bloom filters.
+ * <p>
+ * Values are converted to the physical type of the column: numbers for integer, floating point and decimal
+ * columns, {@link LocalDate} for dates, {@link LocalTime} for times, {@link Instant} or {@link LocalDateTime}
+ * (taken at UTC) for timestamps, {@link String} for strings and enums, {@link String} or {@link UUID} for uuids,
+ * and {@link Boolean} for booleans. Values that fall between two representable values of the column,
+ * like 1.005 for a DECIMAL(9,2) column or 0.1 for a FLOAT column, are rounded the right way by comparisons.
+ * Comparisons with values out of the range of the column, like 10 billion for an INT32 column,
+ * match either all the rows with a value or none. Both kinds of values are equal to no value of the column:
+ * equality and {@code isIn} tests match no row with them, inequality and {@code isNotIn} tests every row.
+ * <p>
+ * Only top-level primitive fields can be filtered. Use with
+ * {@link TablesawParquetReadOptions.Builder#withRecordFilter(TablesawParquetPredicate)}, e.g.
+ * <pre>
+ * column("country").isIn("FR", "DE").and(column("date").isBetweenInclusive(from, to))
+ * </pre>
+ */
+public final class TablesawParquetPredicate {
+
+    private final Function<MessageType, FilterPredicate> compiler;
+    private final String description;
+
+    private TablesawParquetPredicate(final Function<MessageType, FilterPredicate> compiler,
+            final String description) {
+        super();
+        this.compiler = compiler;
+        this.description = description;
+    }
+
+    /**
+     * Starts a predicate on a column.
+     * @param columnName the name of a top-level primitive field
+     * @return the column predicate factory
+     */
+    public static ColumnPredicates column(final String columnName) {
+        return new ColumnPredicates(columnName);
+    }
+
+    /**
+     * @param predicates the predicates, at least one
+     * @return a predicate matching the rows matched by all the predicates
+     */
+    public static TablesawParquetPredicate allOf(final TablesawParquetPredicate... predicates) {
+        return combine(predicates, " and ", FilterApi::and);
+    }
+
+    /**
+     * @param predicates the predicates, at least one
+     * @return a predicate matching the rows matched by any of the predicates
+     */
+    public static TablesawParquetPredicate anyOf(final TablesawParquetPredicate... predicates) {
+        return combine(predicates, " or ", FilterApi::or);
+    }
+
+    private static TablesawParquetPredicate combine(final TablesawParquetPredicate[] predicates,
+            final String operator, final BinaryOperator<FilterPredicate> combiner) {
+        if (predicates.length == 0) {
+            throw new IllegalArgumentException("At least one predicate is required");
+        }
+        return new TablesawParquetPredicate(schema -> Arrays.stream(predicates)
+                .map(predicate -> predicate.toFilterPredicate(schema))
+                .reduce(combiner).get(),
+            Arrays.stream(predicates).map(TablesawParquetPredicate::toString)
+                .collect(Collectors.joining(operator, "(", ")")));
+    }
+
+    /**
+     * @param other the other predicate
+     * @return a predicate matching the rows matched by both this predicate and the other one
+     */
+    public TablesawParquetPredicate and(final TablesawParquetPredicate other) {
+        return allOf(this, other);
+    }
+
+    /**
+     * @param other the other predicate
+     * @return a predicate matching the rows matched by this predicate or the other one
+     */
+    public TablesawParquetPredicate or(final TablesawParquetPredicate other) {
+        return anyOf(this, other);
+    }
+
+    /**
+     * @return a predicate matching the rows not matched by this predicate
+     */
+    public TablesawParquetPredicate negate() {
+        return new TablesawParquetPredicate(schema -> FilterApi.not(toFilterPredicate(schema)),
+            "not " + description);
+    }
+
+    /**
+     * Compiles the predicate for a file.
+     * @param fileSchema the schema of the file
+     * @return the parquet filter predicate
+     * @throws IllegalArgumentException if a column is not a top-level primitive field of the schema,
+     * or a value cannot be converted to the type of its column
+     */
+    public FilterPredicate toFilterPredicate(final MessageType fileSchema) {
+        return compiler.apply(fileSchema);
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+
+    /**
+     * Creates the predicates on a column, named after the tablesaw column filters.
+     */
+    public static final class ColumnPredicates {
+
+        private final String columnName;
+
+        private ColumnPredicates(final String columnName) {
+            super();
+            this.columnName = columnName;
+        }
+
+        private TablesawParquetPredicate create(final Function<TypedColumn, FilterPredicate> compiler,
+                final String description) {
+            return new TablesawParquetPredicate(schema -> compiler.apply(TypedColumn.of(schema, columnName)),
+                columnName + " " + description);
+        }
+
+        public TablesawParquetPredicate isEqualTo(final Object value) {
+            requireValue(value);
+            return create(column -> column.eq(value), "== " + value);
+        }
+
+        public TablesawParquetPredicate isNotEqualTo(final Object value) {
+            requireValue(value);
+            return create(column -> column.notEq(value), "!= " + value);
+        }
+
+        public TablesawParquetPredicate isLessThan(final Object value) {
+            requireValue(value);
+            return create(column -> column.lt(value), "< " + value);
+        }
+
+        public TablesawParquetPredicate isLessThanOrEqualTo(final Object value) {
+            requireValue(value);
+            return create(column -> column.ltEq(value), "<= " + value);
+        }
+
+        public TablesawParquetPredicate isGreaterThan(final Object value) {
+            requireValue(value);
+            return create(column -> column.gt(value), "> " + value);
+        }
+
+        public TablesawParquetPredicate isGreaterThanOrEqualTo(final Object value) {
+            requireValue(value);
+            return create(column -> column.gtEq(value), ">= " + value);
+        }
+
+        public TablesawParquetPredicate isBetweenInclusive(final Object low, final Object high) {
+            requireValue(low);
+            requireValue(high);
+            return create(column -> FilterApi.and(column.gtEq(low), column.ltEq(high)),
+                "between " + low + " and " + high);
+        }
+
+        public TablesawParquetPredicate isIn(final Object... values) {
+            return isIn(Arrays.asList(values));
+        }
+
+        public TablesawParquetPredicate isIn(final Collection<?> values) {
+            values.forEach(ColumnPredicates::requireValue);
+            return create(column -> column.in(values, false), "in " + values);
+        }
+
+        public TablesawParquetPredicate isNotIn(final Object... values) {
+            return isNotIn(Arrays.asList(values));
+        }
+
+        public TablesawParquetPredicate isNotIn(final Collection<?> values) {
+            values.forEach(ColumnPredicates::requireValue);
+            return create(column -> column.in(values, true), "not in " + values);
+        }
+
+        public TablesawParquetPredicate isMissing() {
+            return create(column -> column.missing(false), "is missing");
+        }
+
+        public TablesawParquetPredicate isNotMissing() {
+            return create(column -> column.missing(true), "is not missing");
+        }
+
+        public TablesawParquetPredicate isTrue() {
+            return isEqualTo(Boolean.TRUE);
+        }
+
+        public TablesawParquetPredicate isFalse() {
+            return isEqualTo(Boolean.FALSE);
+        }
+
+        /**
+         * Matches the strings starting with a prefix, as the range of values between the prefix
+         * and its successor, so that statistics and column indexes can be used.
+         * @param prefix the prefix
+         * @return the predicate
+         */
+        public TablesawParquetPredicate startsWith(final String prefix) {
+            requireValue(prefix);
+            return create(column -> column.startsWith(prefix), "starts with " + prefix);
+        }
+
+        private static void requireValue(final Object value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Null values cannot be compared, use isMissing or isNotMissing");
+            }
+        }
+    }
+
+    /**
+     * A column of the file schema, converting tablesaw values to parquet values.
+     */
+    private abstract static class TypedColumn {
+
+        final PrimitiveType type;
+
+        TypedColumn(final PrimitiveType type) {
+            super();
+            this.type = type;
+        }
+
+        static TypedColumn of(final MessageType fileSchema, final String columnName) {
+            if (!fileSchema.containsField(columnName)) {
+                throw new IllegalArgumentException("Unknown column " + columnName + " in the file schema");
+            }
+            final Type field = fileSchema.getType(columnName);
+            if (!field.isPrimitive() || field.isRepetition(Repetition.REPEATED)) {
+                throw new IllegalArgumentException("Column " + columnName
+                    + " is not a primitive field and cannot be filtered");
+            }
+            final PrimitiveType type = field.asPrimitiveType();
+            final LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+            switch (type.getPrimitiveTypeName()) {
+                case BOOLEAN:
+                    return new BooleanTypedColumn(type);
+                case INT32:
+                    return new OrderedTypedColumn<>(type, FilterApi.intColumn(columnName),
+                        int32Converter(type, annotation));
+                case INT64:
+                    return new OrderedTypedColumn<>(type, FilterApi.longColumn(columnName),
+                        int64Converter(type, annotation));
+                case FLOAT:
+                    return new OrderedTypedColumn<>(type, FilterApi.floatColumn(columnName),
+                        (value, mode) -> toFloat(toExactNumber(type, value), mode));
+                case DOUBLE:
+                    return new OrderedTypedColumn<>(type, FilterApi.doubleColumn(columnName),
+                        (value, mode) -> toDouble(toExactNumber(type, value), mode));
+                case BINARY:
+                case FIXED_LEN_BYTE_ARRAY:
+                    return new OrderedTypedColumn<>(type, FilterApi.binaryColumn(columnName),
+                        binaryConverter(type, annotation));
+                default:
+                    throw new IllegalArgumentException("Column " + columnName + " of type " + type
+                        + " cannot be filtered");
+            }
+        }
+
+        abstract FilterPredicate eq(Object value);
+
+        abstract FilterPredicate notEq(Object value);
+
+        abstract FilterPredicate in(Collection<?> values, boolean negate);
+
+        abstract FilterPredicate missing(boolean negate);
+
+        FilterPredicate lt(final Object value) {
+            throw unsupported("ordered comparisons");
+        }
+
+        FilterPredicate ltEq(final Object value) {
+            throw unsupported("ordered comparisons");
+        }
+
+        FilterPredicate gt(final Object value) {
+            throw unsupported("ordered comparisons");
+        }
+
+        FilterPredicate gtEq(final Object value) {
+            throw unsupported("ordered comparisons");
+        }
+
+        FilterPredicate startsWith(final String prefix) {
+            throw unsupported("startsWith");
+        }
+
+        IllegalArgumentException unsupported(final String operation) {
+            return new IllegalArgumentException("Column " + type.getName() + " of type " + type
+                + " does not support " + operation);
+        }
+    }
+
+    private static final class BooleanTypedColumn extends TypedColumn {
+
+        private final Operators.BooleanColumn column;
+
+        BooleanTypedColumn(final PrimitiveType type) {
+            super(type);
+            this.column = FilterApi.booleanColumn(type.getName());
+        }
+
+        private Boolean convert(final Object value) {
+            if (!(value instanceof Boolean)) {
+                throw new IllegalArgumentException("Column " + type.getName() + " requires a Boolean, not " + value);
+            }
+            return (Boolean) value;
+        }
+
+        @Override
+        FilterPredicate eq(final Object value) {
+            return FilterApi.eq(column, convert(value));
+        }
+
+        @Override
+        FilterPredicate notEq(final Object value) {
+            return FilterApi.notEq(column, convert(value));
+        }
+
+        @Override
+        FilterPredicate in(final Collection<?> values, final boolean negate) {
+            final Set<Boolean> converted = values.stream().map(this::convert).collect(Collectors.toSet());
+            return negate ? FilterApi.notIn(column, converted) : FilterApi.in(column, converted);
+        }
+
+        @Override
+        FilterPredicate missing(final boolean negate) {
+            return negate ? FilterApi.notEq(column, null) : FilterApi.eq(column, null);
+        }
+    }
+
+    /**
+     * Converts a value to the parquet value of a column. Values between two parquet values are rounded
+     * with the rounding mode, {@link RoundingMode#UNNECESSARY} rejecting them with an {@link ArithmeticException}.
+     * Values out of the range of the column are rejected with an {@link ArithmeticException} whatever the mode.
+     */
+    @FunctionalInterface
+    private interface ValueConverter<T> {
+        T convert(Object value, RoundingMode roundingMode);
+    }
+
+    private static final class OrderedTypedColumn<T extends Comparable<T>, C extends Operators.Column<T> & SupportsLtGt>
+            extends TypedColumn {
+
+        private final C column;
+        private final ValueConverter<T> converter;
+
+        OrderedTypedColumn(final PrimitiveType type, final C column, final ValueConverter<T> converter) {
+            super(type);
+            this.column = column;
+            this.converter = converter;
+        }
+
+        /**
+         * Converts a value for an ordered comparison.
+         * @return the parquet value, or null if the value is out of the range of the column
+         */
+        private T convertBound(final Object value, final RoundingMode roundingMode) {
+            try {
+                return converter.convert(value, roundingMode);
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Converts a value for an equality test.
+         * @return the parquet value, or null if no value of the column is equal to the value
+         */
+        private T convertExact(final Object value) {
+            try {
+                return converter.convert(value, RoundingMode.UNNECESSARY);
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+
+        @Override
+        FilterPredicate eq(final Object value) {
+            final T converted = convertExact(value);
+            return converted == null ? matchingNone() : FilterApi.eq(column, converted);
+        }
+
+        @Override
+        FilterPredicate notEq(final Object value) {
+            final T converted = convertExact(value);
+            return converted == null ? matchingAll() : FilterApi.notEq(column, converted);
+        }
+
+        @Override
+        FilterPredicate lt(final Object value) {
+            // x < 1.5 is x < 2 for integers
+            final T converted = convertBound(value, RoundingMode.CEILING);
+            return converted == null ? outOfRange(value, true) : FilterApi.lt(column, converted);
+        }
+
+        @Override
+        FilterPredicate ltEq(final Object value) {
+            // x <= 1.5 is x <= 1 for integers
+            final T converted = convertBound(value, RoundingMode.FLOOR);
+            return converted == null ? outOfRange(value, true) : FilterApi.ltEq(column, converted);
+        }
+
+        @Override
+        FilterPredicate gt(final Object value) {
+            final T converted = convertBound(value, RoundingMode.FLOOR);
+            return converted == null ? outOfRange(value, false) : FilterApi.gt(column, converted);
+        }
+
+        @Override
+        FilterPredicate gtEq(final Object value) {
+            final T converted = convertBound(value, RoundingMode.CEILING);
+            return converted == null ? outOfRange(value, false) : FilterApi.gtEq(column, converted);
+        }
+
+        /**
+         * Compares the column to a value beyond its minimum or maximum value.
+         * @param lessThan whether the column is tested to be less than the value
+         * @return all the rows with a value when the value is on the side tested, otherwise no row
+         */
+        private FilterPredicate outOfRange(final Object value, final boolean lessThan) {
+            return (signum(type, value) > 0) == lessThan ? missing(true) : matchingNone();
+        }
+
+        @Override
+        FilterPredicate in(final Collection<?> values, final boolean negate) {
+            final Set<T> converted = new HashSet<>();
+            for (final Object value : values) {
+                final T exact = convertExact(value);
+                if (exact != null) {
+                    converted.add(exact);
+                }
+            }
+            if (converted.isEmpty()) {
+                return negate ? matchingAll() : matchingNone();
+            }
+            return negate ? FilterApi.notIn(column, converted) : FilterApi.in(column, converted);
+        }
+
+        @Override
+        FilterPredicate missing(final boolean negate) {
+            return negate ? FilterApi.notEq(column, null) : FilterApi.eq(column, null);
+        }
+
+        // rows both missing and not missing: no row, with the row groups skipped by their null counts
+        private FilterPredicate matchingNone() {
+            return FilterApi.and(missing(false), missing(true));
+        }
+
+        private FilterPredicate matchingAll() {
+            return FilterApi.or(missing(false), missing(true));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        FilterPredicate startsWith(final String prefix) {
+            if (!isString(type)) {
+                throw unsupported("startsWith");
+            }
+            final byte[] bytes = prefix.getBytes(StandardCharsets.UTF_8);
+            final FilterPredicate from = FilterApi.gtEq(column, (T) Binary.fromConstantByteArray(bytes));
+            // the successor of the prefix is the prefix without its trailing 0xFF bytes, last byte incremented
+            int length = bytes.length;
+            while (length > 0 && bytes[length - 1] == (byte) 0xFF) {
+                length--;
+            }
+            if (length == 0) {
+                return from;
+            }
+            final byte[] successor = Arrays.copyOf(bytes, length);
+            successor[length - 1]++;
+            return FilterApi.and(from, FilterApi.lt(column, (T) Binary.fromConstantByteArray(successor)));
+        }
+    }
+
+    private static boolean isString(final PrimitiveType type) {
+        final LogicalTypeAnnotation annotation = type.getLogicalTypeAnnotation();
+        return type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.BINARY
+            && (annotation == null || annotation instanceof StringLogicalTypeAnnotation
+                || annotation instanceof EnumLogicalTypeAnnotation || annotation instanceof JsonLogicalTypeAnnotation);
+    }
+
+    private static ValueConverter<Integer> int32Converter(final PrimitiveType type,
+            final LogicalTypeAnnotation annotation) {
+        if (annotation == null || annotation instanceof IntLogicalTypeAnnotation) {
+            return (value, mode) -> toNumber(type, value).setScale(0, mode).intValueExact();
+        }
+        if (annotation instanceof DecimalLogicalTypeAnnotation) {
+            final int scale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+            return (value, mode) -> toNumber(type, value).setScale(scale, mode).unscaledValue().intValueExact();
+        }
+        if (annotation instanceof DateLogicalTypeAnnotation) {
+            return (value, mode) -> Math.toIntExact(cast(type, value, LocalDate.class).toEpochDay());
+        }
+        if (annotation instanceof TimeLogicalTypeAnnotation) {
+            return (value, mode) -> toUnits(BigDecimal.valueOf(cast(type, value, LocalTime.class).toNanoOfDay(), 9),
+                ((TimeLogicalTypeAnnotation) annotation).getUnit(), mode).intValueExact();
+        }
+        throw unsupportedType(type);
+    }
+
+    private static ValueConverter<Long> int64Converter(final PrimitiveType type,
+            final LogicalTypeAnnotation annotation) {
+        if (annotation == null || annotation instanceof IntLogicalTypeAnnotation) {
+            return (value, mode) -> toNumber(type, value).setScale(0, mode).longValueExact();
+        }
+        if (annotation instanceof DecimalLogicalTypeAnnotation) {
+            final int scale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+            return (value, mode) -> toNumber(type, value).setScale(scale, mode).unscaledValue().longValueExact();
+        }
+        if (annotation instanceof TimeLogicalTypeAnnotation) {
+            return (value, mode) -> toUnits(BigDecimal.valueOf(cast(type, value, LocalTime.class).toNanoOfDay(), 9),
+                ((TimeLogicalTypeAnnotation) annotation).getUnit(), mode).longValueExact();
+        }
+        if (annotation instanceof TimestampLogicalTypeAnnotation) {
+            return (value, mode) -> {
+                final Instant instant = value instanceof LocalDateTime
+                    ? ((LocalDateTime) value).toInstant(ZoneOffset.UTC)
+                    : cast(type, value, Instant.class);
+                final BigDecimal seconds = BigDecimal.valueOf(instant.getEpochSecond())
+                    .add(BigDecimal.valueOf(instant.getNano(), 9));
+                return toUnits(seconds, ((TimestampLogicalTypeAnnotation) annotation).getUnit(), mode)
+                    .longValueExact();
+            };
+        }
+        throw unsupportedType(type);
+    }
+
+    private static ValueConverter<Binary> binaryConverter(final PrimitiveType type,
+            final LogicalTypeAnnotation annotation) {
+        if (isString(type)) {
+            return (value, mode) -> value instanceof byte[]
+                ? Binary.fromConstantByteArray((byte[]) value)
+                : Binary.fromString(cast(type, value, String.class));
+        }
+        if (annotation instanceof DecimalLogicalTypeAnnotation) {
+            final int scale = ((DecimalLogicalTypeAnnotation) annotation).getScale();
+            return (value, mode) -> {
+                final BigInteger unscaled = toNumber(type, value).setScale(scale, mode).unscaledValue();
+                final byte[] bytes = unscaled.toByteArray();
+                if (type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.BINARY) {
+                    return Binary.fromConstantByteArray(bytes);
+                }
+                final int length = type.getTypeLength();
+                if (bytes.length > length) {
+                    throw new ArithmeticException("Decimal overflow");
+                }
+                // sign extension to the fixed length
+                final byte[] fixed = new byte[length];
+                Arrays.fill(fixed, 0, length - bytes.length, unscaled.signum() < 0 ? (byte) 0xFF : 0);
+                System.arraycopy(bytes, 0, fixed, length - bytes.length, bytes.length);
+                return Binary.fromConstantByteArray(fixed);
+            };
+        }
+        if (annotation instanceof UUIDLogicalTypeAnnotation) {
+            return (value, mode) -> {
+                final UUID uuid = value instanceof UUID ? (UUID) value
+                    : UUID.fromString(cast(type, value, String.class));
+                return Binary.fromConstantByteArray(ByteBuffer.allocate(16)
+                    .putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits()).array());
+            };
+        }
+        throw unsupportedType(type);
+    }
+
+    private static BigInteger toUnits(final BigDecimal seconds, final TimeUnit unit, final RoundingMode mode) {
+        switch (unit) {
+            case MILLIS:
+                return seconds.movePointRight(3).setScale(0, mode).toBigIntegerExact();
+            case MICROS:
+                return seconds.movePointRight(6).setScale(0, mode).toBigIntegerExact();
+            default:
+                return seconds.movePointRight(9).setScale(0, mode).toBigIntegerExact();
+        }
+    }
+
+    private static double toDouble(final BigDecimal number, final RoundingMode mode) {
+        double rounded = number.doubleValue();
+        if (Double.isInfinite(rounded)) {
+            rounded = Math.copySign(Double.MAX_VALUE, rounded);
+        }
+        final int comparison = new BigDecimal(rounded).compareTo(number);
+        if (comparison == 0) {
+            return rounded;
+        }
+        if (mode == RoundingMode.FLOOR) {
+            return comparison > 0 ? Math.nextDown(rounded) : rounded;
+        }
+        if (mode == RoundingMode.CEILING) {
+            return comparison < 0 ? Math.nextUp(rounded) : rounded;
+        }
+        throw new ArithmeticException("Rounding necessary");
+    }
+
+    private static float toFloat(final BigDecimal number, final RoundingMode mode) {
+        float rounded = number.floatValue();
+        if (Float.isInfinite(rounded)) {
+            rounded = Math.copySign(Float.MAX_VALUE, rounded);
+        }
+        final int comparison = new BigDecimal(rounded).compareTo(number);
+        if (comparison == 0) {
+            return rounded;
+        }
+        if (mode == RoundingMode.FLOOR) {
+            return comparison > 0 ? Math.nextDown(rounded) : rounded;
+        }
+        if (mode == RoundingMode.CEILING) {
+            return comparison < 0 ? Math.nextUp(rounded) : rounded;
+        }
+        throw new ArithmeticException("Rounding necessary");
+    }
+
+    /**
+     * Converts a value to a number for a floating point column, keeping the exact binary value of floats
+     * and doubles rather than their shortest decimal representation.
+     */
+    private static BigDecimal toExactNumber(final PrimitiveType type, final Object value) {
+        // rejects NaN and infinities
+        final BigDecimal number = toNumber(type, value);
+        return value instanceof Double || value instanceof Float
+            ? new BigDecimal(((Number) value).doubleValue())
+            : number;
+    }
+
+    /**
+     * Returns the sign of a value, that tells on which side of the range of a column a value out of the range is.
+     */
+    private static int signum(final PrimitiveType type, final Object value) {
+        if (value instanceof LocalDate) {
+            return Long.signum(((LocalDate) value).toEpochDay());
+        }
+        if (value instanceof LocalDateTime) {
+            return Long.signum(((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC));
+        }
+        if (value instanceof Instant) {
+            return Long.signum(((Instant) value).getEpochSecond());
+        }
+        return toNumber(type, value).signum();
+    }
+
+    private static BigDecimal toNumber(final PrimitiveType type, final Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            final double doubleValue = ((Number) value).doubleValue();
+            if (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue)) {
+                throw new IllegalArgumentException("Value " + value + " cannot be used to filter column "
+                    + type.getName());
+            }
+            return BigDecimal.valueOf(doubleValue);
+        }
+        if (value instanceof Number) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        throw new IllegalArgumentException("Column " + type.getName() + " requires a Number, not " + value);
+    }
+
+    private static <V> V cast(final PrimitiveType type, final Object value, final Class<V> valueClass) {
+        if (!valueClass.isInstance(value)) {
+            throw new IllegalArgumentException("Column " + type.getName() + " requires a "
+                + valueClass.getSimpleName() + ", not " + value);
+        }
+        return valueClass.cast(value);
+    }
+
+    private static IllegalArgumentException unsupportedType(final PrimitiveType type) {
+        return new IllegalArgumentException("Column " + type.getName() + " of type " + type + " cannot be filtered");
+    }
+}
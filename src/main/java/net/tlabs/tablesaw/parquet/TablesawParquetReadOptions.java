@@ -21,6 +21,7 @@ package net.tlabs.tablesaw.parquet;
  */
 
 import java.io.File;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -33,6 +34,8 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.apache.parquet.crypto.AADPrefixVerifier;
@@ -43,6 +46,7 @@ import org.apache.parquet.filter2.compat.FilterCompat;
 import org.apache.parquet.filter2.compat.FilterCompat.Filter;
 import org.apache.parquet.filter2.predicate.FilterPredicate;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.schema.MessageType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,15 +62,20 @@ import tech.tablesaw.io.ReadOptions;
 public class TablesawParquetReadOptions extends ReadOptions {
 
     public enum ManageGroupsAs {
-        TEXT, SKIP, ERROR
+        TEXT, SKIP, ERROR,
+        /** Repeated fields, LIST and MAP groups are read in child tables, other groups as text */
+        EXPLODE
     }
 
     public enum UnnanotatedBinaryAs {
-        STRING, HEXSTRING, SKIP
+        STRING, HEXSTRING, SKIP, BINARY
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(TablesawParquetReadOptions.class);
 
+    /** Default maximum size of a stream source read in memory instead of being written to a temporary file */
+    public static final long DEFAULT_IN_MEMORY_THRESHOLD = 32L * 1024 * 1024;
+
     private final boolean convertInt96ToTimestamp;
     private final UnnanotatedBinaryAs unnanotatedBinaryAs;
     private final boolean shortColumnTypeUsed;
@@ -75,8 +84,22 @@ public class TablesawParquetReadOptions extends ReadOptions {
     private final List<String> columns;
     private final Object2IntMap<String> columnIndex;
     private final URI inputURI;
+    private final InputStream inputStream;
+    private final long inMemoryThreshold;
     private final FileDecryptionProperties fileDecryptionProperties;
     private final Filter recordFilter;
+    private final TablesawParquetPredicate recordPredicate;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final long rowLimit;
+    private final long rowRangeStart;
+    private final long rowRangeEnd;
+    private final boolean statisticsFilterUsed;
+    private final boolean dictionaryFilterUsed;
+    private final boolean columnIndexFilterUsed;
+    private final boolean bloomFilterUsed;
+    private final Consumer<TablesawParquetFilterReport> filterReportConsumer;
 
     protected TablesawParquetReadOptions(final Builder builder) {
         super(builder);
@@ -90,10 +113,28 @@ public class TablesawParquetReadOptions extends ReadOptions {
             columnIndex.put(columns.get(i), i);
         }
         inputURI = builder.inputURI;
+        inputStream = builder.inputStream;
+        inMemoryThreshold = builder.inMemoryThreshold;
         shortColumnTypeUsed = this.columnTypesToDetect.contains(ColumnType.SHORT);
         floatColumnTypeUsed = this.columnTypesToDetect.contains(ColumnType.FLOAT);
         fileDecryptionProperties = builder.getFileDecryptionProperties();
         recordFilter = builder.recordFilter;
+        recordPredicate = builder.recordPredicate;
+        executor = builder.executor;
+        batchSize = builder.batchSize;
+        rowLimit = builder.rowLimit;
+        rowRangeStart = builder.rowRangeStart;
+        rowRangeEnd = builder.rowRangeEnd;
+        statisticsFilterUsed = builder.statisticsFilterUsed;
+        dictionaryFilterUsed = builder.dictionaryFilterUsed;
+        columnIndexFilterUsed = builder.columnIndexFilterUsed;
+        bloomFilterUsed = builder.bloomFilterUsed;
+        filterReportConsumer = builder.filterReportConsumer;
+        if(builder.parallelism > 0) {
+            parallelism = builder.parallelism;
+        } else {
+            parallelism = executor == null ? 1 : Runtime.getRuntime().availableProcessors();
+        }
     }
 
     public boolean isShortColumnTypeUsed() {
@@ -148,8 +189,25 @@ public class TablesawParquetReadOptions extends ReadOptions {
         return inputURI;
     }
 
+    /**
+     * Returns the stream to read from, or null when reading from {@link #getInputURI()}.
+     * @return the input stream or null
+     */
+    public InputStream getInputStream() {
+        return inputStream;
+    }
+
+    /**
+     * Returns the maximum size in bytes of a stream source, or of a downloaded file, kept in memory.
+     * Larger sources are written to a temporary file before reading.
+     * @return the in-memory threshold in bytes
+     */
+    public long getInMemoryThreshold() {
+        return inMemoryThreshold;
+    }
+
     public String getSanitizedinputPath() {
-        return sanitize(inputURI);
+        return inputURI == null ? "stream" : sanitize(inputURI);
     }
 
     private static String sanitize(final URI uri) {
@@ -175,10 +233,122 @@ public class TablesawParquetReadOptions extends ReadOptions {
         return fileDecryptionProperties;
     }
     
+    /**
+     * Returns the record filter set with a parquet {@link FilterPredicate}.
+     * Use {@link #getRecordFilter(MessageType)} to also get the filter set with a {@link TablesawParquetPredicate}.
+     * @return the record filter, {@link FilterCompat#NOOP} if none
+     */
     public Filter getRecordFilter() {
         return recordFilter;
     }
 
+    /**
+     * Returns the record filter of a file, compiling the {@link TablesawParquetPredicate} if any.
+     * @param fileSchema the schema of the file
+     * @return the record filter, {@link FilterCompat#NOOP} if none
+     */
+    public Filter getRecordFilter(final MessageType fileSchema) {
+        return recordPredicate == null ? recordFilter : FilterCompat.get(recordPredicate.toFilterPredicate(fileSchema));
+    }
+
+    /**
+     * @return the record filter set with a {@link TablesawParquetPredicate}, or null
+     */
+    public TablesawParquetPredicate getRecordPredicate() {
+        return recordPredicate;
+    }
+
+    /**
+     * Returns the number of row group ranges decoded concurrently.
+     * A value of 1 means that row groups are decoded sequentially in the calling thread.
+     * @return the parallelism level
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns the executor used for decoding row groups concurrently,
+     * or null if a new thread pool is created for each read.
+     * @return the user-provided executor or null
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Returns the number of rows of the tables returned by streaming reads,
+     * or 0 for one table per row group.
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns the maximum number of rows read, after record filtering.
+     * @return the row limit, {@link Long#MAX_VALUE} if none
+     */
+    public long getRowLimit() {
+        return rowLimit;
+    }
+
+    /**
+     * Returns the index in the file of the first row of the range of rows read.
+     * @return the start of the row range (inclusive), 0 by default
+     */
+    public long getRowRangeStart() {
+        return rowRangeStart;
+    }
+
+    /**
+     * Returns the index in the file of the row following the range of rows read.
+     * @return the end of the row range (exclusive), {@link Long#MAX_VALUE} by default
+     */
+    public long getRowRangeEnd() {
+        return rowRangeEnd;
+    }
+
+    /**
+     * Returns whether row groups are skipped using the min/max statistics of their column chunks.
+     * @return true if the statistics filter is used
+     */
+    public boolean isStatisticsFilterUsed() {
+        return statisticsFilterUsed;
+    }
+
+    /**
+     * Returns whether row groups are skipped using the dictionaries of their column chunks.
+     * @return true if the dictionary filter is used
+     */
+    public boolean isDictionaryFilterUsed() {
+        return dictionaryFilterUsed;
+    }
+
+    /**
+     * Returns whether pages are skipped using the column and offset indexes.
+     * @return true if the column index filter is used
+     */
+    public boolean isColumnIndexFilterUsed() {
+        return columnIndexFilterUsed;
+    }
+
+    /**
+     * Returns whether row groups are skipped using the bloom filters of their column chunks.
+     * @return true if the bloom filter is used
+     */
+    public boolean isBloomFilterUsed() {
+        return bloomFilterUsed;
+    }
+
+    /**
+     * Returns the consumer of the filter report, or null if no report is requested.
+     * @return the filter report consumer or null
+     */
+    public Consumer<TablesawParquetFilterReport> getFilterReportConsumer() {
+        return filterReportConsumer;
+    }
+
 
     public static Builder builder(final File file) {
         return new Builder(file.toURI()).tableName(file.getName());
@@ -200,8 +370,16 @@ public class TablesawParquetReadOptions extends ReadOptions {
         return new Builder(uri).tableName(sanitize(uri));
     }
     
-    static Builder builderForStream() {
-        return new Builder((URI)null);
+    /**
+     * Creates a builder for reading a parquet file from a stream.
+     * The stream is fully read, but not closed, when reading.
+     * @param inputStream the stream to read from
+     * @return the builder
+     */
+    public static Builder builderForStream(final InputStream inputStream) {
+        final Builder builder = new Builder((URI)null);
+        builder.inputStream = inputStream;
+        return builder;
     }
 
     public static class Builder extends ReadOptions.Builder {
@@ -210,6 +388,8 @@ public class TablesawParquetReadOptions extends ReadOptions {
         private ManageGroupsAs manageGroupsAs = ManageGroupsAs.TEXT;
         private String[] columns = new String[0];
         private final URI inputURI;
+        private InputStream inputStream;
+        private long inMemoryThreshold = DEFAULT_IN_MEMORY_THRESHOLD;
         private byte[] footerKey;
         private Map<String, byte[]> columnKeyMap;
         private byte[] aadPrefix;
@@ -217,6 +397,18 @@ public class TablesawParquetReadOptions extends ReadOptions {
         private boolean checkFooterIntegrity = true;
         private AADPrefixVerifier aadPrefixVerifier;
         private Filter recordFilter = FilterCompat.NOOP;
+        private TablesawParquetPredicate recordPredicate;
+        private int parallelism = 0;
+        private ExecutorService executor;
+        private int batchSize = 0;
+        private long rowLimit = Long.MAX_VALUE;
+        private long rowRangeStart = 0;
+        private long rowRangeEnd = Long.MAX_VALUE;
+        private boolean statisticsFilterUsed = true;
+        private boolean dictionaryFilterUsed = true;
+        private boolean columnIndexFilterUsed = true;
+        private boolean bloomFilterUsed = true;
+        private Consumer<TablesawParquetFilterReport> filterReportConsumer;
 
         protected Builder(final URI inputURI) {
             super();
@@ -418,6 +610,7 @@ public class TablesawParquetReadOptions extends ReadOptions {
          * With UnnanotatedBinaryAs.STRING, these binaries are converted to UTF-8 Strings.
          * With UnnanotatedBinaryAs.HEXSTRING, these binaries are converted to hexadecimal Strings.
          * With UnnanotatedBinaryAs.SKIP, these fields are skipped.
+         * With UnnanotatedBinaryAs.BINARY, the raw bytes are kept in a {@link BinaryColumn}.
          *
          * @param unnanotatedBinaryAs the UnnanotatedBinaryAs option
          * @return this builder
@@ -432,6 +625,10 @@ public class TablesawParquetReadOptions extends ReadOptions {
          * With ManageGroupsAs.TEXT, groups are converted to String columns (default behavior).
          * With ManageGroupsAs.SKIP, groups are ignored.
          * With ManageGroupsAs.ERROR, reading a parquet file containing groups will throw an exception.
+         * With ManageGroupsAs.EXPLODE, repeated primitive fields and LIST or MAP groups of primitives are read
+         * in child tables with typed columns, one row per value or entry, returned by
+         * {@link TablesawParquetReader#readWithChildTables(TablesawParquetReadOptions)}.
+         * Exploded fields are not part of the main table, other groups are read as text.
          *
          * @param manageGroupsAs the ManageGroupsAs option
          * @return this builder
@@ -516,8 +713,178 @@ public class TablesawParquetReadOptions extends ReadOptions {
 
         public Builder withRecordFilter(final FilterPredicate rowGroupFilter) {
             this.recordFilter = FilterCompat.get(rowGroupFilter);
+            this.recordPredicate = null;
             return this;
           }
+
+        /**
+         * Only read the records matching a predicate written with tablesaw values,
+         * compiled for the schema of the file being read. Replaces any previous record filter.
+         * @param predicate the predicate, see {@link TablesawParquetPredicate#column(String)}
+         * @return this builder
+         */
+        public Builder withRecordFilter(final TablesawParquetPredicate predicate) {
+            this.recordPredicate = predicate;
+            this.recordFilter = FilterCompat.NOOP;
+            return this;
+        }
+
+        /**
+         * Skip the row groups whose column chunk min/max statistics show that no row passes the record filter.
+         * Defaults to true.
+         * @param statisticsFilterUsed true to use the statistics filter
+         * @return this builder
+         */
+        public Builder withStatisticsFilter(final boolean statisticsFilterUsed) {
+            this.statisticsFilterUsed = statisticsFilterUsed;
+            return this;
+        }
+
+        /**
+         * Skip the row groups whose dictionary-encoded column chunks hold no value passing the record filter.
+         * Dictionaries are read for that purpose. Defaults to true.
+         * @param dictionaryFilterUsed true to use the dictionary filter
+         * @return this builder
+         */
+        public Builder withDictionaryFilter(final boolean dictionaryFilterUsed) {
+            this.dictionaryFilterUsed = dictionaryFilterUsed;
+            return this;
+        }
+
+        /**
+         * Skip the pages whose column index shows that no row passes the record filter, only reading the pages
+         * holding candidate rows. Requires files written with column and offset indexes. Defaults to true.
+         * @param columnIndexFilterUsed true to use the column index filter
+         * @return this builder
+         */
+        public Builder withColumnIndexFilter(final boolean columnIndexFilterUsed) {
+            this.columnIndexFilterUsed = columnIndexFilterUsed;
+            return this;
+        }
+
+        /**
+         * Skip the row groups whose column chunk bloom filters show that no value passes the equality
+         * and {@code in} predicates of the record filter. Bloom filters are read for that purpose,
+         * for the columns written with one (see {@link TablesawParquetWriteOptions.Builder#withBloomFilter}).
+         * Defaults to true.
+         * @param bloomFilterUsed true to use the bloom filter
+         * @return this builder
+         */
+        public Builder withBloomFilter(final boolean bloomFilterUsed) {
+            this.bloomFilterUsed = bloomFilterUsed;
+            return this;
+        }
+
+        /**
+         * Receive a report of the row groups and pages skipped by the record filter, once the read ends
+         * or, for {@link TablesawParquetReader#iterator} and {@link TablesawParquetReader#stream}, once closed.
+         * Counting the pages reads the offset indexes of the row groups read.
+         * @param filterReportConsumer the consumer of the report
+         * @return this builder
+         */
+        public Builder withFilterReport(final Consumer<TablesawParquetFilterReport> filterReportConsumer) {
+            this.filterReportConsumer = filterReportConsumer;
+            return this;
+        }
+
+        /**
+         * Decode row groups concurrently. Row groups are split into {@code parallelism} contiguous
+         * ranges, each decoded with its own file reader, and the partial tables are joined in file order.
+         * Defaults to 1 (sequential decoding), or to the number of available processors
+         * if an executor is set with {@link #withExecutor(ExecutorService)}.
+         * @param parallelism the number of row group ranges decoded concurrently, must be at least 1
+         * @return this builder
+         */
+        public Builder withParallelism(final int parallelism) {
+            if(parallelism < 1) {
+                throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Use the given executor to decode row groups concurrently.
+         * The executor is not shut down after reading.
+         * Without executor, a thread pool is created and shut down for each concurrent read.
+         * @param executor the executor running the row group decoding tasks
+         * @return this builder
+         */
+        public Builder withExecutor(final ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set the number of rows of the tables returned by {@link TablesawParquetReader#stream} and
+         * {@link TablesawParquetReader#iterator}. The last table may have less rows.
+         * By default (0), one table is returned per row group.
+         * This option is not used by {@link TablesawParquetReader#read}.
+         * @param batchSize the number of rows per table, or 0 for one table per row group
+         * @return this builder
+         */
+        public Builder withBatchSize(final int batchSize) {
+            if(batchSize < 0) {
+                throw new IllegalArgumentException("Batch size must be positive or 0, got " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Only read the first rows of the file (accepted by the record filter if any).
+         * Decoding stops once enough rows are read and the following row groups are not read.
+         * Without record filter, only the pages holding the rows are read from files written with offset indexes.
+         * Row groups are then decoded sequentially, without concurrent decoding.
+         * With {@link TablesawParquetReader#stream} and {@link TablesawParquetReader#iterator}, the limit applies
+         * to all the tables returned together.
+         * @param rowLimit the maximum number of rows to read
+         * @return this builder
+         */
+        public Builder withRowLimit(final long rowLimit) {
+            if(rowLimit < 0) {
+                throw new IllegalArgumentException("Row limit must be positive or 0, got " + rowLimit);
+            }
+            this.rowLimit = rowLimit;
+            return this;
+        }
+
+        /**
+         * Only read a range of rows of the file, given by their index in the file, e.g. to read a file page by page.
+         * The row groups outside the range are not read, and only the pages overlapping the range are read
+         * from files written with offset indexes. Other files are decoded from the start of the row groups
+         * overlapping the range. The record filter, if any, applies to the rows of the range.
+         * Row groups are then decoded sequentially, without concurrent decoding.
+         * With {@link TablesawParquetReader#stream} and {@link TablesawParquetReader#iterator}, the range applies
+         * to all the tables returned together.
+         * @param fromRow the index of the first row to read (inclusive)
+         * @param toRow the index of the row following the last row to read (exclusive)
+         * @return this builder
+         */
+        public Builder withRowRange(final long fromRow, final long toRow) {
+            if (fromRow < 0 || toRow < fromRow) {
+                throw new IllegalArgumentException("Invalid row range [" + fromRow + ", " + toRow + ")");
+            }
+            this.rowRangeStart = fromRow;
+            this.rowRangeEnd = toRow;
+            return this;
+        }
+
+        /**
+         * Set the maximum size of stream sources, and of files downloaded from http(s) or ftp(s) servers,
+         * read in memory. Larger sources are written to a temporary file before reading.
+         * Defaults to {@link TablesawParquetReadOptions#DEFAULT_IN_MEMORY_THRESHOLD}, 0 always uses a temporary file.
+         * @param inMemoryThreshold the maximum size in bytes of sources kept in memory, less than 2 GiB
+         * @return this builder
+         */
+        public Builder withInMemoryThreshold(final long inMemoryThreshold) {
+            if(inMemoryThreshold < 0 || inMemoryThreshold >= Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(
+                    "In-memory threshold must be between 0 and 2 GiB (excluded), got " + inMemoryThreshold);
+            }
+            this.inMemoryThreshold = inMemoryThreshold;
+            return this;
+        }
 }
 
 }
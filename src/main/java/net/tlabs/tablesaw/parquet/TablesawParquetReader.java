@@ -20,26 +20,58 @@ package net.tlabs.tablesaw.parquet;
  * #L%
  */
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.nio.file.attribute.PosixFilePermission;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.SystemUtils;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
-import org.apache.parquet.hadoop.ParquetReader;
-import org.apache.parquet.hadoop.ParquetReader.Builder;
+import org.apache.parquet.ParquetReadOptions;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.FilterCompat.Filter;
+import org.apache.parquet.filter2.compat.RowGroupFilter;
+import org.apache.parquet.filter2.compat.RowGroupFilter.FilterLevel;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import tech.tablesaw.api.Row;
 import tech.tablesaw.api.Table;
 import tech.tablesaw.io.DataReader;
 import tech.tablesaw.io.RuntimeIOException;
@@ -61,7 +93,7 @@ public class TablesawParquetReader implements DataReader<TablesawParquetReadOpti
         }
         final InputStream inStream = source.inputStream();
         if(inStream != null) {
-            return readFromStream(inStream);
+            return read(TablesawParquetReadOptions.builderForStream(inStream).build());
         }
         throw new UnsupportedOperationException("Reading parquet from a character stream is not supported");
     }
@@ -69,68 +101,430 @@ public class TablesawParquetReader implements DataReader<TablesawParquetReadOpti
     @Override
     public Table read(final TablesawParquetReadOptions options) {
         final TablesawReadSupport readSupport = new TablesawReadSupport(options);
-        try (final ParquetReader<Row> reader = makeReader(options.getInputURI(), readSupport, options)) {
-            return readInternal(reader, readSupport, options.getSanitizedinputPath());
+        final ParquetConfiguration configuration = new PlainParquetConfiguration();
+        try {
+            final InputFile inputFile = makeInputFile(options);
+            final TablesawParquetFilterReport.Counter filterCounter = TablesawParquetFilterReport.Counter.create(options);
+            try (final ParquetFileReader reader = openReader(inputFile, configuration, options, filterCounter)) {
+                return readInternal(reader, inputFile, readSupport, configuration, options, filterCounter,
+                    options.getSanitizedinputPath(), options.getParallelism());
+            } finally {
+                closeInputFile(inputFile);
+            }
         } catch (IOException e) {
             throw new RuntimeIOException(e);
         }
     }
-    
-    private static Table readFromStream(final InputStream inStream) {
-        final TablesawParquetReadOptions options = TablesawParquetReadOptions.builderForStream().build();
+
+    /**
+     * Reads a parquet file with its child tables, holding the fields read with
+     * {@link TablesawParquetReadOptions.ManageGroupsAs#EXPLODE}.
+     * Concurrent decoding options are not used.
+     * @param options the read options
+     * @return the main table and the child tables
+     */
+    public TablesawParquetTables readWithChildTables(final TablesawParquetReadOptions options) {
         final TablesawReadSupport readSupport = new TablesawReadSupport(options);
-        try (final ParquetReader<Row> reader = makeReaderFromStream(inStream, readSupport, options)){
-            return readInternal(reader, readSupport, "stream");
+        final ParquetConfiguration configuration = new PlainParquetConfiguration();
+        try {
+            final InputFile inputFile = makeInputFile(options);
+            final TablesawParquetFilterReport.Counter filterCounter = TablesawParquetFilterReport.Counter.create(options);
+            try (final ParquetFileReader reader = openReader(inputFile, configuration, options, filterCounter)) {
+                final Table table = readInternal(reader, inputFile, readSupport, configuration, options,
+                    filterCounter, options.getSanitizedinputPath(), 1);
+                return new TablesawParquetTables(table, readSupport.getChildTables());
+            } finally {
+                closeInputFile(inputFile);
+            }
+        } catch (IOException e) {
+            throw new RuntimeIOException(e);
+        }
+    }
+
+    /**
+     * Opens an iterator over the rows of a parquet file, returned as a sequence of tables
+     * with one table per row group or per batch of rows (see {@link TablesawParquetReadOptions.Builder#withBatchSize}).
+     * Only the current batch is held in memory. The iterator must be closed after use.
+     * The row limit and row range apply to all the tables returned.
+     * Concurrent decoding options are not used.
+     * @param options the read options
+     * @return the iterator, to be closed after use
+     */
+    public TablesawParquetIterator iterator(final TablesawParquetReadOptions options) {
+        final ParquetConfiguration configuration = new PlainParquetConfiguration();
+        try {
+            final InputFile inputFile = makeInputFile(options);
+            final TablesawParquetFilterReport.Counter filterCounter = TablesawParquetFilterReport.Counter.create(options);
+            final ParquetFileReader reader;
+            try {
+                reader = openReader(inputFile, configuration, options, filterCounter);
+            } catch (IOException | RuntimeException e) {
+                closeInputFile(inputFile);
+                throw e;
+            }
+            try {
+                final TablesawRowGroupReader rowGroupReader = new TablesawRowGroupReader(reader,
+                    new TablesawReadSupport(options), configuration,
+                    options.getRecordFilter(reader.getFileMetaData().getSchema()), 0, filterCounter);
+                return new TablesawParquetIterator(reader, () -> closeInputFile(inputFile), rowGroupReader,
+                    options.getBatchSize(), options.getRowRangeStart(), options.getRowRangeEnd(),
+                    rowsToRead(reader, options));
+            } catch (RuntimeException e) {
+                try {
+                    reader.close();
+                } finally {
+                    closeInputFile(inputFile);
+                }
+                throw e;
+            }
         } catch (IOException e) {
             throw new RuntimeIOException(e);
         }
     }
 
-    private static Table readInternal(final ParquetReader<Row> reader, final TablesawReadSupport readSupport,
-            final String displayName) throws IOException {
+    /**
+     * Streams the rows of a parquet file as a sequence of tables,
+     * with one table per row group or per batch of rows (see {@link TablesawParquetReadOptions.Builder#withBatchSize}).
+     * Only the current batch is held in memory. The stream must be closed after use, e.g. with try-with-resources.
+     * The row limit and row range apply to all the tables returned.
+     * Concurrent decoding options are not used.
+     * @param options the read options
+     * @return the sequential stream of tables, to be closed after use
+     */
+    public Stream<Table> stream(final TablesawParquetReadOptions options) {
+        final TablesawParquetIterator iterator = iterator(options);
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(iterator::close);
+    }
+
+    /**
+     * Reads the columns a parquet file would be read to with the same options, from its footer only.
+     * No data is decoded, and the filter and row selection options are not used.
+     * @param options the read options
+     * @return an empty table with the columns of the file, see {@link TablesawParquetMetadata#getSchema()}
+     */
+    public Table readSchema(final TablesawParquetReadOptions options) {
+        return readMetadata(options).getSchema();
+    }
+
+    /**
+     * Reads the metadata of a parquet file from its footer only: the columns the file would be read to
+     * with the same options, and the sizes and statistics of its row groups and column chunks.
+     * No data is decoded, and the filter and row selection options are not used.
+     * @param options the read options
+     * @return the file metadata
+     */
+    public TablesawParquetMetadata readMetadata(final TablesawParquetReadOptions options) {
+        final ParquetConfiguration configuration = new PlainParquetConfiguration();
+        try {
+            final InputFile inputFile = makeInputFile(options);
+            final ParquetMetadata footer;
+            try (final SeekableInputStream stream = inputFile.newStream()) {
+                footer = ParquetFileReader.readFooter(inputFile, ParquetReadOptions.builder(configuration)
+                    .withDecryption(options.getFileDecryptionProperties()).build(), stream);
+            } finally {
+                closeInputFile(inputFile);
+            }
+            final TablesawReadSupport readSupport = new TablesawReadSupport(options);
+            readSupport.init(new InitContext(configuration,
+                TablesawRowGroupReader.toSetMultiMap(footer.getFileMetaData().getKeyValueMetaData()),
+                footer.getFileMetaData().getSchema()));
+            return TablesawParquetMetadata.create(footer, readSupport.createEmptyTable(0));
+        } catch (IOException e) {
+            throw new RuntimeIOException(e);
+        }
+    }
+
+    private static Table readInternal(final ParquetFileReader reader, final InputFile inputFile,
+            final TablesawReadSupport readSupport, final ParquetConfiguration configuration,
+            final TablesawParquetReadOptions options, final TablesawParquetFilterReport.Counter filterCounter,
+            final String displayName, final int maxParallelism) throws IOException {
         final long start = System.currentTimeMillis();
-        int i = 0;
-        while (reader.read() != null) {
-            i++;
+        final TablesawRowGroupReader rowGroupReader = new TablesawRowGroupReader(reader, readSupport,
+            configuration, options.getRecordFilter(reader.getFileMetaData().getSchema()),
+            rowsToRead(reader, options), filterCounter);
+        final boolean limited = options.getRowLimit() < reader.getFilteredRecordCount()
+            || options.getRowRangeStart() > 0 || options.getRowRangeEnd() < Long.MAX_VALUE;
+        final int parallelism = limited ? 1 : Math.min(maxParallelism, reader.getRowGroups().size());
+        long i = 0;
+        if (limited) {
+            i = rowGroupReader.readRows(reader, options.getRowRangeStart(), options.getRowRangeEnd(),
+                options.getRowLimit());
+        } else if (parallelism > 1) {
+            i = readConcurrently(rowGroupReader, reader, parallelism, inputFile, configuration, options);
+        } else {
+            PageReadStore rowGroup;
+            while ((rowGroup = rowGroupReader.readNextRowGroup(reader)) != null) {
+                i += rowGroupReader.readRowGroup(rowGroup);
+            }
         }
+        rowGroupReader.reportFilters();
         final long end = System.currentTimeMillis();
-        LOG.debug("Finished reading {} rows from {} in {} ms", i, displayName, (end - start));
+        LOG.debug("Finished reading {} rows from {} in {} ms{}{}", i, displayName, (end - start),
+            rowGroupReader.isColumnChunkDecoding() ? " (column chunk decoding)" : "",
+            parallelism > 1 ? " (" + parallelism + " concurrent parts)" : "");
         return readSupport.getTable();
     }
-    
-    private static ParquetReader<Row> makeReader(final URI uri, final TablesawReadSupport readSupport,
+
+    /**
+     * Returns the number of rows to read: exact without record filter, an upper bound with a record filter.
+     */
+    private static long rowsToRead(final ParquetFileReader reader, final TablesawParquetReadOptions options) {
+        final long rangeRows = Math.min(reader.getRecordCount(), options.getRowRangeEnd())
+            - options.getRowRangeStart();
+        return Math.max(0, Math.min(Math.min(options.getRowLimit(), rangeRows), reader.getFilteredRecordCount()));
+    }
+
+    private static long readConcurrently(final TablesawRowGroupReader rowGroupReader, final ParquetFileReader reader,
+            final int parallelism, final InputFile inputFile, final ParquetConfiguration configuration,
             final TablesawParquetReadOptions options) throws IOException {
-        final String scheme = uri.getScheme();
-        if(scheme != null) {
-            switch(scheme) {
-                case "http":   // fall through
-                case "https":  // fall through
-                case "ftp":    // fall through
-                case "ftps":   // fall through
-                    try(final InputStream inStream = uri.toURL().openStream()) {
-                        return makeReaderFromStream(inStream, readSupport, options);
+        final int rowGroupCount = reader.getRowGroups().size();
+        final ExecutorService executor = options.getExecutor() == null
+            ? Executors.newFixedThreadPool(parallelism)
+            : options.getExecutor();
+        final List<Future<Table>> partialTables = new ArrayList<>(parallelism);
+        try {
+            for (int part = 0; part < parallelism; part++) {
+                final int fromRowGroup = (int) ((long) rowGroupCount * part / parallelism);
+                final int toRowGroup = (int) ((long) rowGroupCount * (part + 1) / parallelism);
+                final TablesawRecordMaterializer partMaterializer =
+                    rowGroupReader.createPartialMaterializer(reader, fromRowGroup, toRowGroup);
+                partialTables.add(executor.submit(() -> {
+                    try (final ParquetFileReader partReader = openPartReader(inputFile, configuration, options,
+                            reader.getRowGroups())) {
+                        return rowGroupReader.readPartialTable(partReader, partMaterializer,
+                            fromRowGroup, toRowGroup);
                     }
-                default:
-                    // fall through
+                }));
+            }
+            long rowCount = 0;
+            for (final Future<Table> partialTable : partialTables) {
+                final Table partial = getPartialTable(partialTable);
+                rowGroupReader.appendPartialTable(partial);
+                rowCount += partial.rowCount();
+            }
+            return rowCount;
+        } finally {
+            partialTables.forEach(partialTable -> partialTable.cancel(true));
+            if (options.getExecutor() == null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static Table getPartialTable(final Future<Table> partialTable) throws IOException {
+        try {
+            return partialTable.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading row groups");
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Opens a file reader on the row groups left by the row group filter levels.
+     * The levels are applied here one at a time rather than by the reader, to count the row groups
+     * dropped by each level for the filter report. The reader is then opened again on the remaining
+     * row groups, reusing the stream, and the readers of concurrent parts open the same row groups
+     * without reading the dictionaries and bloom filters again.
+     */
+    private static ParquetFileReader openReader(final InputFile inputFile, final ParquetConfiguration configuration,
+            final TablesawParquetReadOptions options, final TablesawParquetFilterReport.Counter filterCounter)
+            throws IOException {
+        final SeekableInputStream stream = inputFile.newStream();
+        try {
+            final ParquetMetadata footer = ParquetFileReader.readFooter(inputFile,
+                readOptions(configuration, options, FilterCompat.NOOP), stream);
+            // The predicate is compiled for the file schema
+            final Filter recordFilter = options.getRecordFilter(footer.getFileMetaData().getSchema());
+            final ParquetFileReader reader = ParquetFileReader.open(inputFile, footer,
+                readOptions(configuration, options, recordFilter), stream);
+            final List<BlockMetaData> rowGroups = filterRowGroups(reader, recordFilter, options, filterCounter);
+            if (rowGroups.size() == footer.getBlocks().size()) {
+                return reader;
             }
+            reader.detachFileInputStream();
+            reader.close();
+            return ParquetFileReader.open(inputFile, new ParquetMetadata(footer.getFileMetaData(), rowGroups),
+                readOptions(configuration, options, recordFilter), stream);
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
         }
-        final Builder<Row> parquetReader = ParquetReader.builder(readSupport, new Path(uri))
+    }
+
+    /**
+     * Opens a file reader for a concurrent part, on the row groups selected by the main reader.
+     * Each part reads its own footer, since the decryptor of encrypted files held by the footer is not thread-safe.
+     */
+    private static ParquetFileReader openPartReader(final InputFile inputFile,
+            final ParquetConfiguration configuration, final TablesawParquetReadOptions options,
+            final List<BlockMetaData> rowGroups) throws IOException {
+        final SeekableInputStream stream = inputFile.newStream();
+        try {
+            final ParquetMetadata footer = ParquetFileReader.readFooter(inputFile,
+                readOptions(configuration, options, FilterCompat.NOOP), stream);
+            // the selected row groups are in file order
+            final List<BlockMetaData> partRowGroups = new ArrayList<>(rowGroups.size());
+            final Iterator<BlockMetaData> blocks = footer.getBlocks().iterator();
+            for (final BlockMetaData rowGroup : rowGroups) {
+                BlockMetaData block;
+                do {
+                    block = blocks.next();
+                } while (block.getRowIndexOffset() != rowGroup.getRowIndexOffset()
+                    || block.getRowCount() != rowGroup.getRowCount());
+                partRowGroups.add(block);
+            }
+            return ParquetFileReader.open(inputFile, new ParquetMetadata(footer.getFileMetaData(), partRowGroups),
+                readOptions(configuration, options, options.getRecordFilter(footer.getFileMetaData().getSchema())),
+                stream);
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            throw e;
+        }
+    }
+
+    private static ParquetReadOptions readOptions(final ParquetConfiguration configuration,
+            final TablesawParquetReadOptions options, final Filter recordFilter) {
+        // Read options are not shared between readers: they hold the decompressors
+        return ParquetReadOptions.builder(configuration)
+            .withCodecFactory(new TablesawCodecFactory(configuration, ParquetProperties.DEFAULT_PAGE_SIZE))
             .withDecryption(options.getFileDecryptionProperties())
-            .withFilter(options.getRecordFilter());
-        
-        return parquetReader.build();
+            .withRecordFilter(recordFilter)
+            .useStatsFilter(false)
+            .useDictionaryFilter(false)
+            .useBloomFilter(false)
+            .useColumnIndexFilter(options.isColumnIndexFilterUsed())
+            .build();
     }
 
-    private static ParquetReader<Row> makeReaderFromStream(final InputStream inStream, final TablesawReadSupport readSupport,
-            final TablesawParquetReadOptions options) throws IOException {
+    private static List<BlockMetaData> filterRowGroups(final ParquetFileReader reader, final Filter recordFilter,
+            final TablesawParquetReadOptions options, final TablesawParquetFilterReport.Counter filterCounter) {
+        List<BlockMetaData> rowGroups = reader.getRowGroups();
+        if (filterCounter != null) {
+            filterCounter.fileRowGroups(rowGroups);
+        }
+        if (!FilterCompat.isFilteringRequired(recordFilter)) {
+            return rowGroups;
+        }
+        if (options.isStatisticsFilterUsed()) {
+            rowGroups = filterRowGroups(FilterLevel.STATISTICS, reader, recordFilter, rowGroups, filterCounter);
+        }
+        if (options.isDictionaryFilterUsed()) {
+            rowGroups = filterRowGroups(FilterLevel.DICTIONARY, reader, recordFilter, rowGroups, filterCounter);
+        }
+        if (options.isBloomFilterUsed()) {
+            rowGroups = filterRowGroups(FilterLevel.BLOOMFILTER, reader, recordFilter, rowGroups, filterCounter);
+        }
+        return rowGroups;
+    }
+
+    private static List<BlockMetaData> filterRowGroups(final FilterLevel level, final ParquetFileReader reader,
+            final Filter recordFilter, final List<BlockMetaData> rowGroups,
+            final TablesawParquetFilterReport.Counter filterCounter) {
+        final List<BlockMetaData> remaining = RowGroupFilter.filterRowGroups(
+            Collections.singletonList(level), recordFilter, rowGroups, reader);
+        if (filterCounter != null) {
+            filterCounter.rowGroupsSkipped(level, rowGroups.size() - remaining.size());
+        }
+        return remaining;
+    }
+
+    private static InputFile makeInputFile(final TablesawParquetReadOptions options) throws IOException {
+        if(options.getInputStream() != null) {
+            return makeInputFileFromStream(options.getInputStream(), options.getInMemoryThreshold());
+        }
+        final URI uri = options.getInputURI();
+        final String scheme = uri.getScheme();
+        if(scheme == null || "file".equals(scheme) && uri.getAuthority() == null) {
+            // local files are memory-mapped rather than read through the hadoop LocalFileSystem
+            return makeLocalInputFile(new File(uri.getPath()));
+        }
+        switch(scheme) {
+            case "http":   // fall through
+            case "https":
+                final Optional<InputFile> rangeInputFile = HttpRangeInputFile.open(uri);
+                if(rangeInputFile.isPresent()) {
+                    return rangeInputFile.get();
+                }
+                // download the whole file when range requests are not supported
+                return downloadInputFile(uri, options.getInMemoryThreshold());
+            case "ftp":    // fall through
+            case "ftps":
+                return downloadInputFile(uri, options.getInMemoryThreshold());
+            default:
+                // fall through
+        }
+        return makeHadoopInputFile(uri);
+    }
+
+    private static InputFile downloadInputFile(final URI uri, final long inMemoryThreshold) throws IOException {
+        try(final InputStream inStream = uri.toURL().openStream()) {
+            return makeInputFileFromStream(inStream, inMemoryThreshold);
+        }
+    }
+
+    private static InputFile makeInputFileFromStream(final InputStream inStream, final long inMemoryThreshold)
+            throws IOException {
+        final ByteBufferInputFile.ExposedByteArrayOutputStream memStream =
+            new ByteBufferInputFile.ExposedByteArrayOutputStream();
+        final long headLength = IOUtils.copyLarge(inStream, memStream, 0, inMemoryThreshold + 1);
+        if(headLength <= inMemoryThreshold) {
+            return new ByteBufferInputFile(memStream.toByteBuffer(), "stream");
+        }
+        LOG.debug("Stream larger than {} bytes, spilling to a temporary file", inMemoryThreshold);
         final File tmpFile = createSecureTempFile("tablesaw-parquet", "parquet");
         tmpFile.deleteOnExit();
+        final TemporaryInputFile inputFile = new TemporaryInputFile(tmpFile);
         try(final FileOutputStream outStream = new FileOutputStream(tmpFile)) {
+            memStream.writeTo(outStream);
             IOUtils.copyLarge(inStream, outStream);
-            return makeReader(tmpFile.toURI(), readSupport, options);
+        } catch (IOException | RuntimeException e) {
+            inputFile.close();
+            throw e;
+        }
+        // spilled files are read rather than mapped, so that they can be deleted once read
+        return inputFile;
+    }
+
+    private static InputFile makeLocalInputFile(final File file) throws IOException {
+        try(final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if(size < Integer.MAX_VALUE) {
+                return new ByteBufferInputFile(channel.map(MapMode.READ_ONLY, 0, size), file.getPath());
+            }
         }
+        // a MappedByteBuffer cannot hold more than 2 GiB
+        return makeHadoopInputFile(file.toURI());
     }
-    
+
+    /**
+     * Releases the mapped buffer or the temporary file of an input file, once its reader is closed.
+     */
+    private static void closeInputFile(final InputFile inputFile) throws IOException {
+        if (inputFile instanceof Closeable) {
+            ((Closeable) inputFile).close();
+        }
+    }
+
+    // The hadoop file system is only initialized for the sources not handled above
+    private static InputFile makeHadoopInputFile(final URI uri) throws IOException {
+        return HadoopInputFile.fromPath(new Path(uri), new Configuration());
+    }
+
     private static File createSecureTempFile(final String prefix, final String suffix) throws IOException {
         if(SystemUtils.IS_OS_UNIX) {
             final FileAttribute<Set<PosixFilePermission>> attr = PosixFilePermissions.asFileAttribute(
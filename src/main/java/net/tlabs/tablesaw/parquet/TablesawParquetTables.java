@@ -0,0 +1,76 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.Map;
+
+import tech.tablesaw.api.Table;
+
+/**
+ * The tables read from a parquet file with {@link TablesawParquetReadOptions.ManageGroupsAs#EXPLODE}:
+ * the main table, and one child table per exploded field.
+ * Each row of a child table holds one value of the field, or one entry of a list or map,
+ * with the index of its row in the main table in the {@value #PARENT_ROW_COLUMN} column.
+ * Use {@link TablesawParquetReader#readWithChildTables(TablesawParquetReadOptions)} to create instances.
+ */
+public final class TablesawParquetTables {
+
+    /** Name of the child table column holding the index of the parent row in the main table */
+    public static final String PARENT_ROW_COLUMN = "parent_row";
+
+    private final Table table;
+    private final Map<String, Table> childTables;
+
+    TablesawParquetTables(final Table table, final Map<String, Table> childTables) {
+        super();
+        this.table = table;
+        this.childTables = Collections.unmodifiableMap(childTables);
+    }
+
+    /**
+     * @return the main table, without the exploded fields
+     */
+    public Table getTable() {
+        return table;
+    }
+
+    /**
+     * @return the child tables by field name, in schema order
+     */
+    public Map<String, Table> getChildTables() {
+        return childTables;
+    }
+
+    /**
+     * Returns the child table of an exploded field.
+     * @param fieldName the name of the exploded field
+     * @return the child table
+     * @throws IllegalArgumentException if the field was not exploded
+     */
+    public Table getChildTable(final String fieldName) {
+        final Table childTable = childTables.get(fieldName);
+        if (childTable == null) {
+            throw new IllegalArgumentException("Field " + fieldName + " is not an exploded field");
+        }
+        return childTable;
+    }
+}
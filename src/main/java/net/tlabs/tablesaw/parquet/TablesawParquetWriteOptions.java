@@ -25,6 +25,7 @@ import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
@@ -73,6 +74,8 @@ public class TablesawParquetWriteOptions extends WriteOptions {
     private final FileEncryptionProperties fileEncryptionProperties;
     private final long rowGroupSize;
     private final Map<String, LogicalTypeAnnotation> logicalTypes;
+    private final Map<String, Long> bloomFilterNDVs;
+    private final Map<String, Double> bloomFilterFPPs;
 
     public static Builder builder(final File file) {
         return new Builder(file.getAbsolutePath());
@@ -91,6 +94,8 @@ public class TablesawParquetWriteOptions extends WriteOptions {
         this.fileEncryptionProperties = builder.getEncryptionProperties();
         this.rowGroupSize = builder.rowGroupSize;
         this.logicalTypes = Collections.unmodifiableMap(builder.logicalTypes);
+        this.bloomFilterNDVs = Collections.unmodifiableMap(builder.bloomFilterNDVs);
+        this.bloomFilterFPPs = Collections.unmodifiableMap(builder.bloomFilterFPPs);
     }
 
     public String getOutputFile() {
@@ -121,6 +126,20 @@ public class TablesawParquetWriteOptions extends WriteOptions {
         return logicalTypes;
     }
 
+    /**
+     * @return the expected number of distinct values of the columns written with a bloom filter
+     */
+    public Map<String, Long> getBloomFilterNDVs() {
+        return bloomFilterNDVs;
+    }
+
+    /**
+     * @return the target false positive probability of the columns written with a bloom filter
+     */
+    public Map<String, Double> getBloomFilterFPPs() {
+        return bloomFilterFPPs;
+    }
+
     public static class Builder extends WriteOptions.Builder {
 
         private final String outputFile;
@@ -138,6 +157,8 @@ public class TablesawParquetWriteOptions extends WriteOptions {
         private Map<String, byte[]> columnMetadataMap;
         private long rowGroupSize = ParquetWriter.DEFAULT_BLOCK_SIZE;
         private Map<String, LogicalTypeAnnotation> logicalTypes = new HashMap<>();
+        private final Map<String, Long> bloomFilterNDVs = new LinkedHashMap<>();
+        private final Map<String, Double> bloomFilterFPPs = new LinkedHashMap<>();
 
         public Builder(final String outputFile) {
             super((Writer) null);
@@ -350,6 +371,33 @@ public class TablesawParquetWriteOptions extends WriteOptions {
             return this;
         }
 
+        /**
+         * Write a bloom filter for a column in each row group, so that readers can skip the row groups
+         * not holding the values of equality and {@code in} predicates on that column.
+         * The filter is sized for the expected number of distinct values per row group and the target
+         * false positive probability, within the parquet limit of 1 MiB per filter.
+         * Useful for high-cardinality columns such as ids, where min/max statistics skip nothing.
+         * Accumulative method, can be called once per column.
+         * @param columnName the column name
+         * @param expectedDistinctValues the expected number of distinct values per row group, strictly positive
+         * @param falsePositiveProbability the target false positive probability, strictly between 0 and 1
+         * @return this builder for method chaining.
+         */
+        public Builder withBloomFilter(final String columnName, final long expectedDistinctValues,
+                final double falsePositiveProbability) {
+            if (expectedDistinctValues <= 0) {
+                throw new IllegalArgumentException("Expected distinct values must be strictly positive, was "
+                    + expectedDistinctValues);
+            }
+            if (!(falsePositiveProbability > 0 && falsePositiveProbability < 1)) {
+                throw new IllegalArgumentException("False positive probability must be strictly between 0 and 1, was "
+                    + falsePositiveProbability);
+            }
+            this.bloomFilterNDVs.put(columnName, expectedDistinctValues);
+            this.bloomFilterFPPs.put(columnName, falsePositiveProbability);
+            return this;
+        }
+
         /**
          * Build the {@link net.tlabs.tablesaw.parquet.TablesawParquetWriteOptions}
          * @return the options
@@ -21,15 +21,26 @@ package net.tlabs.tablesaw.parquet;
  */
 
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocalFileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.conf.PlainParquetConfiguration;
 import org.apache.parquet.hadoop.ParquetFileWriter.Mode;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.io.LocalOutputFile;
+import org.apache.parquet.io.OutputFile;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,6 +53,8 @@ import tech.tablesaw.io.RuntimeIOException;
 public class TablesawParquetWriter implements DataWriter<TablesawParquetWriteOptions> {
 
     private static final Logger LOG = LoggerFactory.getLogger(TablesawParquetWriter.class);
+    // a scheme has at least two characters, to keep windows drive letters as local paths
+    private static final Pattern URI_SCHEME_PATTERN = Pattern.compile("^([a-zA-Z][a-zA-Z0-9+.-]+):");
 
     public TablesawParquetWriter() {
         super();
@@ -55,15 +68,7 @@ public class TablesawParquetWriter implements DataWriter<TablesawParquetWriteOpt
 
     @Override
     public void write(final Table table, final TablesawParquetWriteOptions options) {
-        
-        try {
-            final FileSystem fs = FileSystem.getLocal(new Configuration());
-            fs.setWriteChecksum(options.isWriteChecksum());
-        } catch (IOException e) {
-            throw new RuntimeIOException(e);
-        }
-
-        try (final ParquetWriter<Row> writer = new Builder(new Path(options.getOutputFile()), table)
+        try (final ParquetWriter<Row> writer = withBloomFilters(newBuilder(table, options), table, options)
                 .withCompressionCodec(CompressionCodecName.fromConf(options.getCompressionCodec().name()))
                 .withWriteMode(options.isOverwrite() ? Mode.OVERWRITE : Mode.CREATE)
                 .withValidation(false)
@@ -83,6 +88,55 @@ public class TablesawParquetWriter implements DataWriter<TablesawParquetWriteOpt
         }
     }
     
+    private static Builder newBuilder(final Table table, final TablesawParquetWriteOptions options)
+            throws IOException {
+        final java.nio.file.Path localPath = toLocalPath(options.getOutputFile());
+        if (localPath != null && !options.isWriteChecksum()) {
+            // checksum files are only written by the hadoop LocalFileSystem
+            final java.nio.file.Path parent = localPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            if (options.isOverwrite()) {
+                // as done by the hadoop LocalFileSystem, remove the checksum of the overwritten file
+                Files.deleteIfExists(localPath.resolveSibling("." + localPath.getFileName() + ".crc"));
+            }
+            final ParquetConfiguration configuration = new PlainParquetConfiguration();
+            return new Builder(new LocalOutputFile(localPath), table)
+                .withConf(configuration)
+                .withCodecFactory(new TablesawCodecFactory(configuration, ParquetProperties.DEFAULT_PAGE_SIZE));
+        }
+        final LocalFileSystem fs = FileSystem.getLocal(new Configuration());
+        fs.setWriteChecksum(options.isWriteChecksum());
+        return new Builder(new Path(options.getOutputFile()), table);
+    }
+
+    private static Builder withBloomFilters(final Builder builder, final Table table,
+            final TablesawParquetWriteOptions options) {
+        for (final Map.Entry<String, Long> entry : options.getBloomFilterNDVs().entrySet()) {
+            final String columnName = entry.getKey();
+            if (!table.containsColumn(columnName)) {
+                throw new IllegalArgumentException("Cannot write a bloom filter for unknown column " + columnName);
+            }
+            builder.withBloomFilterEnabled(columnName, true)
+                .withBloomFilterNDV(columnName, entry.getValue())
+                .withBloomFilterFPP(columnName, options.getBloomFilterFPPs().get(columnName));
+        }
+        return builder;
+    }
+
+    private static java.nio.file.Path toLocalPath(final String outputFile) {
+        final Matcher matcher = URI_SCHEME_PATTERN.matcher(outputFile);
+        if (!matcher.find()) {
+            return Paths.get(outputFile);
+        }
+        if ("file".equalsIgnoreCase(matcher.group(1))) {
+            final URI uri = URI.create(outputFile);
+            return uri.getAuthority() == null ? Paths.get(uri.getPath()) : null;
+        }
+        return null;
+    }
+
     protected static class Builder extends ParquetWriter.Builder<Row, Builder> {
 
         private final Table table;
@@ -94,6 +148,11 @@ public class TablesawParquetWriter implements DataWriter<TablesawParquetWriteOpt
             this.table = table;
         }
 
+        protected Builder(final OutputFile outputFile, final Table table) {
+            super(outputFile);
+            this.table = table;
+        }
+
         protected Builder withLogicalTypes(final Map<String, LogicalTypeAnnotation> logicalTypes) {
             this.logicalTypes = logicalTypes;
             return self();
@@ -109,5 +168,10 @@ public class TablesawParquetWriter implements DataWriter<TablesawParquetWriteOpt
         protected WriteSupport<Row> getWriteSupport(final Configuration conf) {
             return new TablesawWriteSupport(this.table, this.logicalTypes);
         }
+
+        @Override
+        protected WriteSupport<Row> getWriteSupport(final ParquetConfiguration conf) {
+            return new TablesawWriteSupport(this.table, this.logicalTypes);
+        }
     }
 }
@@ -20,7 +20,10 @@ package net.tlabs.tablesaw.parquet;
  * #L%
  */
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,9 +31,10 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
 import org.apache.parquet.hadoop.api.InitContext;
 import org.apache.parquet.hadoop.api.ReadSupport;
-import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.BsonLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
@@ -41,12 +45,17 @@ import org.apache.parquet.schema.LogicalTypeAnnotation.GeographyLogicalTypeAnnot
 import org.apache.parquet.schema.LogicalTypeAnnotation.GeometryLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.JsonLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.ListLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.LogicalTypeAnnotationVisitor;
+import org.apache.parquet.schema.LogicalTypeAnnotation.MapKeyValueTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.MapLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.StringLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.TimeLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.VariantLogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.apache.parquet.schema.Type;
 import org.apache.parquet.schema.Type.Repetition;
 import tech.tablesaw.api.BooleanColumn;
@@ -73,6 +82,8 @@ public class TablesawReadSupport extends ReadSupport<Row> {
     private final TablesawParquetReadOptions options;
     private TablesawRecordMaterializer tablesawRecordMaterializer;
     private Table table = null;
+    private Map<String, Table> childTables = Collections.emptyMap();
+    private boolean flatSchema = false;
 
     public TablesawReadSupport(final TablesawParquetReadOptions options) {
         super();
@@ -98,11 +109,24 @@ public class TablesawReadSupport extends ReadSupport<Row> {
             .map(filteredFieldsIndices::get)
             .boxed()
             .collect(Collectors.toList());
-        // Create table
+        // Create table and child tables of exploded fields
         // mapping by idx uses filtered column index
-        this.table = Table.create(options.tableName(), IntStream.range(0, projectedFieldsIndices.size())
-                .mapToObj(i -> this.getColumnForType(i, initialFields.get(projectedFieldsIndices.get(i))))
-                .collect(Collectors.toList()));
+        final List<Column<?>> columns = new ArrayList<>(projectedFieldsIndices.size());
+        this.childTables = new LinkedHashMap<>();
+        for (int i = 0; i < projectedFieldsIndices.size(); i++) {
+            final Type field = initialFields.get(projectedFieldsIndices.get(i));
+            final Optional<MessageType> explodedSchema = this.explodedSchema(i, field);
+            if (explodedSchema.isPresent()) {
+                childTables.put(field.getName(), createChildTable(explodedSchema.get()));
+            } else {
+                columns.add(this.getColumnForType(i, field));
+            }
+        }
+        this.table = Table.create(options.tableName(), columns);
+        // Flat schema: no groups nor repeated fields
+        this.flatSchema = projectedFieldsIndices.stream()
+            .map(initialFields::get)
+            .allMatch(t -> t.isPrimitive() && !t.isRepetition(Repetition.REPEATED));
         // Return projected schema in read context
         return new ReadContext(new MessageType(PARQUET_READ_SCHEMA, projectedFieldsIndices.stream()
             .map(initialFields::get)
@@ -111,9 +135,20 @@ public class TablesawReadSupport extends ReadSupport<Row> {
 
     @SuppressWarnings("deprecation")
     @Override
-    public RecordMaterializer<Row> prepareForRead(final Configuration configuration,
+    public TablesawRecordMaterializer prepareForRead(final Configuration configuration,
+            final Map<String, String> keyValueMetaData, final MessageType fileSchema, final ReadContext readContext) {
+        return prepareForRead(readContext);
+    }
+
+    @Override
+    public TablesawRecordMaterializer prepareForRead(final ParquetConfiguration configuration,
             final Map<String, String> keyValueMetaData, final MessageType fileSchema, final ReadContext readContext) {
-        tablesawRecordMaterializer = new TablesawRecordMaterializer(this.table, readContext.getRequestedSchema(), this.options);
+        return prepareForRead(readContext);
+    }
+
+    private TablesawRecordMaterializer prepareForRead(final ReadContext readContext) {
+        tablesawRecordMaterializer = new TablesawRecordMaterializer(this.table, readContext.getRequestedSchema(),
+            this.options, this.childTables);
         return tablesawRecordMaterializer;
     }
     
@@ -163,6 +198,68 @@ public class TablesawReadSupport extends ReadSupport<Row> {
             .orElse(!columnTypeReadOptions.hasColumnTypeForAllColumnsIfHavingColumnNames());
     }
 
+    private Optional<MessageType> explodedSchema(final int fieldIndex, final Type field) {
+        if (options.getManageGroupsAs() != ManageGroupsAs.EXPLODE
+                || options.columnTypeReadOptions().columnType(fieldIndex, field.getName()).isPresent()) {
+            return Optional.empty();
+        }
+        return explodedSchema(field);
+    }
+
+    /**
+     * Returns the schema of the child table of a field read with {@link ManageGroupsAs#EXPLODE}:
+     * the parent row index followed by the optional primitive fields of one value.
+     * Repeated primitives are exploded one value per row, LIST and MAP groups one entry per row,
+     * provided that the entries only hold non-repeated primitives. Other fields are not exploded.
+     * @param field the top-level field
+     * @return the child table schema, empty if the field cannot be exploded
+     */
+    static Optional<MessageType> explodedSchema(final Type field) {
+        if (field.isPrimitive()) {
+            return field.isRepetition(Repetition.REPEATED) ? childSchema(field.getName(), Collections.singletonList(field))
+                : Optional.empty();
+        }
+        final GroupType group = field.asGroupType();
+        final LogicalTypeAnnotation annotation = group.getLogicalTypeAnnotation();
+        if (!(annotation instanceof ListLogicalTypeAnnotation || annotation instanceof MapLogicalTypeAnnotation
+                || annotation instanceof MapKeyValueTypeAnnotation)
+                || group.getFieldCount() != 1 || !group.getType(0).isRepetition(Repetition.REPEATED)) {
+            return Optional.empty();
+        }
+        final Type entry = group.getType(0);
+        if (entry.isPrimitive()) {
+            // two-level list
+            return childSchema(field.getName(), Collections.singletonList(entry));
+        }
+        final List<Type> entryFields = entry.asGroupType().getFields();
+        if (entryFields.stream().anyMatch(t -> !t.isPrimitive() || t.isRepetition(Repetition.REPEATED))) {
+            return Optional.empty();
+        }
+        return childSchema(field.getName(), entryFields);
+    }
+
+    private static Optional<MessageType> childSchema(final String name, final List<Type> valueFields) {
+        final List<Type> fields = new ArrayList<>(valueFields.size() + 1);
+        fields.add(new PrimitiveType(Repetition.REQUIRED, PrimitiveTypeName.INT32,
+            TablesawParquetTables.PARENT_ROW_COLUMN));
+        for (final Type valueField : valueFields) {
+            if (TablesawParquetTables.PARENT_ROW_COLUMN.equals(valueField.getName())) {
+                return Optional.empty();
+            }
+            final PrimitiveType primitive = valueField.asPrimitiveType();
+            fields.add(new PrimitiveType(Repetition.OPTIONAL, primitive.getPrimitiveTypeName(),
+                primitive.getTypeLength(), primitive.getName())
+                .withLogicalTypeAnnotation(primitive.getLogicalTypeAnnotation()));
+        }
+        return Optional.of(new MessageType(name, fields));
+    }
+
+    private Table createChildTable(final MessageType childSchema) {
+        return Table.create(childSchema.getName(), childSchema.getFields().stream()
+            .map(t -> createSimplePrimitiveColumn(t.getName(), t))
+            .collect(Collectors.toList()));
+    }
+
     private Column<?> getColumnForType(final int fieldIndex, final Type field) {
         final String name = field.getName();
         final ColumnTypeReadOptions columnTypeReadOptions = this.options.columnTypeReadOptions();
@@ -186,6 +283,9 @@ public class TablesawReadSupport extends ReadSupport<Row> {
                 throw new IllegalStateException("Skipped group " + name + " still in schema");
             case TEXT:
                 // Fall through
+            case EXPLODE:
+                // Groups that cannot be exploded are read as text
+                // Fall through
             default:
                 return StringColumn.create(name);
         }
@@ -210,20 +310,25 @@ public class TablesawReadSupport extends ReadSupport<Row> {
             case FIXED_LEN_BYTE_ARRAY:
                 return Optional.ofNullable(fieldType.getLogicalTypeAnnotation())
                     .flatMap(a -> annotatedFixedLenBinaryColumn(a, fieldName))
-                    .orElseGet(() -> StringColumn.create(fieldName));
+                    .orElseGet(() -> createUnannotatedBinaryColumn(fieldName));
             case INT96:
                 return options.isConvertInt96ToTimestamp() ?
                     InstantColumn.create(fieldName) : StringColumn.create(fieldName);
             case BINARY:
                 return Optional.ofNullable(fieldType.getLogicalTypeAnnotation())
                     .flatMap(a -> annotatedBinaryColumn(a, fieldName))
-                    .orElseGet(() -> StringColumn.create(fieldName));
+                    .orElseGet(() -> createUnannotatedBinaryColumn(fieldName));
             default:
                 throw new IllegalStateException("Unknown field type " + fieldType.getName()
                     + " for column " + fieldName);
         }
     }
 
+    private Column<?> createUnannotatedBinaryColumn(final String fieldName) {
+        return options.getUnnanotatedBinaryAs() == UnnanotatedBinaryAs.BINARY ?
+            BinaryColumn.create(fieldName) : StringColumn.create(fieldName);
+    }
+
     private Optional<Column<?>> annotatedBinaryColumn(final LogicalTypeAnnotation annotation,
             final String fieldName) {
         return annotation.accept(new LogicalTypeAnnotationVisitor<Column<?>>() {
@@ -327,7 +432,59 @@ public class TablesawReadSupport extends ReadSupport<Row> {
         });
     }
 
+    /**
+     * Allocates the table columns for the number of rows to read, so that they do not grow while decoding.
+     * Only for reads without record filter, where the number of rows is known up front.
+     * Must be called after {@link #init(InitContext)} and before {@code prepareForRead}.
+     * @param rowCount the number of rows to read
+     */
+    void presize(final int rowCount) {
+        this.table = this.table.emptyCopy(rowCount);
+    }
+
+    /**
+     * Creates a materializer filling a new empty copy of the table, to decode a part of the file
+     * independently from the main materializer.
+     * Only meaningful after {@link #init(InitContext)} has been called.
+     * @param requestedSchema the projected schema returned in the read context
+     * @param rowCount the expected number of rows in the part
+     * @return a new materializer on an empty copy of the table
+     */
+    TablesawRecordMaterializer createPartialMaterializer(final MessageType requestedSchema, final int rowCount) {
+        final Map<String, Table> emptyChildTables = new LinkedHashMap<>();
+        childTables.forEach((name, childTable) -> emptyChildTables.put(name, childTable.emptyCopy()));
+        return new TablesawRecordMaterializer(createEmptyTable(rowCount), requestedSchema, this.options,
+            emptyChildTables);
+    }
+
+    /**
+     * Creates a new empty copy of the table, allocated for the given number of rows.
+     * Only meaningful after {@link #init(InitContext)} has been called.
+     * @param rowCount the number of rows to allocate
+     * @return a new table with the same columns
+     */
+    Table createEmptyTable(final int rowCount) {
+        return this.table.emptyCopy(rowCount);
+    }
+
+    /**
+     * Returns whether the projected schema only contains non-repeated primitive fields.
+     * Only meaningful after {@link #init(InitContext)} has been called.
+     * @return true if the projected schema has no groups nor repeated fields
+     */
+    public boolean isFlatSchema() {
+        return flatSchema;
+    }
+
     public Table getTable() {
         return tablesawRecordMaterializer == null ? null : tablesawRecordMaterializer.getTable();
     }
+
+    /**
+     * Returns the child tables of the fields read with {@link ManageGroupsAs#EXPLODE}, by field name.
+     * @return the child tables, empty if no field was exploded or before reading
+     */
+    public Map<String, Table> getChildTables() {
+        return tablesawRecordMaterializer == null ? Collections.emptyMap() : tablesawRecordMaterializer.getChildTables();
+    }
 }
@@ -20,32 +20,31 @@ package net.tlabs.tablesaw.parquet;
  * #L%
  */
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.time.Duration;
-import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.Period;
-import java.time.ZoneOffset;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
-import java.time.temporal.JulianFields;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import net.tlabs.tablesaw.parquet.TablesawParquetReadOptions.UnnanotatedBinaryAs;
 import org.apache.parquet.Preconditions;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.Dictionary;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.Converter;
 import org.apache.parquet.io.api.GroupConverter;
 import org.apache.parquet.io.api.PrimitiveConverter;
 import org.apache.parquet.schema.Float16Util;
-import org.apache.parquet.schema.GroupType;
 import org.apache.parquet.schema.LogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.BsonLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.DecimalLogicalTypeAnnotation;
@@ -61,10 +60,10 @@ import org.apache.parquet.schema.LogicalTypeAnnotation.TimeLogicalTypeAnnotation
 import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
 import org.apache.parquet.schema.LogicalTypeAnnotation.UUIDLogicalTypeAnnotation;
 import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.apache.parquet.schema.Type.Repetition;
 import org.apache.parquet.schema.Type;
-import org.apache.parquet.tools.read.SimpleRecordConverter;
 import org.bson.BsonBinaryReader;
 import org.bson.BsonReader;
 import org.bson.codecs.DecoderContext;
@@ -91,27 +90,59 @@ public class TablesawRecordConverter extends GroupConverter {
 
     private final class DateTimePrimitiveConverter extends PrimitiveConverter {
         private final int colIndex;
-        private final long secondFactor;
-        private final long nanoFactor;
+        private final long unitsPerMilli;
 
-        private DateTimePrimitiveConverter(final int colIndex, final long secondFactor, final long nanoFactor) {
+        private DateTimePrimitiveConverter(final int colIndex, final long unitsPerMilli) {
             super();
             this.colIndex = colIndex;
-            this.secondFactor = secondFactor;
-            this.nanoFactor = nanoFactor;
+            this.unitsPerMilli = unitsPerMilli;
         }
 
         @Override
         public void addLong(final long value) {
-            final long epochSecond = value / secondFactor;
-            proxy.appendDateTime(colIndex, LocalDateTime.ofEpochSecond(epochSecond,
-                (int) ((value - (epochSecond * secondFactor)) * nanoFactor), ZoneOffset.UTC));
+            proxy.appendPackedDateTime(colIndex, PackedDateTimes.packEpoch(value, unitsPerMilli));
         }
         
     }
     
+    /**
+     * Receives the 12 bytes of INT96 values in a reused array, instead of allocating a buffer per value.
+     */
+    private static final class Int96Bytes extends OutputStream {
+        private static final VarHandle LONG_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+        private static final VarHandle INT_LE =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+        private final byte[] bytes = new byte[BINARY_INSTANT_LENGTH_VALUE];
+        private int size = 0;
+
+        long packInstant(final Binary value) {
+            size = 0;
+            try {
+                value.writeTo(this);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // 8 bytes of nanos of day then 4 bytes of julian day, little-endian
+            return PackedDateTimes.packJulianDay((int) INT_LE.get(bytes, Long.BYTES), (long) LONG_LE.get(bytes, 0));
+        }
+
+        @Override
+        public void write(final int b) {
+            bytes[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            System.arraycopy(b, off, bytes, size, len);
+            size += len;
+        }
+    }
+
     private abstract class InstantPrimitiveConverter extends PrimitiveConverter {
         protected final int colIndex;
+        private final Int96Bytes int96Bytes = new Int96Bytes();
 
         private InstantPrimitiveConverter(final int colIndex) {
             super();
@@ -121,13 +152,7 @@ public class TablesawRecordConverter extends GroupConverter {
         @Override
         public void addBinary(final Binary value) {
             Preconditions.checkArgument(value.length() == BINARY_INSTANT_LENGTH_VALUE, BINARY_INSTANT_LENGTH_MESSAGE);
-            final ByteBuffer buf = value.toByteBuffer();
-            buf.order(ByteOrder.LITTLE_ENDIAN);
-            final long nanotime = buf.getLong();
-            final int julianday = buf.getInt();
-            final LocalDate date = LocalDate.ofEpochDay(0).with(JulianFields.JULIAN_DAY, julianday);
-            proxy.appendInstant(colIndex,
-                ZonedDateTime.of(date.atStartOfDay(), ZoneOffset.UTC).toInstant().plus(nanotime, ChronoUnit.NANOS));
+            proxy.appendPackedInstant(colIndex, int96Bytes.packInstant(value));
         }
     }
     
@@ -138,25 +163,21 @@ public class TablesawRecordConverter extends GroupConverter {
 
         @Override
         public void addLong(final long value) {
-            proxy.appendInstant(colIndex, Instant.ofEpochMilli(value));
+            proxy.appendPackedInstant(colIndex, PackedDateTimes.packEpochMilli(value));
         }
     }
     
     private final class SubMillisInstantPrimitiveConverter extends InstantPrimitiveConverter {
-        private final long factor;
-        private final ChronoUnit chronoUnit;
+        private final long unitsPerMilli;
 
-        private SubMillisInstantPrimitiveConverter(final int colIndex, final long factor, final ChronoUnit unit) {
+        private SubMillisInstantPrimitiveConverter(final int colIndex, final long unitsPerMilli) {
             super(colIndex);
-            this.factor = factor;
-            this.chronoUnit = unit;
+            this.unitsPerMilli = unitsPerMilli;
         }
 
         @Override
         public void addLong(final long value) {
-            final long millisFromValue = value / factor;
-            proxy.appendInstant(colIndex, Instant.ofEpochMilli(millisFromValue)
-                .plus(value - millisFromValue * factor, chronoUnit));
+            proxy.appendPackedInstant(colIndex, PackedDateTimes.packEpoch(value, unitsPerMilli));
         }
     }
 
@@ -180,50 +201,92 @@ public class TablesawRecordConverter extends GroupConverter {
 
     private final class TimePrimitiveConverter  extends PrimitiveConverter {
         private final int colIndex;
-        private final long longValueFactor;
+        private final long unitsPerMilli;
 
-        private TimePrimitiveConverter(final int colIndex, final long longValueFactor) {
+        private TimePrimitiveConverter(final int colIndex, final long unitsPerMilli) {
             super();
             this.colIndex = colIndex;
-            this.longValueFactor = longValueFactor;
+            this.unitsPerMilli = unitsPerMilli;
         }
         
         @Override
         public void addInt(final int value) {
             // INT32 is always in MILLIS
-            proxy.appendTime(colIndex, LocalTime.ofNanoOfDay(MILLIS_TO_NANOS * value));
+            proxy.appendPackedTime(colIndex, PackedDateTimes.packMillisOfDay(value));
         }
         
         @Override
         public void addLong(final long value) {
             // INT64 is either MICROS or NANOS
-            proxy.appendTime(colIndex, LocalTime.ofNanoOfDay(value * longValueFactor));
+            proxy.appendPackedTime(colIndex, PackedDateTimes.packMillisOfDay(Math.floorDiv(value, unitsPerMilli)));
         }
     }
     
-    private final class StringPrimitiveConverter extends PrimitiveConverter {
+    /**
+     * String converter using the column chunk dictionary when available:
+     * each dictionary entry is converted once, when first used, and the same String is then appended
+     * for every value referencing it.
+     */
+    private abstract class DictionaryAwareStringConverter extends PrimitiveConverter {
         private final int colIndex;
+        private Dictionary dictionary = null;
+        private String[] dictionaryStrings = null;
 
-        private StringPrimitiveConverter(final int colIndex) {
+        private DictionaryAwareStringConverter(final int colIndex) {
+            super();
             this.colIndex = colIndex;
         }
 
+        abstract String convert(Binary value);
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return true;
+        }
+
+        @Override
+        public void setDictionary(final Dictionary dictionary) {
+            this.dictionary = dictionary;
+            this.dictionaryStrings = new String[dictionary.getMaxId() + 1];
+        }
+
+        @Override
+        public void addValueFromDictionary(final int dictionaryId) {
+            String value = dictionaryStrings[dictionaryId];
+            if (value == null) {
+                value = convert(dictionary.decodeToBinary(dictionaryId));
+                dictionaryStrings[dictionaryId] = value;
+            }
+            proxy.appendString(colIndex, value);
+        }
+
         @Override
         public void addBinary(final Binary value) {
-            proxy.appendString(colIndex, value.toStringUsingUTF8());
+            proxy.appendString(colIndex, convert(value));
         }
     }
 
-    private final class HexStringPrimitiveConverter extends PrimitiveConverter {
-        private final int colIndex;
+    private final class StringPrimitiveConverter extends DictionaryAwareStringConverter {
+
+        private StringPrimitiveConverter(final int colIndex) {
+            super(colIndex);
+        }
+
+        @Override
+        String convert(final Binary value) {
+            return value.toStringUsingUTF8();
+        }
+    }
+
+    private final class HexStringPrimitiveConverter extends DictionaryAwareStringConverter {
 
         private HexStringPrimitiveConverter(final int colIndex) {
-            this.colIndex = colIndex;
+            super(colIndex);
         }
 
         @Override
-        public void addBinary(final Binary value) {
-            proxy.appendString(colIndex, rawBytesToHexString(value.getBytes()));
+        String convert(final Binary value) {
+            return rawBytesToHexString(value.getBytes());
         }
     }
 
@@ -271,20 +334,6 @@ public class TablesawRecordConverter extends GroupConverter {
 
     }
     
-    private final class GroupAsTextConverter extends SimpleRecordConverter {
-        private final int col;
-
-        private GroupAsTextConverter(final GroupType schema, final int col) {
-            super(schema);
-            this.col = col;
-        }
-
-        @Override
-        public void end() {
-            proxy.appendString(col, this.record.toString());
-        }
-    }
-
     private final class GeospatialPrimitiveConverter extends PrimitiveConverter {
         private static final String BINARY_INVALID = "<INVALID>";
         private final int colIndex;
@@ -307,29 +356,193 @@ public class TablesawRecordConverter extends GroupConverter {
         }
     }
 
-    
-    private static final long SECOND_TO_MILLIS = 1_000L;
+    /**
+     * Writes each value of a repeated primitive field, or of a two-level list, as a new row of a child table.
+     */
+    private final class ExplodedPrimitiveConverter extends PrimitiveConverter {
+        private final TablesawRecordConverter child;
+        private final PrimitiveConverter parentRow;
+        private final PrimitiveConverter value;
+
+        private ExplodedPrimitiveConverter(final TablesawRecordConverter child) {
+            super();
+            this.child = child;
+            this.parentRow = child.getConverter(0).asPrimitiveConverter();
+            this.value = child.getConverter(1).asPrimitiveConverter();
+        }
+
+        private void startValue() {
+            child.start();
+            parentRow.addInt(currentRowIndex());
+        }
+
+        @Override
+        public boolean hasDictionarySupport() {
+            return value.hasDictionarySupport();
+        }
+
+        @Override
+        public void setDictionary(final Dictionary dictionary) {
+            value.setDictionary(dictionary);
+        }
+
+        @Override
+        public void addValueFromDictionary(final int dictionaryId) {
+            startValue();
+            value.addValueFromDictionary(dictionaryId);
+            child.end();
+        }
+
+        @Override
+        public void addBinary(final Binary binary) {
+            startValue();
+            value.addBinary(binary);
+            child.end();
+        }
 
-    private static final long SECOND_TO_MICROS = 1_000_000L;
+        @Override
+        public void addBoolean(final boolean bool) {
+            startValue();
+            value.addBoolean(bool);
+            child.end();
+        }
 
-    private static final long SECOND_TO_NANOS = 1_000_000_000L;
+        @Override
+        public void addDouble(final double number) {
+            startValue();
+            value.addDouble(number);
+            child.end();
+        }
 
-    private static final long MICROS_TO_NANOS = 1_000L;
+        @Override
+        public void addFloat(final float number) {
+            startValue();
+            value.addFloat(number);
+            child.end();
+        }
+
+        @Override
+        public void addInt(final int number) {
+            startValue();
+            value.addInt(number);
+            child.end();
+        }
+
+        @Override
+        public void addLong(final long number) {
+            startValue();
+            value.addLong(number);
+            child.end();
+        }
+    }
+
+    /**
+     * Writes each entry of a list or map as a new row of a child table, with one column per entry field.
+     */
+    private final class ExplodedEntryConverter extends GroupConverter {
+        private final TablesawRecordConverter child;
+        private final PrimitiveConverter parentRow;
+
+        private ExplodedEntryConverter(final TablesawRecordConverter child) {
+            super();
+            this.child = child;
+            this.parentRow = child.getConverter(0).asPrimitiveConverter();
+        }
+
+        @Override
+        public Converter getConverter(final int fieldIndex) {
+            // the parent row index comes first in the child schema
+            return child.getConverter(fieldIndex + 1);
+        }
+
+        @Override
+        public void start() {
+            child.start();
+            parentRow.addInt(currentRowIndex());
+        }
+
+        @Override
+        public void end() {
+            child.end();
+        }
+    }
+
+    /**
+     * The LIST or MAP group around the repeated entries, which holds no value.
+     */
+    private static final class ExplodedGroupConverter extends GroupConverter {
+        private final Converter entries;
+
+        private ExplodedGroupConverter(final Converter entries) {
+            super();
+            this.entries = entries;
+        }
+
+        @Override
+        public Converter getConverter(final int fieldIndex) {
+            return entries;
+        }
+
+        @Override
+        public void start() {
+            // entries are written by the entry converter
+        }
+
+        @Override
+        public void end() {
+            // entries are written by the entry converter
+        }
+    }
+
+    /**
+     * Typed loop filling a column from a whole column chunk, see {@link TableProxy#readInts}.
+     */
+    @FunctionalInterface
+    private interface ColumnChunkReader {
+        void read(TableProxy proxy, ColumnReader columnReader, int rowCount);
+    }
 
     private static final long MILLIS_TO_MICRO = 1_000L;
 
     private static final long MILLIS_TO_NANOS = 1_000_000L;
 
     private final Converter[] converters;
-    private final TableProxy proxy;
+    // Typed loops by table column index, null when values are written through the converter
+    private final ColumnChunkReader[] columnChunkReaders;
+    // Converters of the child tables of exploded fields
+    private final TablesawRecordConverter[] children;
+    // Last child rows written before the current record, kept if the record is skipped
+    private final int[] childRowMarks;
+    // Whether the rows are whole records, rather than the rows of a child table
+    private final boolean records;
+    // Not final: replaced when decoding continues in a new table.
+    private TableProxy proxy;
+    // Whether the records read are discarded instead of added to the table
+    private boolean discardRecords = false;
 
     public TablesawRecordConverter(final Table table, final MessageType fileSchema,
         final TablesawParquetReadOptions options) {
+        this(table, fileSchema, options, Collections.emptyMap());
+    }
+
+    public TablesawRecordConverter(final Table table, final MessageType fileSchema,
+        final TablesawParquetReadOptions options, final Map<String, Table> childTables) {
+        this(table, fileSchema, options, childTables, true);
+    }
+
+    /**
+     * @param records whether the rows are whole records, rather than the rows of a child table
+     */
+    private TablesawRecordConverter(final Table table, final MessageType fileSchema,
+        final TablesawParquetReadOptions options, final Map<String, Table> childTables,
+        final boolean records) {
         super();
-        this.proxy = new TableProxy(table);
+        this.records = records;
+        this.proxy = TableProxy.create(table, records);
         this.converters = new Converter[fileSchema.getFieldCount()];
         final List<Column<?>> columns = table.columns();
         final int size = columns.size();
+        this.columnChunkReaders = new ColumnChunkReader[size];
         for (int i = 0; i < size; i++) {
             final Column<?> column = columns.get(i);
             final ColumnType columnType = column.type();
@@ -340,11 +553,36 @@ public class TablesawRecordConverter extends GroupConverter {
                     converters[fieldIndex] = new RepeatedAsTextConverter(i);
                 } else {
                     converters[fieldIndex] = createConverter(i, columnType, type, options);
+                    columnChunkReaders[i] = createColumnChunkReader(i, columnType, type.asPrimitiveType());
                 }
             } else {
-                converters[fieldIndex] = new GroupAsTextConverter(type.asGroupType(), i);
+                final int colIndex = i;
+                converters[fieldIndex] = new GroupTextConverter(type.asGroupType(),
+                    text -> proxy.appendString(colIndex, text));
             }
         }
+        this.children = new TablesawRecordConverter[childTables.size()];
+        this.childRowMarks = new int[childTables.size()];
+        int childIndex = 0;
+        for (final Table childTable : childTables.values()) {
+            final int fieldIndex = fileSchema.getFieldIndex(childTable.name());
+            final Type type = fileSchema.getType(fieldIndex);
+            final MessageType childSchema = TablesawReadSupport.explodedSchema(type)
+                .orElseThrow(() -> new IllegalStateException("Field " + type.getName() + " cannot be exploded"));
+            final TablesawRecordConverter child = new TablesawRecordConverter(childTable, childSchema, options,
+                Collections.emptyMap(), false);
+            children[childIndex++] = child;
+            converters[fieldIndex] = createExplodedConverter(type, child);
+        }
+    }
+
+    private Converter createExplodedConverter(final Type type, final TablesawRecordConverter child) {
+        if (type.isPrimitive()) {
+            return new ExplodedPrimitiveConverter(child);
+        }
+        final Type entryType = type.asGroupType().getType(0);
+        return new ExplodedGroupConverter(entryType.isPrimitive()
+            ? new ExplodedPrimitiveConverter(child) : new ExplodedEntryConverter(child));
     }
 
     private Converter createConverter(final int colIndex, final ColumnType columnType, final Type schemaType,
@@ -382,6 +620,14 @@ public class TablesawRecordConverter extends GroupConverter {
                 }
             };
         }
+        if (BinaryColumnType.instance().equals(columnType)) {
+            return new PrimitiveConverter() {
+                @Override
+                public void addBinary(final Binary value) {
+                    proxy.appendBinary(colIndex, value.toByteBuffer());
+                }
+            };
+        }
         if (ColumnType.STRING.equals(columnType)) {
             return Optional.ofNullable(schemaType.getLogicalTypeAnnotation())
                 .flatMap(a -> annotatedStringConverter(colIndex, a))
@@ -405,20 +651,20 @@ public class TablesawRecordConverter extends GroupConverter {
         if (ColumnType.LOCAL_DATE_TIME.equals(columnType)) {
             return Optional.ofNullable(schemaType.getLogicalTypeAnnotation())
                 .flatMap(a -> annotatedDateTimeConverter(colIndex, a))
-                .orElseGet(() -> new DateTimePrimitiveConverter(colIndex, SECOND_TO_MILLIS, MILLIS_TO_NANOS));
+                .orElseGet(() -> new DateTimePrimitiveConverter(colIndex, 1L));
         }
         if (ColumnType.LOCAL_DATE.equals(columnType)) {
             return new PrimitiveConverter() {
                 @Override
                 public void addInt(final int value) {
-                    proxy.appendDate(colIndex, LocalDate.ofEpochDay(value));
+                    proxy.appendPackedDate(colIndex, PackedDateTimes.packEpochDay(value));
                 }
             };
         }
         if (ColumnType.LOCAL_TIME.equals(columnType)) {
             return Optional.ofNullable(schemaType.getLogicalTypeAnnotation())
                 .flatMap(a -> annotatedTimeConverter(colIndex, a))
-                .orElseGet(() -> new TimePrimitiveConverter(colIndex, 1L));
+                .orElseGet(() -> new TimePrimitiveConverter(colIndex, MILLIS_TO_NANOS));
         }
         if (ColumnType.SHORT.equals(columnType)) {
             return new PrimitiveConverter() {
@@ -431,17 +677,79 @@ public class TablesawRecordConverter extends GroupConverter {
         return null;
     }
 
+    /**
+     * Mirrors {@link #createConverter} for the flat primitive types that can be read without a converter.
+     * @return the typed loop for this column, or null if values must go through the converter
+     */
+    private static ColumnChunkReader createColumnChunkReader(final int colIndex, final ColumnType columnType,
+            final PrimitiveType schemaType) {
+        final PrimitiveTypeName typeName = schemaType.getPrimitiveTypeName();
+        final LogicalTypeAnnotation annotation = schemaType.getLogicalTypeAnnotation();
+        if (ColumnType.INTEGER.equals(columnType) && typeName == PrimitiveTypeName.INT32) {
+            return (proxy, reader, rowCount) -> proxy.readInts(colIndex, reader, rowCount);
+        }
+        if (ColumnType.SHORT.equals(columnType) && typeName == PrimitiveTypeName.INT32) {
+            return (proxy, reader, rowCount) -> proxy.readShorts(colIndex, reader, rowCount);
+        }
+        if (ColumnType.LONG.equals(columnType)
+                && (typeName == PrimitiveTypeName.INT32 || typeName == PrimitiveTypeName.INT64)) {
+            return (proxy, reader, rowCount) -> proxy.readLongs(colIndex, reader, rowCount);
+        }
+        if (ColumnType.FLOAT.equals(columnType) && typeName == PrimitiveTypeName.FLOAT) {
+            return (proxy, reader, rowCount) -> proxy.readFloats(colIndex, reader, rowCount);
+        }
+        if (ColumnType.DOUBLE.equals(columnType)
+                && (typeName == PrimitiveTypeName.FLOAT || typeName == PrimitiveTypeName.DOUBLE)) {
+            return (proxy, reader, rowCount) -> proxy.readDoubles(colIndex, reader, rowCount);
+        }
+        if (ColumnType.BOOLEAN.equals(columnType) && typeName == PrimitiveTypeName.BOOLEAN) {
+            return (proxy, reader, rowCount) -> proxy.readBooleans(colIndex, reader, rowCount);
+        }
+        if (ColumnType.LOCAL_DATE.equals(columnType) && typeName == PrimitiveTypeName.INT32) {
+            return (proxy, reader, rowCount) -> proxy.readEpochDays(colIndex, reader, rowCount);
+        }
+        if (ColumnType.LOCAL_TIME.equals(columnType)
+                && (typeName == PrimitiveTypeName.INT32 || typeName == PrimitiveTypeName.INT64)) {
+            final long unitsPerMilli = annotation instanceof TimeLogicalTypeAnnotation
+                ? unitsPerMilli(((TimeLogicalTypeAnnotation) annotation).getUnit()) : MILLIS_TO_NANOS;
+            return (proxy, reader, rowCount) -> proxy.readTimes(colIndex, reader, rowCount, unitsPerMilli);
+        }
+        if (typeName == PrimitiveTypeName.INT64
+                && (ColumnType.LOCAL_DATE_TIME.equals(columnType) || ColumnType.INSTANT.equals(columnType))) {
+            final long unitsPerMilli = annotation instanceof TimestampLogicalTypeAnnotation
+                ? unitsPerMilli(((TimestampLogicalTypeAnnotation) annotation).getUnit()) : 1L;
+            return ColumnType.INSTANT.equals(columnType)
+                ? (proxy, reader, rowCount) -> proxy.readInstants(colIndex, reader, rowCount, unitsPerMilli)
+                : (proxy, reader, rowCount) -> proxy.readDateTimes(colIndex, reader, rowCount, unitsPerMilli);
+        }
+        return null;
+    }
+
+    private static long unitsPerMilli(final LogicalTypeAnnotation.TimeUnit unit) {
+        switch (unit) {
+            case MILLIS:
+                return 1L;
+            case MICROS:
+                return MILLIS_TO_MICRO;
+            case NANOS:
+                return MILLIS_TO_NANOS;
+            default:
+                throw new UnsupportedOperationException(
+                    "This should never happen: TimeUnit is neither MILLIS, MICROS or NANOS");
+        }
+    }
+
     private Optional<Converter> annotatedDateTimeConverter(final int colIndex, final LogicalTypeAnnotation annotation) {
         return annotation.accept(new LogicalTypeAnnotationVisitor<Converter>() {
             @Override
             public Optional<Converter> visit(final TimestampLogicalTypeAnnotation timestampLogicalType) {
                 switch (timestampLogicalType.getUnit()) {
                     case MILLIS:
-                        return Optional.of(new DateTimePrimitiveConverter(colIndex, SECOND_TO_MILLIS, MILLIS_TO_NANOS));
+                        return Optional.of(new DateTimePrimitiveConverter(colIndex, 1L));
                     case MICROS:
-                        return Optional.of(new DateTimePrimitiveConverter(colIndex, SECOND_TO_MICROS, MICROS_TO_NANOS));
+                        return Optional.of(new DateTimePrimitiveConverter(colIndex, MILLIS_TO_MICRO));
                     case NANOS:
-                        return Optional.of(new DateTimePrimitiveConverter(colIndex, SECOND_TO_NANOS, 1L));
+                        return Optional.of(new DateTimePrimitiveConverter(colIndex, MILLIS_TO_NANOS));
                     default:
                         throw new UnsupportedOperationException(
                             "This should never happen: TimeUnit is neither MILLIS, MICROS or NANOS in DateTime");
@@ -456,11 +764,11 @@ public class TablesawRecordConverter extends GroupConverter {
             public Optional<Converter> visit(final TimeLogicalTypeAnnotation timeLogicalType) {
                 switch (timeLogicalType.getUnit()) {
                     case MILLIS:
-                        return Optional.of(new TimePrimitiveConverter(colIndex, MILLIS_TO_NANOS));
+                        return Optional.of(new TimePrimitiveConverter(colIndex, 1L));
                     case MICROS:
-                        return Optional.of(new TimePrimitiveConverter(colIndex, MICROS_TO_NANOS));
+                        return Optional.of(new TimePrimitiveConverter(colIndex, MILLIS_TO_MICRO));
                     case NANOS:
-                        return Optional.of(new TimePrimitiveConverter(colIndex, 1L));
+                        return Optional.of(new TimePrimitiveConverter(colIndex, MILLIS_TO_NANOS));
                     default:
                         throw new UnsupportedOperationException(
                             "This should never happen: TimeUnit is neither MICROS or NANOS in Int64 Time");
@@ -478,10 +786,10 @@ public class TablesawRecordConverter extends GroupConverter {
                         return Optional.of(new MillisInstantPrimitiveConverter(colIndex));
                     case MICROS:
                         return Optional.of(
-                            new SubMillisInstantPrimitiveConverter(colIndex, MILLIS_TO_MICRO, ChronoUnit.MICROS));
+                            new SubMillisInstantPrimitiveConverter(colIndex, MILLIS_TO_MICRO));
                     case NANOS:
                         return Optional.of(
-                            new SubMillisInstantPrimitiveConverter(colIndex, MILLIS_TO_NANOS, ChronoUnit.NANOS));
+                            new SubMillisInstantPrimitiveConverter(colIndex, MILLIS_TO_NANOS));
                     default:
                         throw new UnsupportedOperationException(
                             "This should never happen: TimeUnit is neither MILLIS, MICROS or NANOS in Timestamp");
@@ -585,19 +893,19 @@ public class TablesawRecordConverter extends GroupConverter {
         return annotation.accept(new LogicalTypeAnnotationVisitor<Converter>() {
             @Override
             public Optional<Converter> visit(final DecimalLogicalTypeAnnotation decimalLogicalType) {
+                final int scale = decimalLogicalType.getScale();
                 return Optional.of(new PrimitiveConverter() {
                     @Override
                     public void addBinary(final Binary value) {
-                        final BigDecimal bigd = new BigDecimal(new BigInteger(value.getBytes()), decimalLogicalType.getScale());
-                        proxy.appendDouble(colIndex, bigd.doubleValue());
+                        proxy.appendDouble(colIndex, Decimals.toDouble(value, scale));
                     }
                     @Override
                     public void addInt(final int value) {
-                        proxy.appendDouble(colIndex, BigDecimal.valueOf(value, decimalLogicalType.getScale()).doubleValue());
+                        proxy.appendDouble(colIndex, Decimals.toDouble(value, scale));
                     }
                     @Override
-                    public void addLong(long value) {
-                        proxy.appendDouble(colIndex, BigDecimal.valueOf(value, decimalLogicalType.getScale()).doubleValue());
+                    public void addLong(final long value) {
+                        proxy.appendDouble(colIndex, Decimals.toDouble(value, scale));
                     }
                 });
             }
@@ -617,19 +925,19 @@ public class TablesawRecordConverter extends GroupConverter {
         return annotation.accept(new LogicalTypeAnnotationVisitor<Converter>() {
             @Override
             public Optional<Converter> visit(final DecimalLogicalTypeAnnotation decimalLogicalType) {
+                final int scale = decimalLogicalType.getScale();
                 return Optional.of(new PrimitiveConverter() {
                     @Override
                     public void addBinary(final Binary value) {
-                        final BigDecimal bigd = new BigDecimal(new BigInteger(value.getBytes()), decimalLogicalType.getScale());
-                        proxy.appendFloat(colIndex, bigd.floatValue());
+                        proxy.appendFloat(colIndex, Decimals.toFloat(value, scale));
                     }
                     @Override
                     public void addInt(final int value) {
-                        proxy.appendFloat(colIndex, BigDecimal.valueOf(value, decimalLogicalType.getScale()).floatValue());
+                        proxy.appendFloat(colIndex, Decimals.toFloat(value, scale));
                     }
                     @Override
-                    public void addLong(long value) {
-                        proxy.appendFloat(colIndex, BigDecimal.valueOf(value, decimalLogicalType.getScale()).floatValue());
+                    public void addLong(final long value) {
+                        proxy.appendFloat(colIndex, Decimals.toFloat(value, scale));
                     }
                 });
             }
@@ -665,6 +973,62 @@ public class TablesawRecordConverter extends GroupConverter {
         return String.join(" ", hexBytes);
     }
 
+    /**
+     * Starts reading the column chunks of a row group of a flat schema, bypassing record assembly.
+     * {@link #readColumn(int, ColumnReader, int)} must then be called for each column,
+     * and {@link #endColumns(int)} once all the column chunks are read.
+     * @param rowCount the number of rows in the row group
+     */
+    void startColumns(final int rowCount) {
+        proxy.startColumns(rowCount);
+    }
+
+    /**
+     * Reads a whole column chunk of a flat schema.
+     * Flat primitive types are filled in a typed loop,
+     * other values are written through the converter bound to the column reader.
+     * @param colIndex the column index in the table
+     * @param columnReader the column reader for this column chunk
+     * @param rowCount the number of rows in the column chunk
+     */
+    void readColumn(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        final ColumnChunkReader columnChunkReader = columnChunkReaders[colIndex];
+        if (columnChunkReader != null) {
+            columnChunkReader.read(proxy, columnReader, rowCount);
+            return;
+        }
+        final int maxDefinitionLevel = columnReader.getDescriptor().getMaxDefinitionLevel();
+        proxy.startColumn();
+        for (int i = 0; i < rowCount; i++) {
+            proxy.nextColumnRow();
+            // rows are allocated with missing values: nothing to do for null values
+            if (columnReader.getCurrentDefinitionLevel() == maxDefinitionLevel) {
+                columnReader.writeCurrentValueToConverter();
+            }
+            columnReader.consume();
+        }
+    }
+
+    void endColumns(final int rowCount) {
+        proxy.endColumns(rowCount);
+    }
+
+    void appendTable(final Table partialTable) {
+        proxy.appendTable(partialTable);
+    }
+
+    /**
+     * Continues decoding in a new table with the same columns.
+     * Must only be called between records or blocks of rows.
+     * @param newTable the new table
+     */
+    void switchTable(final Table newTable) {
+        proxy = TableProxy.create(newTable, records);
+        for (final TablesawRecordConverter child : children) {
+            child.switchTable(child.getTable().emptyCopy());
+        }
+    }
+
     @Override
     public Converter getConverter(final int fieldIndex) {
         return converters[fieldIndex];
@@ -673,6 +1037,9 @@ public class TablesawRecordConverter extends GroupConverter {
     @Override
     public void start() {
         proxy.startRow();
+        for (int i = 0; i < children.length; i++) {
+            childRowMarks[i] = children[i].proxy.currentRowIndex();
+        }
     }
 
     @Override
@@ -680,16 +1047,43 @@ public class TablesawRecordConverter extends GroupConverter {
         proxy.endRow();
     }
 
+    /**
+     * Discards the records read from now on, or stops discarding them.
+     * Discarded records are decoded, then skipped as if rejected by the record filter.
+     * @param discard whether to discard the records
+     */
+    void discardRecords(final boolean discard) {
+        this.discardRecords = discard;
+    }
+
     public Row getCurrentRow() {
-        return proxy.getCurrentRow();
+        // null makes the record reader skip the record
+        return discardRecords ? null : proxy.getCurrentRow();
     }
 
     public void skipCurrentRecord() {
+        // the values of the rejected record are dropped, or its row overwritten by the next record
         proxy.skipCurrentRow();
+        for (int i = 0; i < children.length; i++) {
+            children[i].proxy.skipRowsAfter(childRowMarks[i]);
+        }
     }
     
     public Table getTable() {
         return proxy.getTable();
     }
 
+    private int currentRowIndex() {
+        return proxy.currentRowIndex();
+    }
+
+    public Map<String, Table> getChildTables() {
+        final Map<String, Table> childTables = new LinkedHashMap<>();
+        for (final TablesawRecordConverter child : children) {
+            final Table childTable = child.getTable();
+            childTables.put(childTable.name(), childTable);
+        }
+        return childTables;
+    }
+
 }
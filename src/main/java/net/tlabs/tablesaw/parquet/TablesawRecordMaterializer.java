@@ -20,6 +20,10 @@ package net.tlabs.tablesaw.parquet;
  * #L%
  */
 
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.parquet.column.ColumnReader;
 import org.apache.parquet.io.api.GroupConverter;
 import org.apache.parquet.io.api.RecordMaterializer;
 import org.apache.parquet.schema.MessageType;
@@ -32,8 +36,13 @@ public class TablesawRecordMaterializer extends RecordMaterializer<Row> {
 
     public TablesawRecordMaterializer(final Table table, final MessageType fileSchema,
             final TablesawParquetReadOptions options) {
+        this(table, fileSchema, options, Collections.emptyMap());
+    }
+
+    public TablesawRecordMaterializer(final Table table, final MessageType fileSchema,
+            final TablesawParquetReadOptions options, final Map<String, Table> childTables) {
         super();
-        this.recordConverter = new TablesawRecordConverter(table, fileSchema, options);
+        this.recordConverter = new TablesawRecordConverter(table, fileSchema, options, childTables);
     }
 
     @Override
@@ -51,7 +60,35 @@ public class TablesawRecordMaterializer extends RecordMaterializer<Row> {
         recordConverter.skipCurrentRecord();
     }
 
+    void startColumns(final int rowCount) {
+        recordConverter.startColumns(rowCount);
+    }
+
+    void readColumn(final int colIndex, final ColumnReader columnReader, final int rowCount) {
+        recordConverter.readColumn(colIndex, columnReader, rowCount);
+    }
+
+    void endColumns(final int rowCount) {
+        recordConverter.endColumns(rowCount);
+    }
+
+    void appendTable(final Table partialTable) {
+        recordConverter.appendTable(partialTable);
+    }
+
+    void discardRecords(final boolean discard) {
+        recordConverter.discardRecords(discard);
+    }
+
+    void switchTable(final Table newTable) {
+        recordConverter.switchTable(newTable);
+    }
+
     public Table getTable() {
         return recordConverter.getTable();
     }
+
+    public Map<String, Table> getChildTables() {
+        return recordConverter.getChildTables();
+    }
 }
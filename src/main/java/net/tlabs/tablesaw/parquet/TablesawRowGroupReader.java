@@ -0,0 +1,451 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ColumnReader;
+import org.apache.parquet.column.impl.ColumnReadStoreImpl;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.conf.ParquetConfiguration;
+import org.apache.parquet.filter.PagedRecordFilter;
+import org.apache.parquet.filter2.columnindex.RowRanges;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.compat.FilterCompat.Filter;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport.ReadContext;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.RecordReader;
+import org.apache.parquet.schema.MessageType;
+import tech.tablesaw.api.Row;
+import tech.tablesaw.api.Table;
+
+/**
+ * Decodes the row groups of a parquet file in the table created by a {@link TablesawReadSupport}.
+ * Flat schemas (non-repeated primitive fields only) read without record filter are decoded
+ * column chunk by column chunk, bypassing the parquet record assembly.
+ * Other schemas and filtered reads go through the parquet record assembly.
+ * Ranges of row groups can also be decoded in partial tables, each with its own file reader,
+ * for concurrent reads, and row groups can be decoded in several batches of rows for streaming reads.
+ */
+final class TablesawRowGroupReader {
+
+    private final TablesawReadSupport readSupport;
+    private final MessageType fileSchema;
+    private final MessageType requestedSchema;
+    private final List<ColumnDescriptor> columns;
+    private final String createdBy;
+    private final MessageColumnIO columnIO;
+    private final Filter recordFilter;
+    private final boolean recordFiltering;
+    private final boolean columnChunkDecoding;
+    private final TablesawRecordMaterializer materializer;
+    private final TablesawParquetFilterReport.Counter filterCounter;
+
+    /**
+     * Creates the reader and initializes the read support with the file schema.
+     * @param fileReader the file reader
+     * @param readSupport the read support creating the table
+     * @param configuration the parquet configuration
+     * @param recordFilter the record filter
+     * @param expectedRowCount the number of rows to read, to allocate the table for without record filter
+     * @param filterCounter the counter of the filter report, or null
+     */
+    TablesawRowGroupReader(final ParquetFileReader fileReader, final TablesawReadSupport readSupport,
+            final ParquetConfiguration configuration, final Filter recordFilter, final long expectedRowCount,
+            final TablesawParquetFilterReport.Counter filterCounter) {
+        super();
+        final FileMetaData fileMetaData = fileReader.getFileMetaData();
+        this.readSupport = readSupport;
+        this.fileSchema = fileMetaData.getSchema();
+        final Map<String, String> keyValueMetaData = fileMetaData.getKeyValueMetaData();
+        final ReadContext readContext = readSupport.init(
+            new InitContext(configuration, toSetMultiMap(keyValueMetaData), fileSchema));
+        this.requestedSchema = readContext.getRequestedSchema();
+        fileReader.setRequestedSchema(requestedSchema);
+        this.columns = requestedSchema.getColumns();
+        this.createdBy = fileMetaData.getCreatedBy();
+        this.columnIO = new ColumnIOFactory(createdBy).getColumnIO(requestedSchema, fileSchema, true);
+        this.recordFilter = recordFilter;
+        this.recordFiltering = FilterCompat.isFilteringRequired(recordFilter);
+        this.columnChunkDecoding = readSupport.isFlatSchema() && !recordFiltering;
+        // the row count is only an upper bound with a record filter: the table grows with the accepted records
+        if (!recordFiltering && expectedRowCount <= Integer.MAX_VALUE) {
+            readSupport.presize((int) expectedRowCount);
+        }
+        this.materializer = readSupport.prepareForRead(configuration, keyValueMetaData, fileSchema, readContext);
+        this.filterCounter = filterCounter;
+    }
+
+    boolean isColumnChunkDecoding() {
+        return columnChunkDecoding;
+    }
+
+    /**
+     * Reads the next row group left by the filters, counting it and the row groups passed over
+     * for the filter report.
+     * @param fileReader the file reader
+     * @return the row group pages, or null after the last row group
+     * @throws IOException if the row group cannot be read
+     */
+    PageReadStore readNextRowGroup(final ParquetFileReader fileReader) throws IOException {
+        final int previousIndex = fileReader.getCurrentRowGroupIndex();
+        final PageReadStore rowGroup = fileReader.readNextFilteredRowGroup();
+        if (filterCounter != null) {
+            final int rowGroupIndex = rowGroup == null
+                ? fileReader.getRowGroups().size()
+                : fileReader.getCurrentRowGroupIndex();
+            for (int skippedIndex = previousIndex + 1; skippedIndex < rowGroupIndex; skippedIndex++) {
+                filterCounter.rowGroupNotRead(fileReader, skippedIndex);
+            }
+            if (rowGroup != null) {
+                countRowGroup(fileReader, rowGroupIndex, rowGroup, null);
+            }
+        }
+        return rowGroup;
+    }
+
+    /**
+     * Counts a row group for the filter report.
+     * @param rowGroup the row group pages, or null if the row group was not read
+     * @param rowRanges the rows read, or null for the rows left by the column index filter
+     */
+    private void countRowGroup(final ParquetFileReader fileReader, final int rowGroupIndex,
+            final PageReadStore rowGroup, final RowRanges rowRanges) {
+        if (filterCounter == null) {
+            return;
+        }
+        if (rowGroup == null) {
+            filterCounter.rowGroupNotRead(fileReader, rowGroupIndex);
+        } else {
+            filterCounter.rowGroupRead(fileReader, rowGroupIndex,
+                rowRanges == null ? filterCounter.getFilteredRowRanges(fileReader, rowGroupIndex) : rowRanges,
+                columns);
+        }
+    }
+
+    /**
+     * Sends the filter report, if any, once the read ends.
+     */
+    void reportFilters() {
+        if (filterCounter != null) {
+            filterCounter.report();
+        }
+    }
+
+    /**
+     * Decodes a row group in the table.
+     * @param rowGroup the row group pages
+     * @return the number of rows added to the table
+     */
+    long readRowGroup(final PageReadStore rowGroup) {
+        return readRowGroup(rowGroup, materializer, columnIO);
+    }
+
+    /**
+     * Decodes a range of rows of the file in the table, skipping the row groups outside the range,
+     * until enough rows pass the record filter.
+     * @param fileReader the file reader, before any row group is read
+     * @param fromRow the index of the first row of the range in the file (inclusive)
+     * @param toRow the index of the last row of the range in the file (exclusive)
+     * @param maxRows the maximum number of rows to add to the table
+     * @return the number of rows added to the table
+     * @throws IOException if the row groups cannot be read
+     * @see #openRows
+     */
+    long readRows(final ParquetFileReader fileReader, final long fromRow, final long toRow, final long maxRows)
+            throws IOException {
+        final int rowGroupCount = fileReader.getRowGroups().size();
+        long readRows = 0;
+        for (int rowGroupIndex = 0; readRows < maxRows && rowGroupIndex < rowGroupCount; rowGroupIndex++) {
+            final long remainingRows = maxRows - readRows;
+            try (final RowGroupCursor cursor = openRows(fileReader, rowGroupIndex, fromRow, toRow, remainingRows)) {
+                if (cursor != null) {
+                    readRows += cursor.read((int) Math.min(remainingRows, Integer.MAX_VALUE));
+                }
+            }
+        }
+        return readRows;
+    }
+
+    /**
+     * Opens the rows of a row group within a range of rows of the file for decoding.
+     * Only the pages overlapping the range are read from the row groups with offset indexes.
+     * The other row groups are read whole, and the rows outside the range skipped while decoding.
+     * With a record filter, the rows before the range are decoded and discarded instead,
+     * so that the filter sees each record.
+     * Without record filter, at most {@code maxRows} rows are read.
+     * The returned cursor must be closed, which also closes the row group.
+     * @param fileReader the file reader
+     * @param rowGroupIndex the index of the row group in the file reader
+     * @param fromRow the index of the first row of the range in the file (inclusive)
+     * @param toRow the index of the last row of the range in the file (exclusive)
+     * @param maxRows the maximum number of rows to read
+     * @return the cursor over the rows, or null if no row of the row group is in the range
+     *     or left by the column index filter
+     * @throws IOException if the row group cannot be read
+     */
+    RowGroupCursor openRows(final ParquetFileReader fileReader, final int rowGroupIndex, final long fromRow,
+            final long toRow, final long maxRows) throws IOException {
+        final BlockMetaData block = fileReader.getRowGroups().get(rowGroupIndex);
+        // range of the rows to read in the row group, inclusive
+        final long first = Math.max(fromRow - block.getRowIndexOffset(), 0);
+        long last = Math.min(toRow - block.getRowIndexOffset(), block.getRowCount()) - 1;
+        if (!recordFiltering && last - first >= maxRows) {
+            last = first + maxRows - 1;
+        }
+        if (first > last) {
+            return null;
+        }
+        final PageReadStore rowGroup;
+        if (first == 0 && last == block.getRowCount() - 1) {
+            rowGroup = fileReader.readFilteredRowGroup(rowGroupIndex);
+            countRowGroup(fileReader, rowGroupIndex, rowGroup, null);
+            // null if all rows are filtered out by the column indexes
+            return rowGroup == null ? null : new RowGroupCursor(rowGroup, materializer, columnIO);
+        }
+        if (hasOffsetIndexes(block)) {
+            final RowRanges range = RowRanges.builder().addSelectedRange(first, last).build();
+            final RowRanges rowRanges = recordFiltering
+                ? RowRanges.intersection(range, fileReader.getRowRanges(rowGroupIndex))
+                : range;
+            rowGroup = fileReader.readFilteredRowGroup(rowGroupIndex, rowRanges);
+            countRowGroup(fileReader, rowGroupIndex, rowGroup, rowRanges);
+            return rowGroup == null ? null : new RowGroupCursor(rowGroup, materializer, columnIO);
+        }
+        if (recordFiltering) {
+            // read all the pages so that the records keep their position in the row group
+            rowGroup = fileReader.readRowGroup(rowGroupIndex);
+            countRowGroup(fileReader, rowGroupIndex, rowGroup, RowRanges.createSingle(block.getRowCount()));
+            return new RowGroupCursor(rowGroup, materializer, columnIO, false, recordFilter, first, last + 1);
+        }
+        rowGroup = fileReader.readFilteredRowGroup(rowGroupIndex);
+        countRowGroup(fileReader, rowGroupIndex, rowGroup, RowRanges.createSingle(block.getRowCount()));
+        // the paged record filter counts records from 1
+        return new RowGroupCursor(rowGroup, materializer, columnIO, false,
+            FilterCompat.get(PagedRecordFilter.page(first + 1, last - first + 1)), 0, last - first + 1);
+    }
+
+    private static boolean hasOffsetIndexes(final BlockMetaData block) {
+        return block.getColumns().stream().allMatch(column -> column.getOffsetIndexReference() != null);
+    }
+
+    /**
+     * Continues decoding in a new empty table, allocated for the given number of rows without record filter.
+     * @param rowCount the number of rows to read in the new table
+     */
+    void startNewTable(final int rowCount) {
+        materializer.switchTable(readSupport.createEmptyTable(recordFiltering ? 0 : rowCount));
+    }
+
+    /**
+     * Returns the table currently decoded.
+     * @return the table
+     */
+    Table getTable() {
+        return materializer.getTable();
+    }
+
+    /**
+     * Creates a materializer on a new partial table, to be used with {@link #readPartialTable}.
+     * Must be called from the thread driving the read.
+     * @param fileReader the file reader of the whole file
+     * @param fromRowGroup the index of the first row group of the part (inclusive)
+     * @param toRowGroup the index of the last row group of the part (exclusive)
+     * @return a materializer on an empty copy of the table, allocated for the rows of the part
+     *     without record filter
+     */
+    TablesawRecordMaterializer createPartialMaterializer(final ParquetFileReader fileReader,
+            final int fromRowGroup, final int toRowGroup) {
+        final long rowCount = recordFiltering ? 0 : fileReader.getRowGroups().subList(fromRowGroup, toRowGroup)
+            .stream()
+            .mapToLong(BlockMetaData::getRowCount)
+            .sum();
+        return readSupport.createPartialMaterializer(requestedSchema, (int) Math.min(rowCount, Integer.MAX_VALUE));
+    }
+
+    /**
+     * Appends a partial table returned by {@link #readPartialTable} to the table being read.
+     * @param partialTable the partial table
+     */
+    void appendPartialTable(final Table partialTable) {
+        materializer.appendTable(partialTable);
+    }
+
+    /**
+     * Decodes a range of row groups in a partial table.
+     * Does not share any decoding state with this reader, so that several ranges can be decoded concurrently.
+     * @param partReader a file reader opened on the same file with the same options, owned by the caller
+     * @param partMaterializer a materializer created by {@link #createPartialMaterializer}
+     * @param fromRowGroup the index of the first row group to decode (inclusive)
+     * @param toRowGroup the index of the last row group to decode (exclusive)
+     * @return the partial table, with the same columns as the table being read
+     * @throws IOException if the row groups cannot be read
+     */
+    Table readPartialTable(final ParquetFileReader partReader, final TablesawRecordMaterializer partMaterializer,
+            final int fromRowGroup, final int toRowGroup) throws IOException {
+        partReader.setRequestedSchema(requestedSchema);
+        final MessageColumnIO partColumnIO = new ColumnIOFactory(createdBy)
+            .getColumnIO(requestedSchema, fileSchema, true);
+        for (int rowGroupIndex = fromRowGroup; rowGroupIndex < toRowGroup; rowGroupIndex++) {
+            if (partReader.getRowGroups().get(rowGroupIndex).getRowCount() == 0) {
+                continue;
+            }
+            final PageReadStore rowGroup = partReader.readFilteredRowGroup(rowGroupIndex);
+            countRowGroup(partReader, rowGroupIndex, rowGroup, null);
+            if (rowGroup == null) {
+                // all rows filtered out by the column indexes
+                continue;
+            }
+            readRowGroup(rowGroup, partMaterializer, partColumnIO);
+        }
+        return partMaterializer.getTable();
+    }
+
+    private long readRowGroup(final PageReadStore rowGroup, final TablesawRecordMaterializer materializer,
+            final MessageColumnIO columnIO) {
+        try (final RowGroupCursor cursor = new RowGroupCursor(rowGroup, materializer, columnIO)) {
+            return cursor.read(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Cursor over the rows of a row group, decoding them on demand.
+     * Column chunk decoding reads the same number of values from each column reader,
+     * record assembly reads records until enough of them pass the record filter.
+     */
+    final class RowGroupCursor implements Closeable {
+        private final PageReadStore rowGroup;
+        private final TablesawRecordMaterializer materializer;
+        private final long skippedRows;
+        private final long rowCount;
+        private final ColumnReader[] columnReaders;
+        private final RecordReader<Row> recordReader;
+        private long consumedRows = 0;
+
+        private RowGroupCursor(final PageReadStore rowGroup, final TablesawRecordMaterializer materializer,
+                final MessageColumnIO columnIO) {
+            this(rowGroup, materializer, columnIO, columnChunkDecoding, recordFilter, 0, rowGroup.getRowCount());
+        }
+
+        /**
+         * @param skippedRows the number of leading records decoded and discarded
+         * @param rowCount the number of records returned by the record reader, skipped records included
+         */
+        private RowGroupCursor(final PageReadStore rowGroup, final TablesawRecordMaterializer materializer,
+                final MessageColumnIO columnIO, final boolean decodeColumnChunks, final Filter filter,
+                final long skippedRows, final long rowCount) {
+            super();
+            this.rowGroup = rowGroup;
+            this.materializer = materializer;
+            this.skippedRows = skippedRows;
+            this.rowCount = rowCount;
+            if (decodeColumnChunks) {
+                final ColumnReadStoreImpl columnReadStore = new ColumnReadStoreImpl(rowGroup,
+                    materializer.getRootConverter(), requestedSchema, createdBy);
+                this.columnReaders = new ColumnReader[columns.size()];
+                for (int colIndex = 0; colIndex < columnReaders.length; colIndex++) {
+                    columnReaders[colIndex] = columnReadStore.getColumnReader(columns.get(colIndex));
+                }
+                this.recordReader = null;
+            } else {
+                this.columnReaders = null;
+                this.recordReader = columnIO.getRecordReader(rowGroup, materializer, filter);
+            }
+        }
+
+        boolean hasMoreRows() {
+            return consumedRows < rowCount;
+        }
+
+        /**
+         * @return the number of rows of the row group to decode, before the record filter is applied
+         */
+        long getRowCount() {
+            return rowCount - skippedRows;
+        }
+
+        /**
+         * Decodes rows in the materializer table.
+         * @param maxRows the maximum number of rows to add to the table
+         * @return the number of rows added to the table
+         */
+        int read(final int maxRows) {
+            return columnReaders != null ? readColumnChunks(maxRows) : readRecords(maxRows);
+        }
+
+        private int readColumnChunks(final int maxRows) {
+            final int readRows = (int) Math.min(maxRows, rowCount - consumedRows);
+            materializer.startColumns(readRows);
+            for (int colIndex = 0; colIndex < columnReaders.length; colIndex++) {
+                materializer.readColumn(colIndex, columnReaders[colIndex], readRows);
+            }
+            materializer.endColumns(readRows);
+            consumedRows += readRows;
+            return readRows;
+        }
+
+        private int readRecords(final int maxRows) {
+            int readRows = 0;
+            while (readRows < maxRows && consumedRows < rowCount) {
+                // the leading records are decoded to keep the position of the records, then discarded
+                materializer.discardRecords(consumedRows < skippedRows);
+                final Row row = recordReader.read();
+                consumedRows++;
+                if (recordReader.shouldSkipCurrentRecord()) {
+                    continue;
+                }
+                if (row == null) {
+                    // filtered record reader reached end of block
+                    consumedRows = rowCount;
+                    break;
+                }
+                readRows++;
+            }
+            return readRows;
+        }
+
+        @Override
+        public void close() {
+            rowGroup.close();
+        }
+    }
+
+    static Map<String, Set<String>> toSetMultiMap(final Map<String, String> map) {
+        final Map<String, Set<String>> setMultiMap = new HashMap<>();
+        for (final Entry<String, String> entry : map.entrySet()) {
+            setMultiMap.put(entry.getKey(), Collections.singleton(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(setMultiMap);
+    }
+}
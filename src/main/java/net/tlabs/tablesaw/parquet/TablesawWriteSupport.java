@@ -30,6 +30,7 @@ import java.util.stream.Collectors;
 import java.util.UUID;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.conf.ParquetConfiguration;
 import org.apache.parquet.hadoop.api.WriteSupport;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.io.api.RecordConsumer;
@@ -122,6 +123,13 @@ public class TablesawWriteSupport extends WriteSupport<Row> {
                 recordConsumer.addBinary(Binary.fromString(tableProxy.getString(colIndex, rowNumber)));
             }
         },
+        BINARY(BinaryColumnType.instance()) {
+            @Override
+            void recordValue(final RecordConsumer recordConsumer, final TableProxy tableProxy,
+                    final int colIndex, final int rowNumber) {
+                recordConsumer.addBinary(tableProxy.getBinary(colIndex, rowNumber));
+            }
+        },
         UUID(ColumnType.STRING) {
             private final ByteBuffer buffer = ByteBuffer.allocateDirect(UUIDLogicalTypeAnnotation.BYTES);
             @Override
@@ -247,6 +255,7 @@ public class TablesawWriteSupport extends WriteSupport<Row> {
         PRIMITIVE_MAPPING.put(ColumnType.LOCAL_TIME, PrimitiveTypeName.INT32);
         PRIMITIVE_MAPPING.put(ColumnType.LOCAL_DATE_TIME, PrimitiveTypeName.INT64);
         PRIMITIVE_MAPPING.put(ColumnType.STRING, PrimitiveTypeName.BINARY);
+        PRIMITIVE_MAPPING.put(BinaryColumnType.instance(), PrimitiveTypeName.BINARY);
         ANNOTATION_MAPPING = new HashMap<>();
         ANNOTATION_MAPPING.put(ColumnType.SHORT, LogicalTypeAnnotation.intType(16, true));
         ANNOTATION_MAPPING.put(ColumnType.LOCAL_DATE, LogicalTypeAnnotation.dateType());
@@ -266,6 +275,7 @@ public class TablesawWriteSupport extends WriteSupport<Row> {
         RECORDER_MAPPING.put(ColumnType.LOCAL_DATE_TIME, FieldRecorder.LOCAL_DATE_TIME);
         RECORDER_MAPPING.put(ColumnType.INSTANT, FieldRecorder.INSTANT);
         RECORDER_MAPPING.put(ColumnType.STRING, FieldRecorder.STRING);
+        RECORDER_MAPPING.put(BinaryColumnType.instance(), FieldRecorder.BINARY);
         LOGICALTYPE_MAPPING = new HashMap<>();
         LOGICALTYPE_MAPPING.put(LogicalTypeAnnotation.uuidType(), PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY);
         LOGICALTYPE_MAPPING.put(LogicalTypeAnnotation.enumType(), PrimitiveTypeName.BINARY);
@@ -341,6 +351,11 @@ public class TablesawWriteSupport extends WriteSupport<Row> {
         return new WriteContext(this.schema, new HashMap<>());
     }
 
+    @Override
+    public WriteContext init(final ParquetConfiguration configuration) {
+        return new WriteContext(this.schema, new HashMap<>());
+    }
+
     @Override
     public void prepareForWrite(final RecordConsumer recordConsumer) {
         this.recordConsumer = recordConsumer;
@@ -0,0 +1,78 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * InputFile reading a temporary file through regular file reads rather than a memory mapping,
+ * so that the file can be deleted as soon as it is closed.
+ */
+final class TemporaryInputFile implements InputFile, Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TemporaryInputFile.class);
+
+    private final File file;
+    private final InputFile delegate;
+
+    TemporaryInputFile(final File file) {
+        super();
+        this.file = file;
+        this.delegate = new LocalInputFile(file.toPath());
+    }
+
+    @Override
+    public long getLength() throws IOException {
+        return delegate.getLength();
+    }
+
+    @Override
+    public SeekableInputStream newStream() throws IOException {
+        return delegate.newStream();
+    }
+
+    /**
+     * Deletes the temporary file. Must be called once all the streams are closed.
+     */
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            // still deleted on exit
+            LOG.debug("Unable to delete temporary file {}", file, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return file.getPath();
+    }
+}
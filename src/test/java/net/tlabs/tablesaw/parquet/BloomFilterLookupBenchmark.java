@@ -0,0 +1,92 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+/**
+ * Point lookup time of a random UUID in a file of 500,000 rows, with and without bloom filters on the UUID column.
+ * Min/max statistics skip no row group for random UUIDs, and the row groups are large enough
+ * for the dictionaries to fall back to plain encoding, so only bloom filters skip row groups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class BloomFilterLookupBenchmark {
+
+    private static final String FILE_NAME = "target/benchmark/bloom_filter_lookup.parquet";
+    private static final int ROW_COUNT = 500_000;
+    private static final long ROW_GROUP_SIZE = 4 * 1024 * 1024;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    @Param({"true", "false"})
+    public boolean bloomFilter;
+
+    @Param({"present", "absent"})
+    public String lookup;
+
+    private TablesawParquetReadOptions options;
+
+    @Setup
+    public void writeFile() {
+        final StringColumn ids = StringColumn.create("id");
+        final IntColumn values = IntColumn.create("value");
+        for (int i = 0; i < ROW_COUNT; i++) {
+            ids.append(UUID.randomUUID().toString());
+            values.append(i);
+        }
+        final TablesawParquetWriteOptions.Builder builder = TablesawParquetWriteOptions
+            .builder(FILE_NAME).withOverwrite(true).withRowGroupSize(ROW_GROUP_SIZE);
+        if (bloomFilter) {
+            builder.withBloomFilter("id", 100_000, 0.01);
+        }
+        new TablesawParquetWriter().write(Table.create("lookup", ids, values), builder.build());
+        final String id = "present".equals(lookup) ? ids.get(ROW_COUNT / 2) : UUID.randomUUID().toString();
+        options = TablesawParquetReadOptions.builder(FILE_NAME)
+            .withRecordFilter(TablesawParquetPredicate.column("id").isEqualTo(id))
+            .build();
+    }
+
+    @Benchmark
+    public Table lookup() {
+        return READER.read(options);
+    }
+}
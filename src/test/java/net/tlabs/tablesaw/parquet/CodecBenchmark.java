@@ -0,0 +1,100 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.compression.CompressionCodecFactory.BytesInputDecompressor;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Decompression time of a 1 MiB page with the codecs of {@link TablesawCodecFactory}
+ * and with the hadoop {@link CodecFactory}, materializing the page as the page readers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    private static final int PAGE_SIZE = 1024 * 1024;
+
+    @Param({"SNAPPY", "GZIP", "ZSTD", "LZ4_RAW"})
+    public CompressionCodecName codecName;
+
+    @Param({"tablesaw", "hadoop"})
+    public String factory;
+
+    private CompressionCodecFactory codecFactory;
+    private BytesInputDecompressor decompressor;
+    private byte[] compressedPage;
+
+    @Setup
+    public void compressPage() throws IOException {
+        final Random random = new Random(0);
+        final byte[] page = new byte[PAGE_SIZE];
+        // compressible content: a few distinct runs
+        for (int i = 0; i < page.length; i++) {
+            page[i] = (byte) (random.nextInt(8) < 6 ? i / 100 : random.nextInt());
+        }
+        codecFactory = "hadoop".equals(factory)
+            ? new CodecFactory(new Configuration(), PAGE_SIZE)
+            : new TablesawCodecFactory(new PlainParquetConfiguration(), PAGE_SIZE);
+        compressedPage = TestCodecFactory.toByteArray(
+            codecFactory.getCompressor(codecName).compress(BytesInput.from(page)));
+        decompressor = codecFactory.getDecompressor(codecName);
+    }
+
+    @TearDown
+    public void releaseCodecs() {
+        codecFactory.release();
+    }
+
+    @Benchmark
+    public ByteBuffer decompress() throws IOException {
+        // heap buffers need no release
+        return decompressor.decompress(BytesInput.from(compressedPage), PAGE_SIZE)
+            .toByteBuffer(HeapByteBufferAllocator.getInstance(), buffer -> { });
+    }
+}
@@ -0,0 +1,71 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.tablesaw.api.Table;
+
+/**
+ * Read throughput of a file of a million rows in 35 row groups, by number of row groups decoded concurrently.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class ParallelReadBenchmark {
+
+    private static final String FILE_NAME = "target/benchmark/parallel_read.parquet";
+    private static final int ROW_COUNT = 1_000_000;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private TablesawParquetReadOptions options;
+
+    @Setup
+    public void writeFile() {
+        final Table table = TestColumnChunkRead.createFlatTable(ROW_COUNT);
+        new TablesawParquetWriter().write(table, TablesawParquetWriteOptions.builder(FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(512 * 1024).build());
+        options = TablesawParquetReadOptions.builder(FILE_NAME).withParallelism(parallelism).build();
+    }
+
+    @Benchmark
+    public Table read() {
+        return READER.read(options);
+    }
+}
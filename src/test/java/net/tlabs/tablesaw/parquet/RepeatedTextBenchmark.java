@@ -0,0 +1,93 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.tablesaw.api.Table;
+
+/**
+ * Read time of 200,000 repeated string values written as text, by number of values per row.
+ * The time stays constant when the text of each row is built in linear time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class RepeatedTextBenchmark {
+
+    private static final String FILE_NAME = "target/benchmark/repeated_text.parquet";
+    private static final int VALUE_COUNT = 200_000;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    @Param({"10", "100", "1000", "10000"})
+    public int valuesPerRow;
+
+    private TablesawParquetReadOptions options;
+
+    @Setup
+    public void writeFile() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message tags {"
+            + " required int32 id;"
+            + " repeated binary tags (STRING);"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (int i = 0; i < VALUE_COUNT / valuesPerRow; i++) {
+                final Group group = factory.newGroup().append("id", i);
+                for (int j = 0; j < valuesPerRow; j++) {
+                    group.append("tags", "tag" + j);
+                }
+                writer.write(group);
+            }
+        }
+        options = TablesawParquetReadOptions.builder(FILE_NAME).build();
+    }
+
+    @Benchmark
+    public Table read() {
+        return READER.read(options);
+    }
+}
@@ -0,0 +1,71 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.tablesaw.api.Row;
+import tech.tablesaw.api.Table;
+
+/**
+ * Time to the first table read from a local file in a fresh JVM, class loading and initialization included.
+ * Each fork measures a single read, either without hadoop or through a hadoop {@link Configuration}
+ * and the hadoop local file system, as all reads did before.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class StartupBenchmark {
+
+    private static final String FILE_NAME = "target/test-classes/pandas_pyarrow.parquet";
+
+    @Benchmark
+    public Table readFirstTable() {
+        return new TablesawParquetReader().read(TablesawParquetReadOptions.builder(FILE_NAME).build());
+    }
+
+    @Benchmark
+    public Table readFirstTableWithHadoop() throws IOException {
+        final TablesawReadSupport readSupport = new TablesawReadSupport(
+            TablesawParquetReadOptions.builder(FILE_NAME).build());
+        try (final ParquetReader<Row> reader = ParquetReader.builder(readSupport, new Path(FILE_NAME))
+                .withConf(new Configuration()).build()) {
+            while (reader.read() != null) {
+                // rows are materialized in the table of the read support
+            }
+        }
+        return readSupport.getTable();
+    }
+}
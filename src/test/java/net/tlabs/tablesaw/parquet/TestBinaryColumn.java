@@ -0,0 +1,238 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import net.tlabs.tablesaw.parquet.TablesawParquetReadOptions.UnnanotatedBinaryAs;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.ColumnType;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+class TestBinaryColumn {
+
+    private static final String INPUT_FILE_NAME = "target/test/results/raw_binaries.parquet";
+    private static final String OUTPUT_FILE_NAME = "target/test/results/raw_binaries_out.parquet";
+    private static final int ROW_COUNT = 10_000;
+    private static final long SEED = 42L;
+
+    private static byte[] hashValue(final Random random) {
+        final byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] keyValue(final Random random) {
+        final byte[] bytes = new byte[random.nextInt(20)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message binaries {"
+            + " required int32 id;"
+            + " optional fixed_len_byte_array(32) hash;"
+            + " optional binary key;"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        final Random random = new Random(SEED);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(INPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).withRowGroupSize(64 * 1024L).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup();
+                group.append("id", i);
+                final byte[] hash = hashValue(random);
+                final byte[] key = keyValue(random);
+                if (i % 7 != 0) {
+                    group.append("hash", Binary.fromConstantByteArray(hash));
+                }
+                if (i % 5 != 0) {
+                    group.append("key", Binary.fromConstantByteArray(key));
+                }
+                writer.write(group);
+            }
+        }
+    }
+
+    private static void assertBinaryValues(final Table table) {
+        assertEquals(BinaryColumnType.instance(), table.column("hash").type(), "Wrong hash column type");
+        assertEquals(BinaryColumnType.instance(), table.column("key").type(), "Wrong key column type");
+        final BinaryColumn hash = (BinaryColumn) table.column("hash");
+        final BinaryColumn key = (BinaryColumn) table.column("key");
+        final Random random = new Random(SEED);
+        int row = 0;
+        for (int i = 0; i < ROW_COUNT; i++) {
+            final byte[] expectedHash = hashValue(random);
+            final byte[] expectedKey = keyValue(random);
+            if (row < table.rowCount() && table.intColumn("id").getInt(row) == i) {
+                if (i % 7 != 0) {
+                    assertArrayEquals(expectedHash, hash.get(row), "Wrong hash at row " + row);
+                } else {
+                    assertTrue(hash.isMissing(row), "Hash should be missing at row " + row);
+                }
+                if (i % 5 != 0) {
+                    assertArrayEquals(expectedKey, key.get(row), "Wrong key at row " + row);
+                } else {
+                    assertTrue(key.isMissing(row), "Key should be missing at row " + row);
+                }
+                row++;
+            }
+        }
+        assertEquals(table.rowCount(), row, "All rows should have been checked");
+    }
+
+    @Test
+    void testReadAsBinary() {
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(INPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY).build());
+        assertEquals(ROW_COUNT, table.rowCount(), "Wrong number of rows");
+        assertBinaryValues(table);
+    }
+
+    @Test
+    void testReadAsBinaryWithFilterAndParallelism() {
+        final Table filtered = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(INPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY)
+            .withRecordFilter(FilterApi.gt(FilterApi.intColumn("id"), 5_000)).build());
+        assertEquals(ROW_COUNT - 5_001, filtered.rowCount(), "Wrong number of filtered rows");
+        assertBinaryValues(filtered);
+        final Table parallel = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(INPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY).withParallelism(4).build());
+        assertEquals(ROW_COUNT, parallel.rowCount(), "Wrong number of rows");
+        assertBinaryValues(parallel);
+    }
+
+    @Test
+    void testSameStringsAsHexString() {
+        final Table binary = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(INPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY).build());
+        final Table hex = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(INPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.HEXSTRING).build());
+        for (final String name : new String[] {"hash", "key"}) {
+            final StringColumn expected = hex.stringColumn(name);
+            final StringColumn actual = binary.column(name).asStringColumn();
+            for (int row = 0; row < ROW_COUNT; row++) {
+                assertEquals(expected.get(row), actual.get(row), "Wrong " + name + " string at row " + row);
+            }
+        }
+    }
+
+    @Test
+    void testWriteBinaryRoundTrip() throws IOException {
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(INPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY).build());
+        new TablesawParquetWriter().write(table,
+            TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME).withOverwrite(true).build());
+        try (final ParquetFileReader reader = ParquetFileReader.open(
+                new LocalInputFile(java.nio.file.Path.of(OUTPUT_FILE_NAME)))) {
+            final PrimitiveType key = reader.getFileMetaData().getSchema().getType("key").asPrimitiveType();
+            assertEquals(PrimitiveTypeName.BINARY, key.getPrimitiveTypeName(), "Key should be written as BINARY");
+            assertNull(key.getLogicalTypeAnnotation(), "Key should not be annotated");
+        }
+        final Table roundTrip = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY).build());
+        assertEquals(ROW_COUNT, roundTrip.rowCount(), "Wrong number of rows");
+        assertBinaryValues(roundTrip);
+    }
+
+    @Test
+    void testColumnOperations() {
+        final BinaryColumn column = BinaryColumn.create("bin",
+            new byte[] {(byte) 0xFF}, null, new byte[] {1, 2}, new byte[0], new byte[] {1, 2});
+        assertEquals(5, column.size(), "Wrong size");
+        assertEquals(1, column.countMissing(), "Wrong missing count");
+        assertEquals("FF", column.getString(0), "Wrong string for 0xFF");
+        assertEquals("", column.getString(1), "Missing should be an empty string");
+        assertEquals("01 02", column.getString(2), "Wrong string for 0x0102");
+        assertTrue(column.equals(2, 4), "Equal values should be equal");
+        assertEquals(column.valueHash(2), column.valueHash(4), "Equal values should have the same hash");
+        assertEquals(2, column.indexOf(new byte[] {1, 2}), "Wrong index");
+        assertEquals(4, column.lastIndexOf(new byte[] {1, 2}), "Wrong last index");
+        assertEquals(4, column.unique().size(), "Wrong unique count");
+        assertEquals(3, column.asSet().size(), "Wrong set size");
+        assertEquals(4, column.removeMissing().size(), "Wrong size without missing");
+
+        final BinaryColumn sorted = column.copy();
+        sorted.sortAscending();
+        assertNull(sorted.get(0), "Missing should sort first");
+        assertArrayEquals(new byte[0], sorted.get(1), "Empty should sort before other values");
+        assertArrayEquals(new byte[] {(byte) 0xFF}, sorted.get(4), "Bytes should be compared unsigned");
+        sorted.sortDescending();
+        assertArrayEquals(new byte[] {(byte) 0xFF}, sorted.get(0), "Wrong first value in descending order");
+
+        final BinaryColumn lagged = column.lag(1);
+        assertTrue(lagged.isMissing(0), "First lagged value should be missing");
+        assertArrayEquals(column.get(0), lagged.get(1), "Wrong lagged value");
+
+        column.set(0, ByteBuffer.wrap(new byte[] {9, 8, 7}, 1, 2));
+        assertArrayEquals(new byte[] {8, 7}, column.get(0), "Wrong value after set");
+        column.setMissing(2);
+        assertTrue(column.isMissing(2), "Value should be missing after setMissing");
+        assertEquals(3, column.where(column.isNotMissing()).size(), "Wrong non missing selection");
+    }
+
+    @Test
+    void testParser() {
+        final BinaryColumn column = BinaryColumn.create("bin");
+        column.appendCell("0A ff");
+        column.appendCell("");
+        assertArrayEquals(new byte[] {10, (byte) 0xFF}, column.get(0), "Wrong parsed value");
+        assertTrue(column.isMissing(1), "Empty cell should be missing");
+        assertThrows(IllegalArgumentException.class, () -> column.appendCell("ABC"), "Odd digit count should fail");
+        assertEquals(column.type(), ColumnType.valueOf("BINARY"), "Type should be registered");
+    }
+
+    @Test
+    void testLargeColumnGrowth() {
+        final BinaryColumn column = BinaryColumn.create("bin");
+        final Random random = new Random(SEED);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            column.append(hashValue(random));
+        }
+        final Random check = new Random(SEED);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertArrayEquals(hashValue(check), column.get(i), "Wrong value at row " + i);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.apache.parquet.filter2.predicate.FilterApi.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.io.api.Binary;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+class TestBloomFilter {
+
+    private static final String BLOOM_FILE_NAME = "target/test/results/bloom_filter.parquet";
+    private static final String NO_BLOOM_FILE_NAME = "target/test/results/no_bloom_filter.parquet";
+    private static final int ROW_COUNT = 20_000;
+    private static final Table TABLE = createTable();
+
+    private static Table createTable() {
+        final Random random = new Random(42);
+        final StringColumn ids = StringColumn.create("id");
+        final IntColumn values = IntColumn.create("value");
+        for (int i = 0; i < ROW_COUNT; i++) {
+            ids.append(new UUID(random.nextLong(), random.nextLong()).toString());
+            values.append(i);
+        }
+        return Table.create("bloom", ids, values);
+    }
+
+    @BeforeAll
+    static void writeFiles() {
+        new TablesawParquetWriter().write(TABLE, TablesawParquetWriteOptions.builder(BLOOM_FILE_NAME)
+            .withRowGroupSize(128 * 1024).withBloomFilter("id", ROW_COUNT, 0.0001).build());
+        new TablesawParquetWriter().write(TABLE, TablesawParquetWriteOptions.builder(NO_BLOOM_FILE_NAME)
+            .withRowGroupSize(128 * 1024).build());
+    }
+
+    private static TablesawParquetFilterReport lookup(final TablesawParquetReadOptions.Builder builder,
+            final FilterPredicate predicate, final int expectedRows) {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(builder
+            .withRecordFilter(predicate).withFilterReport(report::set).build());
+        assertEquals(expectedRows, table.rowCount(), "Wrong number of rows");
+        assertTrue(report.get().getRowGroupCount() > 2, "Not enough row groups: " + report.get());
+        return report.get();
+    }
+
+    private static Binary id(final int row) {
+        return Binary.fromString(TABLE.stringColumn("id").get(row));
+    }
+
+    @Test
+    void testEqualityLookup() {
+        final TablesawParquetFilterReport report = lookup(TablesawParquetReadOptions.builder(BLOOM_FILE_NAME),
+            eq(binaryColumn("id"), id(ROW_COUNT / 2)), 1);
+        assertEquals(1, report.getRowGroupsRead(), "Wrong row groups read: " + report);
+        assertEquals(report.getRowGroupCount() - 1,
+            report.getRowGroupsSkippedByStatistics() + report.getRowGroupsSkippedByBloomFilter(),
+            "Wrong row groups skipped: " + report);
+        assertTrue(report.getRowGroupsSkippedByBloomFilter() > 0, "No row group skipped by bloom filter: " + report);
+    }
+
+    @Test
+    void testInLookup() {
+        final TablesawParquetFilterReport report = lookup(TablesawParquetReadOptions.builder(BLOOM_FILE_NAME),
+            in(binaryColumn("id"), new HashSet<>(Arrays.asList(id(1), id(ROW_COUNT - 1)))), 2);
+        assertEquals(2, report.getRowGroupsRead(), "Wrong row groups read: " + report);
+        assertTrue(report.getRowGroupsSkippedByBloomFilter() > 0, "No row group skipped by bloom filter: " + report);
+    }
+
+    @Test
+    void testBloomFilterNotUsed() {
+        final TablesawParquetFilterReport report = lookup(TablesawParquetReadOptions.builder(BLOOM_FILE_NAME)
+            .withBloomFilter(false), eq(binaryColumn("id"), id(ROW_COUNT / 2)), 1);
+        assertEquals(0, report.getRowGroupsSkippedByBloomFilter(), "Wrong row groups skipped by bloom filter");
+    }
+
+    @Test
+    void testNoBloomFilterWritten() {
+        final TablesawParquetFilterReport report = lookup(TablesawParquetReadOptions.builder(NO_BLOOM_FILE_NAME),
+            eq(binaryColumn("id"), id(ROW_COUNT / 2)), 1);
+        assertEquals(0, report.getRowGroupsSkippedByBloomFilter(), "Wrong row groups skipped by bloom filter");
+    }
+
+    @Test
+    void testUnknownColumn() {
+        final TablesawParquetWriteOptions options = TablesawParquetWriteOptions.builder(NO_BLOOM_FILE_NAME)
+            .withBloomFilter("unknown", 10, 0.01).build();
+        final TablesawParquetWriter writer = new TablesawParquetWriter();
+        assertThrows(IllegalArgumentException.class, () -> writer.write(TABLE, options),
+            "Unknown column should be rejected");
+    }
+
+    @Test
+    void testInvalidBloomFilterOptions() {
+        final TablesawParquetWriteOptions.Builder builder = TablesawParquetWriteOptions.builder(NO_BLOOM_FILE_NAME);
+        assertThrows(IllegalArgumentException.class, () -> builder.withBloomFilter("id", 0, 0.01),
+            "Zero distinct values should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> builder.withBloomFilter("id", 10, 1.0),
+            "False positive probability of 1 should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> builder.withBloomFilter("id", 10, Double.NaN),
+            "NaN false positive probability should be rejected");
+    }
+}
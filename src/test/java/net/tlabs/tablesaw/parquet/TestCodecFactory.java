@@ -0,0 +1,178 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.compression.CompressionCodecFactory;
+import org.apache.parquet.conf.PlainParquetConfiguration;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.ParquetReader;
+import org.apache.parquet.hadoop.example.GroupReadSupport;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import net.tlabs.tablesaw.parquet.TablesawParquetWriteOptions.CompressionCodec;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.Table;
+
+class TestCodecFactory {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/codec_factory.parquet";
+    private static final int PAGE_SIZE = 64 * 1024;
+    private static final Table FLAT_TABLE = TestColumnChunkRead.createFlatTable(5_000);
+
+    private static byte[] createPage(final int seed) {
+        final Random random = new Random(seed);
+        final byte[] page = new byte[random.nextInt(PAGE_SIZE)];
+        // compressible content: a few distinct runs
+        for (int i = 0; i < page.length; i++) {
+            page[i] = (byte) (random.nextInt(8) < 6 ? i / 100 : random.nextInt());
+        }
+        return page;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompressionCodecName.class, names = {"UNCOMPRESSED", "SNAPPY", "GZIP", "ZSTD", "LZ4_RAW"})
+    void testCompatibleWithHadoopCodecs(final CompressionCodecName codecName) throws IOException {
+        final CompressionCodecFactory tablesawFactory = new TablesawCodecFactory(new PlainParquetConfiguration(), PAGE_SIZE);
+        final CompressionCodecFactory hadoopFactory = new CodecFactory(new Configuration(), PAGE_SIZE);
+        try {
+            for (int seed = 0; seed < 20; seed++) {
+                final byte[] page = createPage(seed);
+                final BytesInput tablesawCompressed = BytesInput.from(toByteArray(
+                    tablesawFactory.getCompressor(codecName).compress(BytesInput.from(page))));
+                assertArrayEquals(page, toByteArray(hadoopFactory.getDecompressor(codecName)
+                    .decompress(tablesawCompressed, page.length)),
+                    codecName + " page compressed here not decompressed by hadoop for seed " + seed);
+                final BytesInput hadoopCompressed = BytesInput.from(toByteArray(
+                    hadoopFactory.getCompressor(codecName).compress(BytesInput.from(page))));
+                assertArrayEquals(page, toByteArray(tablesawFactory.getDecompressor(codecName)
+                    .decompress(hadoopCompressed, page.length)),
+                    codecName + " page compressed by hadoop not decompressed here for seed " + seed);
+            }
+        } finally {
+            tablesawFactory.release();
+            hadoopFactory.release();
+        }
+    }
+
+    static byte[] toByteArray(final BytesInput bytes) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream((int) bytes.size());
+        bytes.writeAllTo(out);
+        return out.toByteArray();
+    }
+
+    private static ByteBuffer toBuffer(final byte[] bytes, final boolean direct, final boolean readOnly) {
+        // content surrounded by other bytes, to check offsets and limits
+        final ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(bytes.length + 20)
+            : ByteBuffer.allocate(bytes.length + 20);
+        buffer.put(new byte[10]).put(bytes).put(new byte[10]);
+        buffer.position(10).limit(10 + bytes.length);
+        final ByteBuffer slice = buffer.slice();
+        return readOnly ? slice.asReadOnlyBuffer() : slice;
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = CompressionCodecName.class, names = {"UNCOMPRESSED", "SNAPPY", "GZIP", "ZSTD", "LZ4_RAW"})
+    void testDecompressAllBufferKinds(final CompressionCodecName codecName) throws IOException {
+        final CompressionCodecFactory tablesawFactory = new TablesawCodecFactory(new PlainParquetConfiguration(), PAGE_SIZE);
+        final CompressionCodecFactory hadoopFactory = new CodecFactory(new Configuration(), PAGE_SIZE);
+        try {
+            final byte[] page = createPage(42);
+            final byte[] compressed = toByteArray(
+                hadoopFactory.getCompressor(codecName).compress(BytesInput.from(page)));
+            for (final boolean directInput : new boolean[] {false, true}) {
+                for (final boolean readOnlyInput : new boolean[] {false, true}) {
+                    final String kind = codecName + (directInput ? " direct" : " heap")
+                        + (readOnlyInput ? " read-only" : "") + " input";
+                    assertArrayEquals(page, toByteArray(tablesawFactory.getDecompressor(codecName).decompress(
+                        BytesInput.from(toBuffer(compressed, directInput, readOnlyInput)), page.length)),
+                        "Wrong page decompressed from " + kind);
+                    for (final boolean directOutput : new boolean[] {false, true}) {
+                        final ByteBuffer input = toBuffer(compressed, directInput, readOnlyInput);
+                        final ByteBuffer output = directOutput ? ByteBuffer.allocateDirect(page.length + 10)
+                            : ByteBuffer.allocate(page.length + 10);
+                        output.position(10);
+                        tablesawFactory.getDecompressor(codecName)
+                            .decompress(input, compressed.length, output, page.length);
+                        assertEquals(compressed.length, input.position(), "Input not consumed from " + kind);
+                        assertEquals(page.length + 10, output.position(), "Output not filled from " + kind);
+                        output.position(10);
+                        final byte[] decompressed = new byte[page.length];
+                        output.get(decompressed);
+                        assertArrayEquals(page, decompressed, "Wrong page decompressed from " + kind
+                            + " to " + (directOutput ? "direct" : "heap") + " output");
+                    }
+                }
+            }
+            final byte[] recompressed = toByteArray(tablesawFactory.getCompressor(codecName)
+                .compress(BytesInput.from(toBuffer(page, true, true))));
+            assertArrayEquals(page, toByteArray(hadoopFactory.getDecompressor(codecName)
+                .decompress(BytesInput.from(recompressed), page.length)),
+                codecName + " page compressed from a direct buffer not decompressed by hadoop");
+        } finally {
+            tablesawFactory.release();
+            hadoopFactory.release();
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompressionCodec.class)
+    void testReadFileWrittenWithHadoop(final CompressionCodec codec) {
+        // checksum files are written through the hadoop file system and codecs
+        new TablesawParquetWriter().write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withCompressionCode(codec).withWriteChecksum(true).build());
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompressionCodec.class)
+    void testFileReadableWithHadoop(final CompressionCodec codec) throws IOException {
+        new TablesawParquetWriter().write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withCompressionCode(codec).build());
+        final IntColumn ints = FLAT_TABLE.intColumn("int");
+        try (final ParquetReader<Group> reader =
+                ParquetReader.builder(new GroupReadSupport(), new Path(OUTPUT_FILE_NAME)).build()) {
+            int row = 0;
+            for (Group group = reader.read(); group != null; group = reader.read(), row++) {
+                if (ints.isMissing(row)) {
+                    assertEquals(0, group.getFieldRepetitionCount("int"), "Value should be missing at row " + row);
+                } else {
+                    assertEquals(ints.getInt(row), group.getInteger("int", 0), "Wrong value at row " + row);
+                }
+            }
+            assertEquals(FLAT_TABLE.rowCount(), row, "Wrong number of rows");
+        }
+    }
+}
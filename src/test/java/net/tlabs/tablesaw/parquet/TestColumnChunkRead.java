@@ -0,0 +1,470 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.Statistics;
+import org.apache.parquet.filter2.predicate.UserDefinedPredicate;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.BooleanColumn;
+import tech.tablesaw.api.ColumnType;
+import tech.tablesaw.api.DateColumn;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.LongColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+import tech.tablesaw.selection.Selection;
+
+class TestColumnChunkRead {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/column_chunk.parquet";
+    private static final String NESTED_FILE_NAME = "target/test/results/column_chunk_nested.parquet";
+    private static final String PANDAS_PYARROW = "target/test-classes/pandas_pyarrow.parquet";
+    private static final int ROW_COUNT = 10_000;
+    private static final Table FLAT_TABLE = createFlatTable(ROW_COUNT);
+
+    static Table createFlatTable(final int rowCount) {
+        final IntColumn ints = IntColumn.create("int");
+        final LongColumn longs = LongColumn.create("long");
+        final DoubleColumn doubles = DoubleColumn.create("double");
+        final BooleanColumn booleans = BooleanColumn.create("boolean");
+        final StringColumn strings = StringColumn.create("string");
+        final DateColumn dates = DateColumn.create("date");
+        for (int i = 0; i < rowCount; i++) {
+            if (i % 7 == 0) ints.appendMissing(); else ints.append(i);
+            if (i % 5 == 0) longs.appendMissing(); else longs.append(i * 1_000_000_000L);
+            if (i % 3 == 0) doubles.appendMissing(); else doubles.append(i / 3.0);
+            if (i % 11 == 0) booleans.appendMissing(); else booleans.append(i % 2 == 0);
+            if (i % 13 == 0) strings.appendMissing(); else strings.append("s" + (i % 100));
+            if (i % 17 == 0) dates.appendMissing(); else dates.append(LocalDate.of(2020, 1, 1).plusDays(i));
+        }
+        return Table.create("flat", ints, longs, doubles, booleans, strings, dates);
+    }
+
+    @BeforeAll
+    static void writeFlatTable() throws IOException {
+        new TablesawParquetWriter().write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(16 * 1024).build());
+        writeNestedFile(NESTED_FILE_NAME, 1_000);
+    }
+
+    static void writeNestedFile(final String fileName, final int rowCount) throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message nested {"
+            + " required int32 id;"
+            + " repeated int32 values;"
+            + " optional group point { required double x; required double y; }"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(fileName))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (int i = 0; i < rowCount; i++) {
+                final Group group = factory.newGroup().append("id", i);
+                for (int j = 0; j < i % 3; j++) {
+                    group.append("values", j);
+                }
+                if (i % 2 == 0) {
+                    group.addGroup("point").append("x", i / 2.0).append("y", i * 2.0);
+                }
+                writer.write(group);
+            }
+        }
+    }
+
+    static void assertSameValues(final Table expected, final Table actual) {
+        assertEquals(expected.columnCount(), actual.columnCount(), "Wrong number of columns");
+        assertEquals(expected.rowCount(), actual.rowCount(), "Wrong number of rows");
+        for (int colIndex = 0; colIndex < expected.columnCount(); colIndex++) {
+            final Column<?> expectedColumn = expected.column(colIndex);
+            final Column<?> actualColumn = actual.column(colIndex);
+            assertEquals(expectedColumn.name(), actualColumn.name(), "Wrong column name");
+            assertEquals(expectedColumn.type(), actualColumn.type(), "Wrong column type for " + expectedColumn.name());
+            for (int rowIndex = 0; rowIndex < expected.rowCount(); rowIndex++) {
+                assertEquals(expectedColumn.isMissing(rowIndex), actualColumn.isMissing(rowIndex),
+                    "Wrong missing value for " + expectedColumn.name() + " at row " + rowIndex);
+                assertEquals(expectedColumn.get(rowIndex), actualColumn.get(rowIndex),
+                    "Wrong value for " + expectedColumn.name() + " at row " + rowIndex);
+            }
+        }
+    }
+
+    @Test
+    void testFlatSchemaWithMissingValues() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testFlatSchemaWithSelectedColumns() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withOnlyTheseColumns("string", "int").build());
+        assertSameValues(FLAT_TABLE.selectColumns("string", "int"), table);
+    }
+
+    @Test
+    void testFlatSchemaWithRecordFilter() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withRecordFilter(FilterApi.gt(FilterApi.intColumn("int"), 5_000)).build());
+        assertSameValues(FLAT_TABLE.where(FLAT_TABLE.intColumn("int").isGreaterThan(5_000)), table);
+    }
+
+    @Test
+    void testNestedSchema() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(NESTED_FILE_NAME).build());
+        assertEquals(1_000, table.rowCount(), "Wrong number of rows");
+        assertEquals(3, table.columnCount(), "Wrong number of columns");
+        assertEquals(4, table.intColumn("id").getInt(4), "Wrong id value");
+        assertEquals("[0, 1]", table.stringColumn("values").get(2), "Wrong repeated value");
+        assertTrue(table.stringColumn("values").isMissing(3), "Repeated value should be missing");
+        assertEquals("[x: 1.0, y: 4.0]", table.stringColumn("point").get(2), "Wrong group value");
+        assertTrue(table.stringColumn("point").isMissing(3), "Group value should be missing");
+    }
+
+    @Test
+    void testLongRepeatedFields() throws IOException {
+        final String fileName = "target/test/results/long_repeated.parquet";
+        final MessageType schema = MessageTypeParser.parseMessageType("message tags {"
+            + " required int32 id;"
+            + " repeated binary tags (STRING);"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        final int[] tagCounts = {0, 1, 2, 500, 5_000, 0, 3};
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(fileName))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (int i = 0; i < tagCounts.length; i++) {
+                final Group group = factory.newGroup().append("id", i);
+                for (int j = 0; j < tagCounts[i]; j++) {
+                    group.append("tags", "tag" + j);
+                }
+                writer.write(group);
+            }
+        }
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(fileName).build());
+        assertEquals(tagCounts.length, table.rowCount(), "Wrong number of rows");
+        for (int i = 0; i < tagCounts.length; i++) {
+            if (tagCounts[i] == 0) {
+                assertTrue(table.stringColumn("tags").isMissing(i), "Tags should be missing at row " + i);
+            } else {
+                final String expected = IntStream.range(0, tagCounts[i]).mapToObj(j -> "tag" + j)
+                    .collect(Collectors.joining(", ", "[", "]"));
+                assertEquals(expected, table.stringColumn("tags").get(i), "Wrong tags at row " + i);
+            }
+        }
+    }
+
+    @Test
+    void testWideSparseTable() throws IOException {
+        final String fileName = "target/test/results/wide_sparse.parquet";
+        final int columnCount = 300;
+        final int rowCount = 1_000;
+        final Table wide = Table.create("wide");
+        wide.addColumns(IntColumn.create("id", IntStream.range(0, rowCount).toArray()));
+        for (int col = 0; col < columnCount; col++) {
+            final Column<?> column = col % 2 == 0 ? IntColumn.create("c" + col) : StringColumn.create("c" + col);
+            for (int row = 0; row < rowCount; row++) {
+                if ((row * 31 + col) % 17 != 0) {
+                    column.appendMissing();
+                } else if (col % 2 == 0) {
+                    ((IntColumn) column).append(row + col);
+                } else {
+                    ((StringColumn) column).append("v" + row);
+                }
+            }
+            wide.addColumns(column);
+        }
+        new TablesawParquetWriter().write(wide, TablesawParquetWriteOptions.builder(fileName)
+            .withOverwrite(true).withRowGroupSize(64 * 1024).build());
+        // record filters force record assembly, rejected rows are overwritten by the next rows
+        final Table allRows = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(fileName)
+            .withRecordFilter(FilterApi.gtEq(FilterApi.intColumn("id"), 0)).build());
+        assertSameValues(wide, allRows);
+        final Table oddRows = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(fileName)
+            .withRecordFilter(FilterApi.userDefined(FilterApi.intColumn("id"), OddIntPredicate.class)).build());
+        assertSameValues(wide.where(Selection.with(IntStream.range(0, rowCount).filter(i -> i % 2 != 0).toArray())),
+            oddRows);
+    }
+
+    public static final class OddIntPredicate extends UserDefinedPredicate<Integer> implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean keep(final Integer value) {
+            return value != null && value % 2 != 0;
+        }
+
+        @Override
+        public boolean canDrop(final Statistics<Integer> statistics) {
+            return false;
+        }
+
+        @Override
+        public boolean inverseCanDrop(final Statistics<Integer> statistics) {
+            return false;
+        }
+    }
+
+    @Test
+    void testNestedSchemaWithRecordFilter() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(NESTED_FILE_NAME)
+                .withRecordFilter(FilterApi.gtEq(FilterApi.intColumn("id"), 500)).build());
+        assertEquals(500, table.rowCount(), "Wrong number of rows");
+        assertEquals(500, table.intColumn("id").getInt(0), "Wrong id value");
+        assertEquals("[0, 1]", table.stringColumn("values").get(0), "Wrong repeated value");
+        assertEquals("[x: 251.0, y: 1004.0]", table.stringColumn("point").get(2), "Wrong group value");
+        assertTrue(table.stringColumn("point").isMissing(3), "Group value should be missing");
+    }
+
+    @Test
+    void testRejectedRecordsNotWritten() {
+        final Table table = Table.create("filtered", IntColumn.create("int"), StringColumn.create("string"));
+        final MessageType schema = MessageTypeParser.parseMessageType("message filtered {"
+            + " optional int32 int;"
+            + " optional binary string (STRING);"
+            + " }");
+        final TablesawRecordConverter converter = new TablesawRecordConverter(table, schema,
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withRecordFilter(FilterApi.eq(FilterApi.intColumn("int"), 2)).build());
+        converter.start();
+        converter.getConverter(0).asPrimitiveConverter().addInt(1);
+        converter.getConverter(1).asPrimitiveConverter().addBinary(Binary.fromString("rejected"));
+        converter.end();
+        converter.skipCurrentRecord();
+        assertEquals(0, table.rowCount(), "Rejected record should not reach the columns");
+        converter.start();
+        converter.getConverter(0).asPrimitiveConverter().addInt(2);
+        converter.end();
+        converter.getCurrentRow();
+        final Table read = converter.getTable();
+        assertSame(table, read, "Table should not be copied");
+        assertEquals(1, read.rowCount(), "Only the accepted record should be kept");
+        assertEquals(2, read.intColumn("int").getInt(0), "Wrong int value");
+        assertTrue(read.stringColumn("string").isMissing(0), "Rejected string value should not be kept");
+    }
+
+    @Test
+    void testOverwrittenRowsWithMissingStrings() {
+        final TableProxy proxy = TableProxy.create(Table.create("child", StringColumn.create("string")), false);
+        proxy.startRow();
+        proxy.appendString(0, "rejected");
+        proxy.endRow();
+        // the row of a rejected parent record is overwritten by the next row, without value
+        proxy.skipRowsAfter(-1);
+        proxy.startRow();
+        proxy.endRow();
+        final Table read = proxy.getTable();
+        assertEquals(1, read.rowCount(), "Wrong number of rows");
+        assertTrue(read.stringColumn("string").isMissing(0), "Overwritten string value should be missing");
+    }
+
+    @Test
+    void testRejectedBinaryValuesReleased() {
+        final BinaryColumn binaries = BinaryColumn.create("binary");
+        final Table table = Table.create("filtered", IntColumn.create("int"), binaries);
+        final MessageType schema = MessageTypeParser.parseMessageType("message filtered {"
+            + " optional int32 int;"
+            + " optional binary binary;"
+            + " }");
+        final TablesawRecordConverter converter = new TablesawRecordConverter(table, schema,
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withUnnanotatedBinaryAs(TablesawParquetReadOptions.UnnanotatedBinaryAs.BINARY)
+                .withRecordFilter(FilterApi.eq(FilterApi.intColumn("int"), 2)).build());
+        final Binary rejected = Binary.fromConstantByteArray(new byte[1_000]);
+        for (int i = 0; i < 1_000; i++) {
+            converter.start();
+            converter.getConverter(0).asPrimitiveConverter().addInt(1);
+            converter.getConverter(1).asPrimitiveConverter().addBinary(rejected);
+            converter.end();
+            converter.skipCurrentRecord();
+        }
+        converter.start();
+        converter.getConverter(0).asPrimitiveConverter().addInt(2);
+        converter.getConverter(1).asPrimitiveConverter().addBinary(Binary.fromString("kept"));
+        converter.end();
+        converter.getCurrentRow();
+        assertEquals(1, converter.getTable().rowCount(), "Only the accepted record should be kept");
+        assertArrayEquals("kept".getBytes(), ((BinaryColumn) converter.getTable().column("binary")).get(0),
+            "Wrong binary value");
+        assertTrue(binaries.data().length < 10_000, "Rejected binary values should not be kept");
+    }
+
+    @Test
+    void testRecordFilterRejectingAllRows() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withRecordFilter(FilterApi.eq(FilterApi.intColumn("int"), 7)).build());
+        assertEquals(FLAT_TABLE.columnCount(), table.columnCount(), "Wrong number of columns");
+        assertEquals(0, table.rowCount(), "All rows should be filtered out");
+    }
+
+    @Test
+    void testTypedColumnChunkLoops() throws IOException {
+        final String fileName = "target/test/results/column_chunk_types.parquet";
+        final MessageType schema = MessageTypeParser.parseMessageType("message types {"
+            + " optional int32 int;"
+            + " optional int32 short (INTEGER(16, true));"
+            + " optional int64 long;"
+            + " optional int32 int_as_long;"
+            + " optional float float;"
+            + " optional double double;"
+            + " optional boolean boolean;"
+            + " optional int32 date (DATE);"
+            + " optional int32 time_millis (TIME(MILLIS, true));"
+            + " optional int64 time_micros (TIME(MICROS, true));"
+            + " optional int64 time_nanos (TIME(NANOS, true));"
+            + " optional int64 instant_millis (TIMESTAMP(MILLIS, true));"
+            + " optional int64 instant_micros (TIMESTAMP(MICROS, true));"
+            + " optional int64 datetime_millis (TIMESTAMP(MILLIS, false));"
+            + " optional int64 datetime_nanos (TIMESTAMP(NANOS, false));"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        final int rowCount = 5_000;
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(fileName))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (int i = 0; i < rowCount; i++) {
+                final Group group = factory.newGroup();
+                final long millis = (i - 100) * 123_457L;
+                final long millisOfDay = Math.floorMod(millis, 86_400_000L);
+                for (int field = 0; field < schema.getFieldCount(); field++) {
+                    if (i % (field + 3) == 0) {
+                        continue;
+                    }
+                    switch (schema.getFieldName(field)) {
+                        case "int":
+                        case "short":
+                        case "int_as_long":
+                            group.append(schema.getFieldName(field), i - 100);
+                            break;
+                        case "long":
+                            group.append("long", (i - 100) * 1_000_000_000L);
+                            break;
+                        case "float":
+                            group.append("float", i / 3.0f);
+                            break;
+                        case "double":
+                            group.append("double", i / 3.0);
+                            break;
+                        case "boolean":
+                            group.append("boolean", i % 2 == 0);
+                            break;
+                        case "date":
+                            group.append("date", i - 100);
+                            break;
+                        case "time_millis":
+                            group.append("time_millis", (int) millisOfDay);
+                            break;
+                        case "time_micros":
+                            group.append("time_micros", millisOfDay * 1_000L + 7);
+                            break;
+                        case "time_nanos":
+                            group.append("time_nanos", millisOfDay * 1_000_000L + 7);
+                            break;
+                        case "instant_millis":
+                        case "datetime_millis":
+                            group.append(schema.getFieldName(field), millis);
+                            break;
+                        case "instant_micros":
+                            group.append("instant_micros", millis * 1_000L + 7);
+                            break;
+                        case "datetime_nanos":
+                            group.append("datetime_nanos", millis * 1_000_000L + 7);
+                            break;
+                        default:
+                            fail("Unexpected field " + schema.getFieldName(field));
+                    }
+                }
+                writer.write(group);
+            }
+        }
+        for (final boolean minimizeColumnSizes : new boolean[] {false, true}) {
+            final TablesawParquetReadOptions.Builder columnChunkOptions = TablesawParquetReadOptions.builder(fileName)
+                .columnTypesPartial(Collections.singletonMap("int_as_long", ColumnType.LONG));
+            // record filters force record assembly
+            final TablesawParquetReadOptions.Builder recordOptions = TablesawParquetReadOptions.builder(fileName)
+                .columnTypesPartial(Collections.singletonMap("int_as_long", ColumnType.LONG))
+                .withRecordFilter(FilterApi.or(FilterApi.eq(FilterApi.intColumn("int"), null),
+                    FilterApi.notEq(FilterApi.intColumn("int"), null)));
+            if (minimizeColumnSizes) {
+                columnChunkOptions.minimizeColumnSizes();
+                recordOptions.minimizeColumnSizes();
+            }
+            final Table columnChunks = new TablesawParquetReader().read(columnChunkOptions.build());
+            assertSameValues(new TablesawParquetReader().read(recordOptions.build()), columnChunks);
+            assertEquals(rowCount, columnChunks.rowCount(), "Wrong number of rows");
+            assertEquals(minimizeColumnSizes ? ColumnType.SHORT : ColumnType.INTEGER,
+                columnChunks.column("short").type(), "Wrong short column type");
+            assertEquals(minimizeColumnSizes ? ColumnType.FLOAT : ColumnType.DOUBLE,
+                columnChunks.column("float").type(), "Wrong float column type");
+            final int row = 4_321;
+            assertEquals(-99L, columnChunks.longColumn("int_as_long").getLong(1), "Wrong long value from int32");
+            assertEquals(LocalDate.ofEpochDay(-99), columnChunks.dateColumn("date").get(1), "Wrong date value");
+            assertEquals(LocalTime.ofNanoOfDay(Math.floorMod((row - 100) * 123_457L, 86_400_000L) * 1_000_000L),
+                columnChunks.timeColumn("time_nanos").get(row), "Wrong time value");
+            assertEquals(Instant.ofEpochMilli((row - 100) * 123_457L),
+                columnChunks.instantColumn("instant_micros").get(row), "Wrong instant value");
+            assertEquals(Instant.ofEpochMilli(-99 * 123_457L),
+                columnChunks.instantColumn("instant_micros").get(1), "Wrong negative instant value");
+            assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(-99 * 123_457L), ZoneOffset.UTC),
+                columnChunks.dateTimeColumn("datetime_nanos").get(1), "Wrong negative datetime value");
+            assertTrue(columnChunks.column("time_micros").isMissing(12), "Time value should be missing");
+        }
+    }
+
+    @Test
+    void testColumnChunkMatchesRecordAssembly() {
+        final Table columnChunks = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(PANDAS_PYARROW).build());
+        final Table records = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(PANDAS_PYARROW)
+                .withRecordFilter(FilterApi.or(FilterApi.eq(FilterApi.intColumn("int"), null),
+                    FilterApi.notEq(FilterApi.intColumn("int"), null))).build());
+        assertSameValues(records, columnChunks);
+    }
+}
@@ -0,0 +1,163 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.FloatColumn;
+import tech.tablesaw.api.Table;
+
+class TestDecimalConversion {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/decimals.parquet";
+    private static final int ROW_COUNT = 5_000;
+    private static final long SEED = 42L;
+
+    private static BigDecimal int32Value(final Random random) {
+        return BigDecimal.valueOf(random.nextInt(), 2);
+    }
+
+    private static BigDecimal int64Value(final Random random) {
+        return BigDecimal.valueOf(random.nextLong() % 1_000_000_000_000_000_000L, 4);
+    }
+
+    private static BigDecimal fixedValue(final Random random) {
+        return new BigDecimal(new BigInteger(100, random).subtract(BigInteger.ONE.shiftLeft(99)), 10);
+    }
+
+    private static BigDecimal binaryValue(final Random random) {
+        return BigDecimal.valueOf(random.nextLong() >> random.nextInt(64), 3);
+    }
+
+    // Two's-complement bytes padded to the given length
+    private static Binary fixedBytes(final BigDecimal value, final int length) {
+        final byte[] bytes = value.unscaledValue().toByteArray();
+        final byte[] padded = new byte[length];
+        Arrays.fill(padded, 0, length - bytes.length, (byte) (value.signum() < 0 ? -1 : 0));
+        System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+        return Binary.fromConstantByteArray(padded);
+    }
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message decimals {"
+            + " required int32 d_int32 (DECIMAL(9,2));"
+            + " required int64 d_int64 (DECIMAL(18,4));"
+            + " required fixed_len_byte_array(16) d_fixed (DECIMAL(38,10));"
+            + " required binary d_binary (DECIMAL(20,3));"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        final Random random = new Random(SEED);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup();
+                group.append("d_int32", int32Value(random).unscaledValue().intValueExact());
+                group.append("d_int64", int64Value(random).unscaledValue().longValueExact());
+                group.append("d_fixed", fixedBytes(fixedValue(random), 16));
+                group.append("d_binary", Binary.fromConstantByteArray(binaryValue(random).unscaledValue().toByteArray()));
+                writer.write(group);
+            }
+        }
+    }
+
+    @Test
+    void testReadDecimalsAsDouble() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        final DoubleColumn int32 = table.doubleColumn("d_int32");
+        final DoubleColumn int64 = table.doubleColumn("d_int64");
+        final DoubleColumn fixed = table.doubleColumn("d_fixed");
+        final DoubleColumn binary = table.doubleColumn("d_binary");
+        final Random random = new Random(SEED);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(int32Value(random).doubleValue(), int32.getDouble(i), "Wrong int32 decimal at row " + i);
+            assertEquals(int64Value(random).doubleValue(), int64.getDouble(i), "Wrong int64 decimal at row " + i);
+            assertEquals(fixedValue(random).doubleValue(), fixed.getDouble(i), "Wrong fixed decimal at row " + i);
+            assertEquals(binaryValue(random).doubleValue(), binary.getDouble(i), "Wrong binary decimal at row " + i);
+        }
+    }
+
+    @Test
+    void testReadDecimalsAsFloat() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).minimizeColumnSizes().build());
+        final FloatColumn int32 = table.floatColumn("d_int32");
+        final FloatColumn int64 = table.floatColumn("d_int64");
+        final FloatColumn binary = table.floatColumn("d_binary");
+        final Random random = new Random(SEED);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            assertEquals(int32Value(random).floatValue(), int32.getFloat(i), "Wrong int32 decimal at row " + i);
+            assertEquals(int64Value(random).floatValue(), int64.getFloat(i), "Wrong int64 decimal at row " + i);
+            fixedValue(random);
+            assertEquals(binaryValue(random).floatValue(), binary.getFloat(i), "Wrong binary decimal at row " + i);
+        }
+    }
+
+    @Test
+    void testUnscaledLongFromBytes() {
+        final Random random = new Random(SEED);
+        for (int i = 0; i < 100_000; i++) {
+            final long expected = random.nextLong() >> random.nextInt(64);
+            final byte[] bytes = BigInteger.valueOf(expected).toByteArray();
+            final byte[] sliced = new byte[bytes.length + 2];
+            System.arraycopy(bytes, 0, sliced, 1, bytes.length);
+            assertEquals(expected, Decimals.unscaledLong(Binary.fromConstantByteArray(bytes)),
+                "Wrong unscaled value for " + expected);
+            assertEquals(expected, Decimals.unscaledLong(Binary.fromConstantByteArray(sliced, 1, bytes.length)),
+                "Wrong unscaled value for slice of " + expected);
+        }
+    }
+
+    @Test
+    void testSameValuesAsBigDecimal() {
+        final Random random = new Random(SEED);
+        for (int scale = 0; scale <= 30; scale++) {
+            for (int i = 0; i < 10_000; i++) {
+                final long unscaled = random.nextLong() >> random.nextInt(64);
+                final BigDecimal expected = BigDecimal.valueOf(unscaled, scale);
+                assertEquals(expected.doubleValue(), Decimals.toDouble(unscaled, scale), "Wrong double for " + expected);
+                assertEquals(expected.floatValue(), Decimals.toFloat(unscaled, scale), "Wrong float for " + expected);
+            }
+        }
+        assertEquals(BigDecimal.valueOf(Long.MIN_VALUE, 4).doubleValue(), Decimals.toDouble(Long.MIN_VALUE, 4),
+            "Wrong double for Long.MIN_VALUE");
+    }
+}
@@ -0,0 +1,139 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+
+import net.tlabs.tablesaw.parquet.TablesawParquetReadOptions.UnnanotatedBinaryAs;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+class TestDictionaryStrings {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/dictionary_strings.parquet";
+    private static final int ROW_COUNT = 20_000;
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message strings {"
+            + " optional binary category (STRING);"
+            + " optional binary unique (STRING);"
+            + " optional binary raw;"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        // Small dictionary page: the unique column falls back to plain encoding
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withDictionaryPageSize(8 * 1024).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup();
+                if (i % 10 != 0) {
+                    group.append("category", category(i));
+                }
+                group.append("unique", "unique-" + i);
+                group.append("raw", rawValue(i));
+                writer.write(group);
+            }
+        }
+    }
+
+    private static String category(final int i) {
+        return "category-" + (i % 7);
+    }
+
+    private static String rawValue(final int i) {
+        return "r" + (i % 5);
+    }
+
+    @Test
+    void testFileIsDictionaryEncoded() throws IOException {
+        try (final ParquetFileReader reader = ParquetFileReader.open(
+                new LocalInputFile(java.nio.file.Path.of(OUTPUT_FILE_NAME)))) {
+            final ColumnChunkMetaData category = reader.getRowGroups().get(0).getColumns().get(0);
+            assertTrue(category.getEncodings().stream().anyMatch(Encoding::usesDictionary),
+                "Category should use a dictionary");
+            final ColumnChunkMetaData unique = reader.getRowGroups().get(0).getColumns().get(1);
+            assertTrue(unique.getEncodings().contains(Encoding.PLAIN), "Unique should fall back to plain encoding");
+        }
+    }
+
+    @Test
+    void testDictionaryStrings() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertEquals(ROW_COUNT, table.rowCount(), "Wrong number of rows");
+        final StringColumn category = table.stringColumn("category");
+        final StringColumn unique = table.stringColumn("unique");
+        final StringColumn raw = table.stringColumn("raw");
+        for (int i = 0; i < ROW_COUNT; i++) {
+            if (i % 10 == 0) {
+                assertTrue(category.isMissing(i), "Category should be missing at row " + i);
+            } else {
+                assertEquals(category(i), category.get(i), "Wrong category at row " + i);
+            }
+            assertEquals("unique-" + i, unique.get(i), "Wrong unique value at row " + i);
+            assertEquals(rawValue(i), raw.get(i), "Wrong raw value at row " + i);
+        }
+        assertEquals(7, category.countUnique() - 1, "Wrong number of categories");
+    }
+
+    @Test
+    void testDictionaryHexStrings() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.HEXSTRING).build());
+        final StringColumn raw = table.stringColumn("raw");
+        assertEquals("72 30", raw.get(0), "Wrong hex value at row 0");
+        assertEquals("72 33", raw.get(3), "Wrong hex value at row 3");
+        assertEquals("72 33", raw.get(8), "Wrong hex value at row 8");
+    }
+
+    @Test
+    void testDictionaryStringsWithRecordFilter() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withRecordFilter(FilterApi.eq(FilterApi.binaryColumn("category"), Binary.fromString("category-3")))
+                .build());
+        assertTrue(table.rowCount() > 0, "Some rows should be read");
+        assertEquals(table.rowCount(), table.stringColumn("category").isEqualTo("category-3").size(),
+            "All rows should match the filter");
+    }
+}
@@ -0,0 +1,157 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import net.tlabs.tablesaw.parquet.TablesawParquetReadOptions.ManageGroupsAs;
+import tech.tablesaw.api.ColumnType;
+import tech.tablesaw.api.Table;
+
+class TestExplodedFields {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/exploded.parquet";
+    private static final String PARENT_ROW = TablesawParquetTables.PARENT_ROW_COLUMN;
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message exploded {"
+        + " required int32 id;"
+        + " repeated binary tags (STRING);"
+        + " optional group scores (LIST) {"
+        + "  repeated group list {"
+        + "   optional double element;"
+        + "  }"
+        + " }"
+        + " optional group attrs (MAP) {"
+        + "  repeated group key_value {"
+        + "   required binary key (STRING);"
+        + "   optional int64 value;"
+        + "  }"
+        + " }"
+        + " optional group point {"
+        + "  required double x;"
+        + "  required double y;"
+        + " }"
+        + " }");
+
+    @BeforeAll
+    static void writeNestedFile() throws IOException {
+        final SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(SCHEMA).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            final Group row0 = factory.newGroup().append("id", 0).append("tags", "a").append("tags", "b");
+            final Group scores0 = row0.addGroup("scores");
+            scores0.addGroup("list").append("element", 1.5);
+            scores0.addGroup("list");
+            scores0.addGroup("list").append("element", 2.5);
+            row0.addGroup("attrs").addGroup("key_value").append("key", "k0").append("value", 10L);
+            row0.addGroup("point").append("x", 1.0).append("y", 2.0);
+            writer.write(row0);
+            final Group row1 = factory.newGroup().append("id", 1).append("tags", "c");
+            row1.addGroup("scores").addGroup("list").append("element", 3.5);
+            final Group attrs1 = row1.addGroup("attrs");
+            attrs1.addGroup("key_value").append("key", "k1");
+            attrs1.addGroup("key_value").append("key", "k2").append("value", 12L);
+            writer.write(row1);
+            final Group row2 = factory.newGroup().append("id", 2).append("tags", "d").append("tags", "e");
+            row2.addGroup("scores");
+            writer.write(row2);
+        }
+    }
+
+    @Test
+    void testExplodedChildTables() {
+        final TablesawParquetTables tables = new TablesawParquetReader().readWithChildTables(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withManageGroupAs(ManageGroupsAs.EXPLODE).build());
+        final Table table = tables.getTable();
+        assertEquals(Arrays.asList("id", "point"), table.columnNames(), "Exploded fields should not be columns");
+        assertEquals(3, table.rowCount(), "Wrong number of rows");
+        assertEquals("[x: 1.0, y: 2.0]", table.stringColumn("point").get(0), "Other groups should be read as text");
+        assertEquals(Arrays.asList("tags", "scores", "attrs"), List.copyOf(tables.getChildTables().keySet()),
+            "Wrong child tables");
+
+        final Table tags = tables.getChildTable("tags");
+        assertEquals(Arrays.asList(PARENT_ROW, "tags"), tags.columnNames(), "Wrong tags columns");
+        assertEquals(Arrays.asList(0, 0, 1, 2, 2), tags.intColumn(PARENT_ROW).asList(), "Wrong tags parent rows");
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), tags.stringColumn("tags").asList(), "Wrong tags");
+
+        final Table scores = tables.getChildTable("scores");
+        assertEquals(ColumnType.DOUBLE, scores.column("element").type(), "Wrong list element type");
+        assertEquals(Arrays.asList(0, 0, 0, 1), scores.intColumn(PARENT_ROW).asList(), "Wrong list parent rows");
+        assertEquals(1.5, scores.doubleColumn("element").getDouble(0), "Wrong list element");
+        assertTrue(scores.doubleColumn("element").isMissing(1), "Null list element should be missing");
+        assertEquals(2.5, scores.doubleColumn("element").getDouble(2), "Wrong list element");
+        assertEquals(3.5, scores.doubleColumn("element").getDouble(3), "Wrong list element");
+
+        final Table attrs = tables.getChildTable("attrs");
+        assertEquals(Arrays.asList(PARENT_ROW, "key", "value"), attrs.columnNames(), "Wrong map columns");
+        assertEquals(Arrays.asList(0, 1, 1), attrs.intColumn(PARENT_ROW).asList(), "Wrong map parent rows");
+        assertEquals(Arrays.asList("k0", "k1", "k2"), attrs.stringColumn("key").asList(), "Wrong map keys");
+        assertEquals(10L, attrs.longColumn("value").getLong(0), "Wrong map value");
+        assertTrue(attrs.longColumn("value").isMissing(1), "Null map value should be missing");
+        assertEquals(12L, attrs.longColumn("value").getLong(2), "Wrong map value");
+    }
+
+    @Test
+    void testExplodedChildTablesWithRecordFilter() {
+        final TablesawParquetTables tables = new TablesawParquetReader().readWithChildTables(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withManageGroupAs(ManageGroupsAs.EXPLODE)
+                .withRecordFilter(FilterApi.notEq(FilterApi.intColumn("id"), 1)).build());
+        assertEquals(Arrays.asList(0, 2), tables.getTable().intColumn("id").asList(), "Wrong filtered rows");
+        final Table tags = tables.getChildTable("tags");
+        assertEquals(Arrays.asList(0, 0, 1, 1), tags.intColumn(PARENT_ROW).asList(), "Wrong tags parent rows");
+        assertEquals(Arrays.asList("a", "b", "d", "e"), tags.stringColumn("tags").asList(),
+            "Values of skipped rows should not be kept");
+        assertEquals(3, tables.getChildTable("scores").rowCount(), "Values of skipped rows should not be kept");
+        assertEquals(1, tables.getChildTable("attrs").rowCount(), "Values of skipped rows should not be kept");
+    }
+
+    @Test
+    void testExplodedFieldsOmittedFromMainTable() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withManageGroupAs(ManageGroupsAs.EXPLODE).build());
+        assertEquals(Arrays.asList("id", "point"), table.columnNames(), "Exploded fields should not be columns");
+        assertEquals(3, table.rowCount(), "Wrong number of rows");
+    }
+
+    @Test
+    void testUnknownChildTable() {
+        final TablesawParquetTables tables = new TablesawParquetReader().readWithChildTables(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertTrue(tables.getChildTables().isEmpty(), "Fields should only be exploded with EXPLODE");
+        assertThrows(IllegalArgumentException.class, () -> tables.getChildTable("tags"),
+            "Unknown child table should throw");
+    }
+}
@@ -0,0 +1,218 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.apache.parquet.filter2.predicate.FilterApi.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+
+class TestFilterReport {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/filter_report.parquet";
+    private static final int ROW_GROUP_ROWS = 1000;
+    private static final int PAGE_ROWS = 100;
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        // 4 row groups of 10 pages: "x"/"y" in the 3rd row group, "b" only in the first page of the 2nd one
+        final MessageType schema = MessageTypeParser.parseMessageType("message filter_report {"
+            + " required int32 id;"
+            + " required binary category (STRING);"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupRowCountLimit(ROW_GROUP_ROWS).withPageRowCountLimit(PAGE_ROWS).build()) {
+            for (int i = 0; i < 4 * ROW_GROUP_ROWS; i++) {
+                writer.write(factory.newGroup().append("id", i).append("category", category(i)));
+            }
+        }
+    }
+
+    private static String category(final int row) {
+        final int rowGroup = row / ROW_GROUP_ROWS;
+        if (rowGroup == 1) {
+            return row < ROW_GROUP_ROWS + PAGE_ROWS ? "b" : "a";
+        }
+        if (rowGroup == 2) {
+            return row % 2 == 0 ? "x" : "y";
+        }
+        return row % 2 == 0 ? "a" : "c";
+    }
+
+    private static TablesawParquetFilterReport read(final TablesawParquetReadOptions.Builder builder) {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(builder
+            .withRecordFilter(eq(binaryColumn("category"), Binary.fromString("b")))
+            .withFilterReport(report::set)
+            .build());
+        assertEquals(PAGE_ROWS, table.rowCount(), "Wrong number of rows");
+        assertNotNull(report.get(), "Report not received");
+        assertEquals(4, report.get().getRowGroupCount(), "Wrong number of row groups");
+        assertEquals(4L * ROW_GROUP_ROWS, report.get().getRowCount(), "Wrong number of rows in the file");
+        assertEquals(0, report.get().getRowGroupsSkippedByBloomFilter(), "Wrong row groups skipped by bloom filter");
+        return report.get();
+    }
+
+    @Test
+    void testAllFilterLevels() {
+        final TablesawParquetFilterReport report = read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME));
+        assertEquals(1, report.getRowGroupsSkippedByStatistics(), "Wrong row groups skipped by statistics");
+        assertEquals(2, report.getRowGroupsSkippedByDictionary(), "Wrong row groups skipped by dictionary");
+        assertEquals(1, report.getRowGroupsRead(), "Wrong row groups read");
+        assertTrue(report.getPageCount() >= 2 * ROW_GROUP_ROWS / PAGE_ROWS, "Wrong page count: " + report);
+        assertEquals(2, report.getPagesRead(), "Wrong pages read: " + report);
+        assertEquals(report.getPageCount() - 2, report.getPagesSkipped(), "Wrong pages skipped: " + report);
+        assertTrue(report.getCandidateRowCount() < ROW_GROUP_ROWS, "Wrong candidate rows: " + report);
+    }
+
+    @Test
+    void testWithoutStatisticsFilter() {
+        final TablesawParquetFilterReport report = read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withStatisticsFilter(false));
+        assertEquals(0, report.getRowGroupsSkippedByStatistics(), "Wrong row groups skipped by statistics");
+        assertEquals(3, report.getRowGroupsSkippedByDictionary(), "Wrong row groups skipped by dictionary");
+        assertEquals(1, report.getRowGroupsRead(), "Wrong row groups read");
+    }
+
+    @Test
+    void testWithoutAnyFilterLevel() {
+        final TablesawParquetFilterReport report = read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withStatisticsFilter(false).withDictionaryFilter(false).withColumnIndexFilter(false));
+        assertEquals(0, report.getRowGroupsSkippedByStatistics(), "Wrong row groups skipped by statistics");
+        assertEquals(0, report.getRowGroupsSkippedByDictionary(), "Wrong row groups skipped by dictionary");
+        assertEquals(4, report.getRowGroupsRead(), "Wrong row groups read");
+        assertEquals(report.getPageCount(), report.getPagesRead(), "Wrong pages read: " + report);
+        assertEquals(4L * ROW_GROUP_ROWS, report.getCandidateRowCount(), "Wrong candidate rows: " + report);
+    }
+
+    @Test
+    void testWithoutRecordFilter() {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader().iterator(
+                TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withFilterReport(report::set).build())) {
+            iterator.forEachRemaining(table -> assertEquals(ROW_GROUP_ROWS, table.rowCount(), "Wrong batch size"));
+            assertNull(report.get(), "Report received before the iterator is closed");
+        }
+        assertNotNull(report.get(), "Report not received");
+        assertEquals(4, report.get().getRowGroupsRead(), "Wrong row groups read");
+        assertTrue(report.get().getPageCount() >= 8 * ROW_GROUP_ROWS / PAGE_ROWS, "Wrong page count");
+        assertEquals(0, report.get().getPagesSkipped(), "Wrong pages skipped");
+        assertEquals(4L * ROW_GROUP_ROWS, report.get().getCandidateRowCount(), "Wrong candidate rows");
+    }
+
+    @Test
+    void testRowGroupSkippedByColumnIndex() {
+        // "b" and ids above the first page of the 2nd row group are never in the same page
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(and(eq(binaryColumn("category"), Binary.fromString("b")),
+                gt(intColumn("id"), ROW_GROUP_ROWS + PAGE_ROWS)))
+            .withFilterReport(report::set)
+            .build());
+        assertEquals(0, table.rowCount(), "Wrong number of rows");
+        assertEquals(2, report.get().getRowGroupsSkippedByStatistics(), "Wrong row groups skipped by statistics");
+        assertEquals(1, report.get().getRowGroupsSkippedByDictionary(), "Wrong row groups skipped by dictionary");
+        assertEquals(1, report.get().getRowGroupsSkippedByColumnIndex(), "Wrong row groups skipped by column index");
+        assertEquals(0, report.get().getRowGroupsRead(), "Wrong row groups read");
+        assertEquals(0, report.get().getPageCount(), "Wrong page count");
+        assertEquals(0, report.get().getCandidateRowCount(), "Wrong candidate rows");
+    }
+
+    @Test
+    void testRowLimitWithFilter() {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(eq(binaryColumn("category"), Binary.fromString("a")))
+            .withRowLimit(10)
+            .withFilterReport(report::set)
+            .build());
+        assertEquals(10, table.rowCount(), "Wrong number of rows");
+        // only the first of the 3 row groups left by the statistics is read
+        assertEquals(1, report.get().getRowGroupsSkippedByStatistics(), "Wrong row groups skipped by statistics");
+        assertEquals(0, report.get().getRowGroupsSkippedByDictionary(), "Wrong row groups skipped by dictionary");
+        assertEquals(1, report.get().getRowGroupsRead(), "Wrong row groups read: " + report.get());
+        assertEquals(2 * ROW_GROUP_ROWS / PAGE_ROWS, report.get().getPageCount(), "Wrong page count");
+        assertEquals(0, report.get().getPagesSkipped(), "Wrong pages skipped");
+        assertEquals(ROW_GROUP_ROWS, report.get().getCandidateRowCount(), "Wrong candidate rows");
+    }
+
+    @Test
+    void testRowRangeWithFilter() {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(eq(binaryColumn("category"), Binary.fromString("b")))
+            .withRowRange(ROW_GROUP_ROWS + PAGE_ROWS / 2, 4L * ROW_GROUP_ROWS)
+            .withFilterReport(report::set)
+            .build());
+        assertEquals(PAGE_ROWS / 2, table.rowCount(), "Wrong number of rows");
+        assertEquals(1, report.get().getRowGroupsRead(), "Wrong row groups read");
+        assertEquals(2 * ROW_GROUP_ROWS / PAGE_ROWS, report.get().getPageCount(), "Wrong page count");
+        assertEquals(2, report.get().getPagesRead(), "Wrong pages read: " + report.get());
+        assertEquals(PAGE_ROWS / 2, report.get().getCandidateRowCount(), "Wrong candidate rows");
+    }
+
+    @Test
+    void testRowRangeOutsideFilteredPages() {
+        // the range overlaps the 2nd row group, but not its first page holding the "b" rows
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(eq(binaryColumn("category"), Binary.fromString("b")))
+            .withRowRange(ROW_GROUP_ROWS + PAGE_ROWS, 2L * ROW_GROUP_ROWS)
+            .withFilterReport(report::set)
+            .build());
+        assertEquals(0, table.rowCount(), "Wrong number of rows");
+        assertEquals(0, report.get().getRowGroupsRead(), "Wrong row groups read");
+        assertEquals(0, report.get().getRowGroupsSkippedByColumnIndex(), "Wrong row groups skipped by column index");
+        assertEquals(0, report.get().getPageCount(), "Wrong page count");
+    }
+
+    @Test
+    void testConcurrentReadWithFilter() {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(eq(binaryColumn("category"), Binary.fromString("a")))
+            .withParallelism(3)
+            .withFilterReport(report::set)
+            .build());
+        assertEquals(2 * ROW_GROUP_ROWS - PAGE_ROWS, table.rowCount(), "Wrong number of rows");
+        assertEquals(1, report.get().getRowGroupsSkippedByStatistics(), "Wrong row groups skipped by statistics");
+        assertEquals(3, report.get().getRowGroupsRead(), "Wrong row groups read");
+        assertEquals(6 * ROW_GROUP_ROWS / PAGE_ROWS, report.get().getPageCount(), "Wrong page count");
+        assertEquals(2, report.get().getPagesSkipped(), "Wrong pages skipped: " + report.get());
+    }
+}
@@ -0,0 +1,109 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+class TestGroupTextConverter {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/group_text.parquet";
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message people {"
+        + " required int32 id;"
+        + " optional group person {"
+        + "  required binary name (STRING);"
+        + "  optional int32 age;"
+        + "  required int64 amount (DECIMAL(10,2));"
+        + "  optional fixed_len_byte_array(16) wide (DECIMAL(38,4));"
+        + "  repeated group address {"
+        + "   required binary city (STRING);"
+        + "   optional boolean main;"
+        + "  }"
+        + "  optional group scores {"
+        + "   optional double score;"
+        + "   optional float ratio;"
+        + "  }"
+        + " }"
+        + " }");
+
+    @BeforeAll
+    static void writeNestedFile() throws IOException {
+        final SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(SCHEMA).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            final Group ann = factory.newGroup().append("id", 0);
+            final Group annPerson = ann.addGroup("person").append("name", "Ann").append("age", 30)
+                .append("amount", 12_345L);
+            annPerson.addGroup("address").append("city", "Paris").append("main", true);
+            annPerson.addGroup("address").append("city", "Lyon");
+            annPerson.addGroup("scores").append("score", 1.5d).append("ratio", 0.25f);
+            writer.write(ann);
+            writer.write(factory.newGroup().append("id", 1));
+            final Group bob = factory.newGroup().append("id", 2);
+            bob.addGroup("person").append("name", "Bob").append("amount", -5L)
+                .append("wide", wideDecimal(new BigInteger("-12345678901234567890123")));
+            writer.write(bob);
+            final Group eve = factory.newGroup().append("id", 3);
+            eve.addGroup("person").append("name", "Eve").append("amount", 0L).addGroup("scores");
+            writer.write(eve);
+        }
+    }
+
+    private static Binary wideDecimal(final BigInteger unscaled) {
+        final byte[] bytes = unscaled.toByteArray();
+        final byte[] padded = new byte[16];
+        Arrays.fill(padded, 0, padded.length - bytes.length, unscaled.signum() < 0 ? (byte) -1 : 0);
+        System.arraycopy(bytes, 0, padded, padded.length - bytes.length, bytes.length);
+        return Binary.fromConstantByteArray(padded);
+    }
+
+    @Test
+    void testNestedGroupsAsText() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertEquals(4, table.rowCount(), "Wrong number of rows");
+        final StringColumn person = table.stringColumn("person");
+        assertEquals("[name: Ann, age: 30, amount: 123.45, address: [city: Paris, main: true],"
+            + " address: [city: Lyon], scores: [score: 1.5, ratio: 0.25]]", person.get(0), "Wrong group value");
+        assertTrue(person.isMissing(1), "Group value should be missing");
+        assertEquals("[name: Bob, amount: -0.05, wide: -1234567890123456789.0123]", person.get(2),
+            "Wrong group value");
+        assertEquals("[name: Eve, amount: 0.00, scores: []]", person.get(3), "Wrong group value");
+    }
+}
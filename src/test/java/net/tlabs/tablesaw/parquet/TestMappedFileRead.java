@@ -0,0 +1,93 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import net.tlabs.tablesaw.parquet.TablesawParquetWriteOptions.CompressionCodec;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.io.RuntimeIOException;
+import tech.tablesaw.io.Source;
+
+class TestMappedFileRead {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/mapped_file.parquet";
+    private static final Table FLAT_TABLE = TestColumnChunkRead.createFlatTable(10_000);
+    private static final byte[] FOOTER_KEY = "0123456789012345".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] COLUMN_KEY = "1234567890123450".getBytes(StandardCharsets.UTF_8);
+
+    private static void writeFile(final TablesawParquetWriteOptions.Builder builder) {
+        new TablesawParquetWriter().write(FLAT_TABLE, builder.withOverwrite(true).withRowGroupSize(16 * 1024).build());
+    }
+
+    @ParameterizedTest
+    @EnumSource(CompressionCodec.class)
+    void testReadCompressedFile(final CompressionCodec codec) {
+        writeFile(TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME).withCompressionCode(codec));
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testReadFromFileAndFileURI() {
+        writeFile(TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME));
+        final File file = new File(OUTPUT_FILE_NAME);
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(file).build()));
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(file.getAbsoluteFile().toURI().toString()).build()));
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, new TablesawParquetReader().read(new Source(file)));
+    }
+
+    @Test
+    void testReadEncryptedFile() {
+        writeFile(TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME).withEncryption(FOOTER_KEY)
+            .withEncryptedColumns(Collections.singletonMap("string", COLUMN_KEY)));
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withFooterKey(FOOTER_KEY).withColumnKeys(Collections.singletonMap("string", COLUMN_KEY)).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testParallelReadOnMappedFile() {
+        writeFile(TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME));
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withParallelism(4).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testMissingFile() {
+        final TablesawParquetReadOptions options =
+            TablesawParquetReadOptions.builder("target/test/results/does_not_exist.parquet").build();
+        final TablesawParquetReader reader = new TablesawParquetReader();
+        assertThrows(RuntimeIOException.class, () -> reader.read(options), "Reading a missing file should fail");
+    }
+}
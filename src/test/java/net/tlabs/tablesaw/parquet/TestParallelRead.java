@@ -0,0 +1,116 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.LocalInputFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+
+class TestParallelRead {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/parallel.parquet";
+    private static final String ENCRYPTED_FILE_NAME = "target/test/results/parallel_encrypted.parquet";
+    private static final byte[] FOOTER_ENCRYPTION_KEY = "abcdefghijklmnop".getBytes();
+    private static final Table FLAT_TABLE = TestColumnChunkRead.createFlatTable(20_000);
+
+    @BeforeAll
+    static void writeFiles() {
+        final TablesawParquetWriter writer = new TablesawParquetWriter();
+        writer.write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(16 * 1024).build());
+        writer.write(FLAT_TABLE, TablesawParquetWriteOptions.builder(ENCRYPTED_FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(16 * 1024).withEncryption(FOOTER_ENCRYPTION_KEY).build());
+    }
+
+    @Test
+    void testSeveralRowGroups() throws IOException {
+        try (final ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(Path.of(OUTPUT_FILE_NAME)))) {
+            assertTrue(reader.getRowGroups().size() > 4, "Test file should have more than 4 row groups");
+        }
+    }
+
+    @Test
+    void testParallelismValidation() {
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME);
+        assertThrows(IllegalArgumentException.class, () -> builder.withParallelism(0));
+    }
+
+    @Test
+    void testDefaultParallelism() {
+        assertEquals(1, TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build().getParallelism(),
+            "Default parallelism should be 1");
+    }
+
+    @Test
+    void testParallelRead() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withParallelism(4).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testParallelismGreaterThanRowGroups() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withParallelism(1_000).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testParallelReadWithExecutor() {
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final Table table = new TablesawParquetReader()
+                .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withExecutor(executor).build());
+            TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+            assertFalse(executor.isShutdown(), "User-provided executor should not be shut down");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testParallelReadWithRecordFilter() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withParallelism(4)
+                .withRecordFilter(FilterApi.lt(FilterApi.longColumn("long"), 12_345_000_000_000L)).build());
+        TestColumnChunkRead.assertSameValues(
+            FLAT_TABLE.where(FLAT_TABLE.longColumn("long").isLessThan(12_345_000_000_000L)), table);
+    }
+
+    @Test
+    void testParallelReadWithDecryption() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(ENCRYPTED_FILE_NAME).withParallelism(4)
+                .withFooterKey(FOOTER_ENCRYPTION_KEY).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+}
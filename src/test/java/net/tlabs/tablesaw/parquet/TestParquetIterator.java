@@ -0,0 +1,150 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.io.LocalInputFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+
+class TestParquetIterator {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/iterator.parquet";
+    private static final String NESTED_FILE_NAME = "target/test/results/iterator_nested.parquet";
+    private static final int ROW_COUNT = 20_000;
+    private static final Table FLAT_TABLE = TestColumnChunkRead.createFlatTable(ROW_COUNT);
+
+    @BeforeAll
+    static void writeFiles() throws IOException {
+        new TablesawParquetWriter().write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(16 * 1024).build());
+        TestColumnChunkRead.writeNestedFile(NESTED_FILE_NAME, 1_000);
+    }
+
+    private static List<Table> readAll(final TablesawParquetReadOptions options) {
+        final List<Table> tables = new ArrayList<>();
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader().iterator(options)) {
+            iterator.forEachRemaining(tables::add);
+        }
+        return tables;
+    }
+
+    private static Table concat(final List<Table> tables) {
+        final Table result = tables.get(0).emptyCopy();
+        tables.forEach(result::append);
+        return result;
+    }
+
+    @Test
+    void testOneTablePerRowGroup() throws IOException {
+        final int rowGroupCount;
+        try (final ParquetFileReader reader = ParquetFileReader.open(new LocalInputFile(Path.of(OUTPUT_FILE_NAME)))) {
+            rowGroupCount = reader.getRowGroups().size();
+        }
+        assertTrue(rowGroupCount > 1, "Test file should have several row groups");
+        final List<Table> tables = readAll(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertEquals(rowGroupCount, tables.size(), "Wrong number of tables");
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, concat(tables));
+    }
+
+    @Test
+    void testBatchSize() {
+        final List<Table> tables = readAll(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withBatchSize(3_000).build());
+        assertEquals(7, tables.size(), "Wrong number of tables");
+        for (int i = 0; i < 6; i++) {
+            assertEquals(3_000, tables.get(i).rowCount(), "Wrong number of rows in table " + i);
+        }
+        assertEquals(2_000, tables.get(6).rowCount(), "Wrong number of rows in last table");
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, concat(tables));
+    }
+
+    @Test
+    void testBatchSizeWithRecordFilter() {
+        final List<Table> tables = readAll(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withBatchSize(1_000)
+            .withRecordFilter(FilterApi.gt(FilterApi.intColumn("int"), 14_500)).build());
+        final Table expected = FLAT_TABLE.where(FLAT_TABLE.intColumn("int").isGreaterThan(14_500));
+        assertEquals((expected.rowCount() + 999) / 1_000, tables.size(), "Wrong number of tables");
+        TestColumnChunkRead.assertSameValues(expected, concat(tables));
+    }
+
+    @Test
+    void testBatchSizeWithNestedSchema() {
+        final List<Table> tables = readAll(TablesawParquetReadOptions.builder(NESTED_FILE_NAME)
+            .withBatchSize(300).build());
+        assertEquals(4, tables.size(), "Wrong number of tables");
+        final Table table = concat(tables);
+        assertEquals(1_000, table.rowCount(), "Wrong number of rows");
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i, table.intColumn("id").getInt(i), "Wrong id at row " + i);
+        }
+        assertEquals("[0, 1]", table.stringColumn("values").get(302), "Wrong repeated value");
+        assertEquals("[x: 151.0, y: 604.0]", table.stringColumn("point").get(302), "Wrong group value");
+    }
+
+    @Test
+    void testStream() {
+        try (final Stream<Table> stream = new TablesawParquetReader()
+                .stream(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withBatchSize(5_000).build())) {
+            final List<Integer> rowCounts = stream.map(Table::rowCount).collect(Collectors.toList());
+            assertEquals(List.of(5_000, 5_000, 5_000, 5_000), rowCounts, "Wrong table row counts");
+        }
+    }
+
+    @Test
+    void testIteratorExhausted() {
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader()
+                .iterator(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withBatchSize(ROW_COUNT).build())) {
+            assertTrue(iterator.hasNext(), "Iterator should have a table");
+            assertEquals(ROW_COUNT, iterator.next().rowCount(), "Wrong number of rows");
+            assertFalse(iterator.hasNext(), "Iterator should be exhausted");
+            assertThrows(NoSuchElementException.class, iterator::next);
+        }
+    }
+
+    @Test
+    void testIteratorClosed() {
+        final TablesawParquetIterator iterator = new TablesawParquetReader()
+            .iterator(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        iterator.close();
+        assertFalse(iterator.hasNext(), "Closed iterator should not have tables");
+    }
+
+    @Test
+    void testBatchSizeValidation() {
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME);
+        assertThrows(IllegalArgumentException.class, () -> builder.withBatchSize(-1));
+    }
+}
@@ -0,0 +1,168 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.ColumnType;
+import tech.tablesaw.api.Table;
+
+class TestParquetMetadata {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/metadata.parquet";
+    private static final String CORRUPTED_FILE_NAME = "target/test/results/metadata_corrupted.parquet";
+    private static final String PANDAS_FILE_NAME = "target/test-classes/pandas_pyarrow.parquet";
+    private static final int ROW_COUNT = 1_000;
+    private static final int ROW_GROUP_ROWS = 300;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    @BeforeAll
+    static void writeFiles() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message metadata {"
+            + " required int32 id;"
+            + " optional binary name (STRING);"
+            + " optional double value;"
+            + " optional int64 time (TIMESTAMP(MILLIS,true));"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withCompressionCodec(CompressionCodecName.SNAPPY)
+                .withRowGroupRowCountLimit(ROW_GROUP_ROWS).withPageRowCountLimit(100).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup().append("id", i).append("value", i / 2.0)
+                    .append("time", 1_600_000_000_000L + i);
+                if (i % 2 == 0) {
+                    group.append("name", "name_" + i);
+                }
+                writer.write(group);
+            }
+        }
+        // no page can be decoded
+        TestRowLimit.corruptPages(OUTPUT_FILE_NAME, CORRUPTED_FILE_NAME, firstRow -> true);
+    }
+
+    private static void assertSameStructure(final Table expected, final Table actual) {
+        assertEquals(expected.columnNames(), actual.columnNames(), "Wrong column names");
+        assertEquals(expected.types(), actual.types(), "Wrong column types");
+    }
+
+    @Test
+    void testSchemaMatchesRead() {
+        final TablesawParquetReadOptions options = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build();
+        final Table schema = READER.readSchema(options);
+        assertEquals(0, schema.rowCount(), "Schema should be empty");
+        assertEquals(List.of(ColumnType.INTEGER, ColumnType.STRING, ColumnType.DOUBLE, ColumnType.INSTANT),
+            schema.types(), "Wrong column types");
+        assertSameStructure(READER.read(options), schema);
+    }
+
+    @Test
+    void testSchemaWithOptions() {
+        final TablesawParquetReadOptions options = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withOnlyTheseColumns("time", "id")
+            .columnTypesPartial(Collections.singletonMap("time", ColumnType.LONG))
+            .build();
+        final Table schema = READER.readSchema(options);
+        assertEquals(List.of("time", "id"), schema.columnNames(), "Wrong column names");
+        assertEquals(List.of(ColumnType.LONG, ColumnType.INTEGER), schema.types(), "Wrong column types");
+        assertSameStructure(READER.read(options), schema);
+    }
+
+    @Test
+    void testSchemaOfPandasFile() {
+        final TablesawParquetReadOptions options = TablesawParquetReadOptions.builder(PANDAS_FILE_NAME).build();
+        assertSameStructure(READER.read(options), READER.readSchema(options));
+    }
+
+    @Test
+    void testRowGroups() {
+        final TablesawParquetMetadata metadata =
+            READER.readMetadata(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertEquals(ROW_COUNT, metadata.getRowCount(), "Wrong row count");
+        final List<TablesawParquetMetadata.RowGroup> rowGroups = metadata.getRowGroups();
+        assertEquals(4, rowGroups.size(), "Wrong number of row groups");
+        long firstRow = 0;
+        for (final TablesawParquetMetadata.RowGroup rowGroup : rowGroups) {
+            assertEquals(firstRow, rowGroup.getFirstRowIndex(), "Wrong first row index");
+            assertEquals(Math.min(ROW_GROUP_ROWS, ROW_COUNT - firstRow), rowGroup.getRowCount(), "Wrong row count");
+            assertEquals(4, rowGroup.getColumns().size(), "Wrong number of column chunks");
+            assertEquals(rowGroup.getCompressedSize(), rowGroup.getColumns().stream()
+                .mapToLong(TablesawParquetMetadata.ColumnChunk::getCompressedSize).sum(), "Wrong compressed size");
+            assertTrue(rowGroup.getUncompressedSize() > 0, "Uncompressed size not set");
+            firstRow += rowGroup.getRowCount();
+        }
+        assertEquals(rowGroups.stream().mapToLong(TablesawParquetMetadata.RowGroup::getCompressedSize).sum(),
+            metadata.getCompressedSize(), "Wrong file compressed size");
+        assertTrue(metadata.getCreatedBy().startsWith("parquet-mr"), "Wrong writer");
+    }
+
+    @Test
+    void testColumnChunks() {
+        final TablesawParquetMetadata.RowGroup rowGroup =
+            READER.readMetadata(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build()).getRowGroups().get(1);
+        final TablesawParquetMetadata.ColumnChunk id = rowGroup.getColumns().get(0);
+        assertEquals("id", id.getPath(), "Wrong column path");
+        assertEquals(CompressionCodecName.SNAPPY, id.getCodec(), "Wrong codec");
+        assertEquals(ROW_GROUP_ROWS, id.getValueCount(), "Wrong value count");
+        assertTrue(id.getUncompressedSize() > 0, "Uncompressed size not set");
+        assertEquals(ROW_GROUP_ROWS, id.getStatistics().genericGetMin(), "Wrong min");
+        assertEquals(2 * ROW_GROUP_ROWS - 1, id.getStatistics().genericGetMax(), "Wrong max");
+        assertEquals(0, id.getStatistics().getNumNulls(), "Wrong null count");
+        final TablesawParquetMetadata.ColumnChunk name = rowGroup.getColumns().get(1);
+        assertEquals("name", name.getPath(), "Wrong column path");
+        assertEquals(ROW_GROUP_ROWS / 2, name.getStatistics().getNumNulls(), "Wrong null count");
+    }
+
+    @Test
+    void testRecordFilterNotUsed() {
+        final TablesawParquetMetadata metadata = READER.readMetadata(TablesawParquetReadOptions
+            .builder(OUTPUT_FILE_NAME).withRecordFilter(FilterApi.lt(FilterApi.intColumn("id"), 10)).build());
+        assertEquals(4, metadata.getRowGroups().size(), "Row groups should not be filtered");
+        assertEquals(ROW_COUNT, metadata.getRowCount(), "Wrong row count");
+    }
+
+    @Test
+    void testNoPageRead() {
+        final TablesawParquetReadOptions options = TablesawParquetReadOptions.builder(CORRUPTED_FILE_NAME).build();
+        assertThrows(RuntimeException.class, () -> READER.read(options), "Corrupted file should not be readable");
+        final TablesawParquetMetadata metadata = READER.readMetadata(options);
+        assertEquals(ROW_COUNT, metadata.getRowCount(), "Wrong row count");
+        assertEquals(4, metadata.getSchema().columnCount(), "Wrong number of columns");
+    }
+}
@@ -0,0 +1,289 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static net.tlabs.tablesaw.parquet.TablesawParquetPredicate.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+
+class TestParquetPredicate {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/predicates.parquet";
+    private static final int ROW_COUNT = 1000;
+    private static final int ROW_GROUP_ROWS = 100;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2020, 1, 1);
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message predicates {"
+        + " required int32 id;"
+        + " optional binary name (STRING);"
+        + " required int32 day (DATE);"
+        + " required int64 ts (TIMESTAMP(MICROS,true));"
+        + " required int64 local_ts (TIMESTAMP(MILLIS,false));"
+        + " required int32 price (DECIMAL(9,2));"
+        + " required fixed_len_byte_array(16) big (DECIMAL(38,10));"
+        + " optional boolean flag;"
+        + " required float ratio;"
+        + " required double score;"
+        + " }");
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        final SimpleGroupFactory factory = new SimpleGroupFactory(SCHEMA);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(SCHEMA).withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupRowCountLimit(ROW_GROUP_ROWS).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup()
+                    .append("id", i)
+                    .append("day", (int) FIRST_DAY.plusDays(i).toEpochDay())
+                    .append("ts", i * 1_000_000L)
+                    .append("local_ts", i * 1_000L)
+                    .append("price", i * 25)
+                    .append("big", fixedDecimal(BigInteger.valueOf(i - 500).multiply(BigInteger.valueOf(15_000_000_000L))))
+                    .append("ratio", ratio(i))
+                    .append("score", score(i));
+                if (i % 10 != 0) {
+                    group.append("name", "name_" + i % 50);
+                }
+                if (i % 7 != 0) {
+                    group.append("flag", i % 3 == 0);
+                }
+                writer.write(group);
+            }
+        }
+    }
+
+    private static float ratio(final int row) {
+        return row * 0.1f;
+    }
+
+    private static double score(final int row) {
+        return row / 3.0;
+    }
+
+    private static Binary fixedDecimal(final BigInteger unscaled) {
+        final byte[] bytes = unscaled.toByteArray();
+        final byte[] fixed = new byte[16];
+        Arrays.fill(fixed, unscaled.signum() < 0 ? (byte) 0xFF : 0);
+        System.arraycopy(bytes, 0, fixed, 16 - bytes.length, bytes.length);
+        return Binary.fromConstantByteArray(fixed);
+    }
+
+    private static Table read(final TablesawParquetPredicate predicate, final IntPredicate expectedIds) {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withRecordFilter(predicate).build());
+        final int[] expected = IntStream.range(0, ROW_COUNT).filter(expectedIds).toArray();
+        assertArrayEquals(expected, table.intColumn("id").asIntArray(), "Wrong rows for " + predicate);
+        return table;
+    }
+
+    private static TablesawParquetFilterReport report(final TablesawParquetPredicate predicate) {
+        final AtomicReference<TablesawParquetFilterReport> report = new AtomicReference<>();
+        new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(predicate).withFilterReport(report::set).build());
+        return report.get();
+    }
+
+    @Test
+    void testIntegerPredicates() {
+        read(column("id").isEqualTo(42), i -> i == 42);
+        read(column("id").isNotEqualTo(42), i -> i != 42);
+        read(column("id").isLessThan(42), i -> i < 42);
+        read(column("id").isLessThanOrEqualTo(42), i -> i <= 42);
+        read(column("id").isGreaterThan(942), i -> i > 942);
+        read(column("id").isGreaterThanOrEqualTo(942), i -> i >= 942);
+        read(column("id").isBetweenInclusive(100, 199), i -> i >= 100 && i <= 199);
+        read(column("id").isIn(3, 500, 999), i -> i == 3 || i == 500 || i == 999);
+        read(column("id").isNotIn(Arrays.asList(3, 500)), i -> i != 3 && i != 500);
+        // values between two integers are rounded according to the comparison
+        read(column("id").isGreaterThan(41.5), i -> i > 41);
+        read(column("id").isLessThanOrEqualTo(41.5), i -> i <= 41);
+        read(column("id").isEqualTo(42.0), i -> i == 42);
+    }
+
+    @Test
+    void testRowGroupsSkipped() {
+        final TablesawParquetFilterReport report = report(column("id").isBetweenInclusive(150, 155));
+        assertEquals(1, report.getRowGroupsRead(), "Wrong row groups read: " + report);
+        assertEquals(ROW_COUNT / ROW_GROUP_ROWS - 1, report.getRowGroupsSkippedByStatistics(),
+            "Wrong row groups skipped: " + report);
+    }
+
+    @Test
+    void testStringPredicates() {
+        read(column("name").isEqualTo("name_7"), i -> i % 10 != 0 && i % 50 == 7);
+        read(column("name").isIn("name_7", "name_8"), i -> i % 10 != 0 && (i % 50 == 7 || i % 50 == 8));
+        read(column("name").isMissing(), i -> i % 10 == 0);
+        read(column("name").isNotMissing(), i -> i % 10 != 0);
+        read(column("name").startsWith("name_1"), i -> i % 10 != 0 && String.valueOf(i % 50).startsWith("1"));
+        read(column("name").startsWith(""), i -> i % 10 != 0);
+    }
+
+    @Test
+    void testDatePredicates() {
+        read(column("day").isBetweenInclusive(LocalDate.of(2020, 2, 1), LocalDate.of(2020, 2, 29)),
+            i -> i >= 31 && i <= 59);
+        read(column("day").isEqualTo(FIRST_DAY.plusDays(500)), i -> i == 500);
+    }
+
+    @Test
+    void testTimestampPredicates() {
+        read(column("ts").isGreaterThanOrEqualTo(Instant.ofEpochSecond(990)), i -> i >= 990);
+        read(column("ts").isLessThan(Instant.ofEpochSecond(10, 1)), i -> i <= 10);
+        read(column("ts").isEqualTo(LocalDateTime.ofEpochSecond(7, 0, ZoneOffset.UTC)), i -> i == 7);
+        read(column("local_ts").isLessThan(LocalDateTime.ofEpochSecond(5, 0, ZoneOffset.UTC)), i -> i < 5);
+        // sub-millisecond values are rounded according to the comparison
+        read(column("local_ts").isGreaterThan(LocalDateTime.ofEpochSecond(5, 500, ZoneOffset.UTC)), i -> i > 5);
+    }
+
+    @Test
+    void testDecimalPredicates() {
+        read(column("price").isGreaterThan(new BigDecimal("100.10")), i -> i * 25 > 10_010);
+        read(column("price").isGreaterThanOrEqualTo(100.1), i -> i * 25 >= 10_010);
+        read(column("price").isLessThanOrEqualTo(100.1), i -> i * 25 <= 10_010);
+        read(column("price").isEqualTo(new BigDecimal("2.5")), i -> i == 10);
+        read(column("big").isLessThan(-10), i -> (i - 500) * 1.5 < -10);
+        read(column("big").isBetweenInclusive(-1.5, new BigDecimal("3")), i -> i >= 499 && i <= 502);
+        read(column("big").isEqualTo(new BigDecimal("-750")), i -> i == 0);
+    }
+
+    @Test
+    void testFloatingPointPredicates() {
+        read(column("ratio").isEqualTo(ratio(42)), i -> i == 42);
+        read(column("score").isEqualTo(score(42)), i -> i == 42);
+        read(column("score").isEqualTo(new BigDecimal(score(41))), i -> i == 41);
+        read(column("ratio").isLessThan(4), i -> ratio(i) < 4);
+        // values between two floats or doubles are rounded according to the comparison
+        final double aboveRatio = Math.nextUp((double) ratio(42));
+        read(column("ratio").isGreaterThanOrEqualTo(aboveRatio), i -> ratio(i) >= aboveRatio);
+        read(column("ratio").isLessThan(aboveRatio), i -> ratio(i) < aboveRatio);
+        final BigDecimal aboveScore = new BigDecimal(score(41)).add(new BigDecimal("1e-30"));
+        read(column("score").isGreaterThanOrEqualTo(aboveScore), i -> i > 41);
+        read(column("score").isLessThanOrEqualTo(aboveScore), i -> i <= 41);
+        read(column("score").isGreaterThan(new BigDecimal("1e400")), i -> false);
+        read(column("ratio").isLessThan(-1e300), i -> false);
+    }
+
+    @Test
+    void testUnrepresentableValues() {
+        read(column("id").isEqualTo(41.5), i -> false);
+        read(column("id").isNotEqualTo(41.5), i -> true);
+        read(column("id").isEqualTo(10_000_000_000L), i -> false);
+        read(column("id").isIn(41.5, 42), i -> i == 42);
+        read(column("id").isIn(41.5), i -> false);
+        read(column("id").isNotIn(41.5, 42), i -> i != 42);
+        read(column("id").isNotIn(41.5), i -> true);
+        read(column("price").isEqualTo(1.005), i -> false);
+        read(column("price").isNotEqualTo(1.005), i -> true);
+        read(column("big").isEqualTo(BigDecimal.TEN.pow(40)), i -> false);
+        read(column("day").isNotEqualTo(LocalDate.MAX), i -> true);
+        read(column("ratio").isEqualTo(score(1)), i -> false);
+        read(column("score").isEqualTo(new BigDecimal("13.666")), i -> false);
+        read(column("score").isNotIn(new BigDecimal("13.666"), score(7)), i -> i != 7);
+        // values out of the range of the column are beyond all its values
+        read(column("id").isLessThan(10_000_000_000L), i -> true);
+        read(column("id").isLessThanOrEqualTo(-10_000_000_000L), i -> false);
+        read(column("id").isGreaterThan(10_000_000_000L), i -> false);
+        read(column("id").isGreaterThanOrEqualTo(-10_000_000_000L), i -> true);
+        read(column("price").isBetweenInclusive(BigDecimal.ONE, BigDecimal.TEN.pow(10)), i -> i >= 4);
+        read(column("big").isGreaterThan(BigDecimal.TEN.pow(40).negate()), i -> true);
+        read(column("day").isLessThan(LocalDate.MAX), i -> true);
+        read(column("day").isLessThan(LocalDate.MIN), i -> false);
+        read(column("ts").isGreaterThan(Instant.MAX), i -> false);
+        // no row group holds a value that no row can hold
+        assertEquals(ROW_COUNT / ROW_GROUP_ROWS, report(column("price").isEqualTo(1.005))
+            .getRowGroupsSkippedByStatistics(), "Row groups not skipped");
+    }
+
+    @Test
+    void testBooleanPredicates() {
+        read(column("flag").isTrue(), i -> i % 7 != 0 && i % 3 == 0);
+        read(column("flag").isFalse(), i -> i % 7 != 0 && i % 3 != 0);
+        read(column("flag").isMissing(), i -> i % 7 == 0);
+    }
+
+    @Test
+    void testCombinedPredicates() {
+        read(column("id").isLessThan(100).and(column("flag").isTrue()), i -> i < 100 && i % 7 != 0 && i % 3 == 0);
+        read(column("id").isLessThan(10).or(column("id").isGreaterThan(989)), i -> i < 10 || i > 989);
+        read(column("id").isLessThan(990).negate(), i -> i >= 990);
+        read(allOf(column("id").isGreaterThan(10), column("id").isLessThan(20), column("name").isNotMissing()),
+            i -> i > 10 && i < 20 && i % 10 != 0);
+        read(anyOf(column("id").isEqualTo(1), column("id").isEqualTo(2)), i -> i == 1 || i == 2);
+    }
+
+    @Test
+    void testParallelRead() {
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(column("name").isEqualTo("name_7")).withParallelism(3).build());
+        assertEquals(ROW_COUNT / 50, table.rowCount(), "Wrong number of rows");
+    }
+
+    @Test
+    void testInvalidPredicates() {
+        final MessageType schema = SCHEMA;
+        assertThrows(IllegalArgumentException.class, () -> column("unknown").isEqualTo(1).toFilterPredicate(schema),
+            "Unknown column should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> column("id").isEqualTo("1").toFilterPredicate(schema),
+            "String value should be rejected for an integer column");
+        assertThrows(IllegalArgumentException.class, () -> column("ratio").isEqualTo(Double.NaN)
+            .toFilterPredicate(schema), "NaN should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> column("flag").isLessThan(true).toFilterPredicate(schema),
+            "Ordered comparison should be rejected for a boolean column");
+        assertThrows(IllegalArgumentException.class, () -> column("id").startsWith("1").toFilterPredicate(schema),
+            "startsWith should be rejected for an integer column");
+        assertThrows(IllegalArgumentException.class, () -> column("id").isEqualTo(null),
+            "Null value should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> new TablesawParquetReader().read(
+                TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withRecordFilter(column("id").isEqualTo("1"))
+                .build()), "Invalid predicate should be rejected when reading");
+    }
+
+    @Test
+    void testToString() {
+        assertEquals("(id > 1 and not name is missing)",
+            column("id").isGreaterThan(1).and(column("name").isMissing().negate()).toString(), "Wrong description");
+    }
+}
@@ -0,0 +1,194 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2022 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.parquet.io.InputFile;
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import tech.tablesaw.api.Table;
+
+class TestParquetReadFromHTTPRange {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/http_range.parquet";
+    private static final Pattern RANGE_PATTERN = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final Table FLAT_TABLE = TestColumnChunkRead.createFlatTable(50_000);
+
+    private static HttpServer server;
+    private static byte[] fileBytes;
+    private static final AtomicInteger REQUEST_COUNT = new AtomicInteger();
+    private static final AtomicLong SERVED_BYTES = new AtomicLong();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        new TablesawParquetWriter().write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(64 * 1024).build());
+        fileBytes = Files.readAllBytes(Paths.get(OUTPUT_FILE_NAME));
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/range/", exchange -> serve(exchange, true));
+        server.createContext("/norange/", exchange -> serve(exchange, false));
+        server.start();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void resetCounters() {
+        REQUEST_COUNT.set(0);
+        SERVED_BYTES.set(0);
+    }
+
+    private static void serve(final HttpExchange exchange, final boolean supportRanges) throws IOException {
+        REQUEST_COUNT.incrementAndGet();
+        if (supportRanges) {
+            exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+        }
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().add("Content-Length", Integer.toString(fileBytes.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        final String range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = fileBytes.length - 1;
+        int status = 200;
+        if (supportRanges && range != null) {
+            final Matcher matcher = RANGE_PATTERN.matcher(range);
+            assertTrue(matcher.matches(), "Unexpected range " + range);
+            start = Integer.parseInt(matcher.group(1));
+            end = Math.min(Integer.parseInt(matcher.group(2)), fileBytes.length - 1);
+            status = 206;
+        }
+        final int length = end - start + 1;
+        exchange.sendResponseHeaders(status, length);
+        try (final OutputStream out = exchange.getResponseBody()) {
+            out.write(fileBytes, start, length);
+        }
+        SERVED_BYTES.addAndGet(length);
+    }
+
+    private static String url(final String context) {
+        return "http://localhost:" + server.getAddress().getPort() + context + "http_range.parquet";
+    }
+
+    @Test
+    void testReadWithRangeRequests() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(url("/range/")).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+        assertTrue(SERVED_BYTES.get() <= fileBytes.length + 64 * 1024,
+            "Too many bytes transferred: " + SERVED_BYTES.get());
+    }
+
+    @Test
+    void testProjectionTransfersOnlySelectedColumns() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(url("/range/")).withOnlyTheseColumns("int").build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE.selectColumns("int"), table);
+        assertTrue(SERVED_BYTES.get() < fileBytes.length / 2,
+            "Too many bytes transferred: " + SERVED_BYTES.get() + " for a file of " + fileBytes.length);
+    }
+
+    @Test
+    void testFooterReadInOneRequest() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(url("/range/")).withOnlyTheseColumns("int").build());
+        final int rowGroups = countRowGroups();
+        assertNotNull(table, "Table is null");
+        // one HEAD, one footer request, at most one request per row group
+        assertTrue(REQUEST_COUNT.get() <= 2 + rowGroups,
+            "Too many requests: " + REQUEST_COUNT.get() + " for " + rowGroups + " row groups");
+    }
+
+    @Test
+    void testStreamWithRangeRequests() {
+        final Table table = Table.create("streamed");
+        new TablesawParquetReader().stream(TablesawParquetReadOptions.builder(url("/range/")).build())
+            .forEach(batch -> {
+                if (table.columnCount() == 0) {
+                    table.addColumns(batch.emptyCopy().columnArray());
+                }
+                table.append(batch);
+            });
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testSingleByteReadsServedFromReadAhead() throws IOException {
+        final InputFile inputFile = HttpRangeInputFile.open(URI.create(url("/range/")))
+            .orElseThrow(() -> new AssertionError("Range requests should be supported"));
+        try (final SeekableInputStream stream = inputFile.newStream()) {
+            for (int i = 0; i < 10_000; i++) {
+                assertEquals(fileBytes[i] & 0xFF, stream.read(), "Wrong byte at " + i);
+            }
+            stream.seek(20_000);
+            final byte[] bytes = new byte[100];
+            stream.readFully(bytes);
+            assertArrayEquals(Arrays.copyOfRange(fileBytes, 20_000, 20_100), bytes, "Wrong bytes at 20000");
+            assertEquals(fileBytes[20_100] & 0xFF, stream.read(), "Wrong byte at 20100");
+        }
+        // one HEAD, one read-ahead request
+        assertEquals(2, REQUEST_COUNT.get(), "Single byte reads should not send a request each");
+    }
+
+    @Test
+    void testFallbackWithoutRangeSupport() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(url("/norange/")).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    private static int countRowGroups() {
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader().iterator(
+                TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withOnlyTheseColumns("int").build())) {
+            int count = 0;
+            while (iterator.hasNext()) {
+                iterator.next();
+                count++;
+            }
+            return count;
+        }
+    }
+}
@@ -202,6 +202,17 @@ class TestParquetReader {
         assertEquals("01", table.getString(1, 0), APACHE_BINARY + "[" + "foo" + ",0] wrong value");
     }
 
+    @Test
+    void testBinaryAsBinaryColumn() {
+        final Table table = PARQUET_READER
+            .read(TablesawParquetReadOptions.builder(PARQUET_TESTING_FOLDER + APACHE_BINARY)
+                .withUnnanotatedBinaryAs(UnnanotatedBinaryAs.BINARY).build());
+        validateTable(table, 1, 12, APACHE_BINARY);
+        assertEquals(BinaryColumnType.instance(), table.column(0).type(), APACHE_BINARY + "[" + "foo" + "] wrong type");
+        assertArrayEquals(new byte[] {0}, (byte[]) table.get(0, 0), APACHE_BINARY + "[" + "foo" + ",0] wrong value");
+        assertEquals("01", table.getString(1, 0), APACHE_BINARY + "[" + "foo" + ",1] wrong value");
+    }
+
     @Test
     void testBinarySkip() {
         final Table table = PARQUET_READER.read(TablesawParquetReadOptions
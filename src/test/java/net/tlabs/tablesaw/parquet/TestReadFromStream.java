@@ -0,0 +1,190 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.parquet.io.SeekableInputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+import tech.tablesaw.io.Source;
+
+class TestReadFromStream {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/stream_source.parquet";
+    private static final Table FLAT_TABLE = TestColumnChunkRead.createFlatTable(5_000);
+    private static byte[] fileBytes;
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        new TablesawParquetWriter().write(FLAT_TABLE, TablesawParquetWriteOptions.builder(OUTPUT_FILE_NAME)
+            .withOverwrite(true).withRowGroupSize(16 * 1024).build());
+        fileBytes = Files.readAllBytes(Paths.get(OUTPUT_FILE_NAME));
+    }
+
+    @Test
+    void testReadInMemory() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes)).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testReadWithSpillToDisk() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes))
+                .withInMemoryThreshold(fileBytes.length - 1).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testReadAlwaysSpillingToDisk() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes))
+                .withInMemoryThreshold(0).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+    }
+
+    @Test
+    void testSpilledFileDeletedAfterRead() throws IOException {
+        final Set<Path> tempFiles = listSpilledFiles();
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes))
+                .withInMemoryThreshold(0).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+        assertEquals(tempFiles, listSpilledFiles(), "Spilled file should be deleted after read");
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader().iterator(
+                TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes))
+                    .withInMemoryThreshold(0).withBatchSize(1_000).build())) {
+            assertTrue(iterator.hasNext(), "Iterator should have a first batch");
+            assertEquals(tempFiles.size() + 1, listSpilledFiles().size(), "Spilled file should be open");
+        }
+        assertEquals(tempFiles, listSpilledFiles(), "Spilled file should be deleted when the iterator is closed");
+    }
+
+    private static Set<Path> listSpilledFiles() throws IOException {
+        try (final Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(p -> p.getFileName().toString().startsWith("tablesaw-parquet"))
+                .collect(Collectors.toSet());
+        }
+    }
+
+    @Test
+    void testMappedFileReleasedAfterRead() throws IOException {
+        final Path maps = Paths.get("/proc/self/maps");
+        assumeTrue(Files.isReadable(maps), "Memory mappings can only be listed on Linux");
+        final String mappedFile = Paths.get(OUTPUT_FILE_NAME).toAbsolutePath().toString();
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader().iterator(
+                TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build())) {
+            assertTrue(iterator.hasNext(), "Iterator should have a first batch");
+            assertTrue(new String(Files.readAllBytes(maps)).contains(mappedFile), "File should be mapped");
+        }
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+        assertFalse(new String(Files.readAllBytes(maps)).contains(mappedFile), "File should be unmapped");
+    }
+
+    @Test
+    void testClosedByteBufferInputFile() {
+        final ByteBufferInputFile inputFile = new ByteBufferInputFile(ByteBuffer.wrap(new byte[10]), "test");
+        inputFile.close();
+        assertThrows(IOException.class, inputFile::newStream, "Closed input file should not be read");
+    }
+
+    @Test
+    void testReadAtThreshold() {
+        final Table table = new TablesawParquetReader().read(
+            TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes))
+                .withInMemoryThreshold(fileBytes.length).withOnlyTheseColumns("string", "int").build());
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE.selectColumns("string", "int"), table);
+    }
+
+    @Test
+    void testReadFromSource() throws IOException {
+        try (final InputStream in = new ByteArrayInputStream(fileBytes)) {
+            final Table table = new TablesawParquetReader().read(new Source(in));
+            TestColumnChunkRead.assertSameValues(FLAT_TABLE, table);
+        }
+    }
+
+    @Test
+    void testIteratorFromStream() {
+        final List<Table> tables = new ArrayList<>();
+        try (final TablesawParquetIterator iterator = new TablesawParquetReader().iterator(
+                TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes))
+                    .withBatchSize(1_000).build())) {
+            iterator.forEachRemaining(tables::add);
+        }
+        assertEquals(5, tables.size(), "Wrong number of batches");
+        final Table result = tables.get(0).emptyCopy();
+        tables.forEach(result::append);
+        TestColumnChunkRead.assertSameValues(FLAT_TABLE, result);
+    }
+
+    @Test
+    void testInvalidThreshold() {
+        final TablesawParquetReadOptions.Builder builder =
+            TablesawParquetReadOptions.builderForStream(new ByteArrayInputStream(fileBytes));
+        assertThrows(IllegalArgumentException.class, () -> builder.withInMemoryThreshold(-1),
+            "Negative threshold should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> builder.withInMemoryThreshold(Integer.MAX_VALUE),
+            "Threshold over 2 GiB should be rejected");
+    }
+
+    @Test
+    void testByteBufferInputFileSeekAndRead() throws IOException {
+        final byte[] data = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        final ByteBufferInputFile inputFile = new ByteBufferInputFile(ByteBuffer.wrap(data, 2, 6), "test");
+        assertEquals(6, inputFile.getLength(), "Wrong length");
+        try (final SeekableInputStream stream = inputFile.newStream()) {
+            stream.seek(4);
+            assertEquals(6, stream.read(), "Wrong byte after seek");
+            assertEquals(5, stream.getPos(), "Wrong position");
+            final ByteBuffer target = ByteBuffer.allocate(3);
+            stream.seek(1);
+            stream.readFully(target);
+            assertArrayEquals(new byte[] {3, 4, 5}, target.array(), "Wrong bytes read");
+            final byte[] tooMany = new byte[3];
+            assertThrows(EOFException.class, () -> stream.readFully(tooMany), "Reading past the end should fail");
+            stream.seek(6);
+            assertEquals(-1, stream.read(), "Read at end should return -1");
+            assertThrows(EOFException.class, () -> stream.seek(7), "Seeking past the end should fail");
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static net.tlabs.tablesaw.parquet.TestColumnChunkRead.assertSameValues;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.io.LocalInputFile;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+
+class TestRowLimit {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/row_limit.parquet";
+    private static final String CORRUPTED_FILE_NAME = "target/test/results/row_limit_corrupted.parquet";
+    private static final int ROW_COUNT = 10_000;
+    private static final int ROW_GROUP_ROWS = 2_500;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    private static Table fullTable;
+
+    @BeforeAll
+    static void writeFiles() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message row_limit {"
+            + " required int32 id;"
+            + " optional binary name (STRING);"
+            + " required double value;"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupRowCountLimit(ROW_GROUP_ROWS).withPageRowCountLimit(100).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup().append("id", i).append("value", i / 4.0);
+                if (i % 3 != 0) {
+                    group.append("name", "name_" + i);
+                }
+                writer.write(group);
+            }
+        }
+        fullTable = READER.read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        // pages after the first half of the first row group
+        corruptPages(OUTPUT_FILE_NAME, CORRUPTED_FILE_NAME, firstRow -> firstRow >= ROW_GROUP_ROWS / 2);
+    }
+
+    /**
+     * Copies a file and overwrites the header of some pages in the copy.
+     * @param fileName the file to copy, written with offset indexes
+     * @param corruptedFileName the copy
+     * @param corruptedPages whether to corrupt a page, given the index of its first row in the file
+     */
+    static void corruptPages(final String fileName, final String corruptedFileName,
+            final LongPredicate corruptedPages) throws IOException {
+        Files.copy(Paths.get(fileName), Paths.get(corruptedFileName), StandardCopyOption.REPLACE_EXISTING);
+        final byte[] garbage = new byte[8];
+        Arrays.fill(garbage, (byte) 0xFF);
+        try (final ParquetFileReader reader = ParquetFileReader.open(
+                new LocalInputFile(Paths.get(fileName)));
+                final RandomAccessFile file = new RandomAccessFile(corruptedFileName, "rw")) {
+            for (final BlockMetaData block : reader.getRowGroups()) {
+                for (final ColumnChunkMetaData chunk : block.getColumns()) {
+                    final OffsetIndex offsetIndex = reader.readOffsetIndex(chunk);
+                    for (int page = 0; page < offsetIndex.getPageCount(); page++) {
+                        if (corruptedPages.test(block.getRowIndexOffset() + offsetIndex.getFirstRowIndex(page))) {
+                            file.seek(offsetIndex.getOffset(page));
+                            file.write(garbage);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static Table read(final String fileName, final long rowLimit) {
+        return READER.read(TablesawParquetReadOptions.builder(fileName).withRowLimit(rowLimit).build());
+    }
+
+    @Test
+    void testHead() {
+        assertSameValues(fullTable.first(100), read(OUTPUT_FILE_NAME, 100));
+    }
+
+    @Test
+    void testLimitAcrossRowGroups() {
+        assertSameValues(fullTable.first(ROW_GROUP_ROWS + 1), read(OUTPUT_FILE_NAME, ROW_GROUP_ROWS + 1));
+    }
+
+    @Test
+    void testLimitAboveRowCount() {
+        assertSameValues(fullTable, read(OUTPUT_FILE_NAME, ROW_COUNT + 1));
+    }
+
+    @Test
+    void testZeroLimit() {
+        final Table table = read(OUTPUT_FILE_NAME, 0);
+        assertEquals(0, table.rowCount(), "Wrong number of rows");
+        assertEquals(fullTable.columnNames(), table.columnNames(), "Wrong columns");
+    }
+
+    @Test
+    void testLimitWithRecordFilter() {
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(FilterApi.or(FilterApi.eq(FilterApi.intColumn("id"), 4200),
+                FilterApi.gtEq(FilterApi.intColumn("id"), 9000)));
+        final Table filtered = READER.read(builder.build());
+        assertSameValues(filtered.first(50), READER.read(builder.withRowLimit(50).build()));
+    }
+
+    @Test
+    void testLimitWithParallelism() {
+        assertSameValues(fullTable.first(3000), READER.read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRowLimit(3000).withParallelism(4).build()));
+    }
+
+    @Test
+    void testLaterPagesNotRead() {
+        assertThrows(RuntimeException.class,
+            () -> READER.read(TablesawParquetReadOptions.builder(CORRUPTED_FILE_NAME).build()),
+            "Corrupted file should not be readable");
+        assertSameValues(fullTable.first(100), read(CORRUPTED_FILE_NAME, 100));
+        assertSameValues(fullTable.first(ROW_GROUP_ROWS / 2), read(CORRUPTED_FILE_NAME, ROW_GROUP_ROWS / 2));
+    }
+
+    /**
+     * Reads a file with an iterator and appends the tables returned.
+     * @param builder the read options builder
+     * @param batchRowCounts the expected number of rows of each table returned
+     * @return the appended tables
+     */
+    static Table readIterated(final TablesawParquetReadOptions.Builder builder, final int... batchRowCounts) {
+        final List<Table> tables = new ArrayList<>();
+        try (final TablesawParquetIterator iterator = READER.iterator(builder.build())) {
+            iterator.forEachRemaining(tables::add);
+        }
+        assertArrayEquals(batchRowCounts, tables.stream().mapToInt(Table::rowCount).toArray(), "Wrong batch sizes");
+        final Table appended = tables.get(0).emptyCopy();
+        tables.forEach(appended::append);
+        return appended;
+    }
+
+    @Test
+    void testIteratorLimit() {
+        assertSameValues(fullTable.first(3500), readIterated(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withBatchSize(1000).withRowLimit(3500), 1000, 1000, 1000, 500));
+        assertSameValues(fullTable.first(ROW_GROUP_ROWS + 1), readIterated(TablesawParquetReadOptions
+            .builder(OUTPUT_FILE_NAME).withRowLimit(ROW_GROUP_ROWS + 1), ROW_GROUP_ROWS, 1));
+        assertSameValues(fullTable, readIterated(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRowLimit(ROW_COUNT + 1), ROW_GROUP_ROWS, ROW_GROUP_ROWS, ROW_GROUP_ROWS, ROW_GROUP_ROWS));
+        try (final TablesawParquetIterator iterator = READER.iterator(TablesawParquetReadOptions
+                .builder(OUTPUT_FILE_NAME).withRowLimit(0).build())) {
+            assertFalse(iterator.hasNext(), "No table expected with a zero limit");
+        }
+    }
+
+    @Test
+    void testStreamLimitWithRecordFilter() {
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRecordFilter(FilterApi.or(FilterApi.eq(FilterApi.intColumn("id"), 4200),
+                FilterApi.gtEq(FilterApi.intColumn("id"), 9000)));
+        final Table filtered = READER.read(builder.build());
+        try (final Stream<Table> tables = READER.stream(builder.withBatchSize(20).withRowLimit(50).build())) {
+            final List<Table> batches = tables.collect(Collectors.toList());
+            assertArrayEquals(new int[] {20, 20, 10}, batches.stream().mapToInt(Table::rowCount).toArray(),
+                "Wrong batch sizes");
+            final Table appended = batches.get(0).emptyCopy();
+            batches.forEach(appended::append);
+            assertSameValues(filtered.first(50), appended);
+        }
+    }
+
+    @Test
+    void testIteratorLaterPagesNotRead() {
+        assertSameValues(fullTable.first(100), readIterated(TablesawParquetReadOptions.builder(CORRUPTED_FILE_NAME)
+            .withBatchSize(30).withRowLimit(100), 30, 30, 30, 10));
+        assertSameValues(fullTable.first(ROW_GROUP_ROWS / 2), readIterated(TablesawParquetReadOptions
+            .builder(CORRUPTED_FILE_NAME).withRowLimit(ROW_GROUP_ROWS / 2), ROW_GROUP_ROWS / 2));
+    }
+
+    @Test
+    void testInvalidLimit() {
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME);
+        assertThrows(IllegalArgumentException.class, () -> builder.withRowLimit(-1), "Negative limit should be rejected");
+    }
+}
@@ -0,0 +1,191 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static net.tlabs.tablesaw.parquet.TestColumnChunkRead.assertSameValues;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.stream.Stream;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.Table;
+
+class TestRowRange {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/row_range.parquet";
+    private static final String CORRUPTED_FILE_NAME = "target/test/results/row_range_corrupted.parquet";
+    // written without offset indexes
+    private static final String UUID_FILE_NAME = "target/test-classes/uuid.parquet";
+    private static final int ROW_COUNT = 10_000;
+    private static final int ROW_GROUP_ROWS = 2_500;
+    private static final int PAGE_ROWS = 100;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    private static Table fullTable;
+
+    @BeforeAll
+    static void writeFiles() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message row_range {"
+            + " required int32 id;"
+            + " optional binary name (STRING);"
+            + " repeated int32 values;"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE)
+                .withRowGroupRowCountLimit(ROW_GROUP_ROWS).withPageRowCountLimit(PAGE_ROWS).build()) {
+            for (int i = 0; i < ROW_COUNT; i++) {
+                final Group group = factory.newGroup().append("id", i);
+                if (i % 3 != 0) {
+                    group.append("name", "name_" + i);
+                }
+                for (int j = 0; j < i % 4; j++) {
+                    group.append("values", j);
+                }
+                writer.write(group);
+            }
+        }
+        fullTable = READER.read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        // only the pages starting between rows 5000 and 5299 are left readable
+        TestRowLimit.corruptPages(OUTPUT_FILE_NAME, CORRUPTED_FILE_NAME,
+            firstRow -> firstRow < 5000 || firstRow >= 5300);
+    }
+
+    private static Table read(final String fileName, final long fromRow, final long toRow) {
+        return READER.read(TablesawParquetReadOptions.builder(fileName).withRowRange(fromRow, toRow).build());
+    }
+
+    @Test
+    void testRangeInsideRowGroup() {
+        assertSameValues(fullTable.inRange(5050, 5150), read(OUTPUT_FILE_NAME, 5050, 5150));
+    }
+
+    @Test
+    void testRangeAcrossRowGroups() {
+        assertSameValues(fullTable.inRange(2400, 7600), read(OUTPUT_FILE_NAME, 2400, 7600));
+    }
+
+    @Test
+    void testRangeWithColumnChunkDecoding() {
+        // without the repeated column the schema is flat, and column chunks are decoded directly
+        final Table table = READER.read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withOnlyTheseColumns("id", "name").withRowRange(2450, 5120).build());
+        assertSameValues(fullTable.inRange(2450, 5120).selectColumns("id", "name"), table);
+    }
+
+    @Test
+    void testRangeBeyondLastRow() {
+        assertSameValues(fullTable.inRange(9990, ROW_COUNT), read(OUTPUT_FILE_NAME, 9990, 20_000));
+        assertEquals(0, read(OUTPUT_FILE_NAME, 20_000, 30_000).rowCount(), "Wrong number of rows");
+    }
+
+    @Test
+    void testEmptyRange() {
+        assertEquals(0, read(OUTPUT_FILE_NAME, 100, 100).rowCount(), "Wrong number of rows");
+    }
+
+    @Test
+    void testRangeWithRowLimit() {
+        assertSameValues(fullTable.inRange(2400, 2700), READER.read(TablesawParquetReadOptions
+            .builder(OUTPUT_FILE_NAME).withRowRange(2400, 7600).withRowLimit(300).build()));
+    }
+
+    @Test
+    void testRangeWithRecordFilter() {
+        final Table table = READER.read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+            .withRowRange(2400, 7600)
+            .withRecordFilter(FilterApi.gtEq(FilterApi.intColumn("id"), 7000))
+            .build());
+        assertSameValues(fullTable.inRange(7000, 7600), table);
+    }
+
+    @Test
+    void testPagesOutsideRangeNotRead() {
+        assertThrows(RuntimeException.class,
+            () -> READER.read(TablesawParquetReadOptions.builder(CORRUPTED_FILE_NAME).build()),
+            "Corrupted file should not be readable");
+        assertSameValues(fullTable.inRange(5050, 5250), read(CORRUPTED_FILE_NAME, 5050, 5250));
+    }
+
+    @Test
+    void testRangeWithoutOffsetIndexes() {
+        final Table uuids = READER.read(TablesawParquetReadOptions.builder(UUID_FILE_NAME).build());
+        assertSameValues(uuids.inRange(100, 250), read(UUID_FILE_NAME, 100, 250));
+        assertSameValues(uuids.inRange(990, 1000), read(UUID_FILE_NAME, 990, 1000));
+    }
+
+    @Test
+    void testRangeWithRecordFilterWithoutOffsetIndexes() {
+        final Table uuids = READER.read(TablesawParquetReadOptions.builder(UUID_FILE_NAME).build()).inRange(100, 250);
+        final Table expected = uuids.where(uuids.stringColumn("uuid_opt1").isNotMissing());
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(UUID_FILE_NAME)
+            .withRowRange(100, 250)
+            .withRecordFilter(TablesawParquetPredicate.column("uuid_opt1").isNotMissing());
+        assertSameValues(expected, READER.read(builder.build()));
+        assertEquals(30, expected.rowCount(), "Wrong number of rows");
+        assertSameValues(expected, TestRowLimit.readIterated(builder.withBatchSize(10), 10, 10, 10));
+        assertSameValues(expected.first(5), READER.read(builder.withRowLimit(5).build()));
+    }
+
+    @Test
+    void testIteratorRange() {
+        assertSameValues(fullTable.inRange(2400, 5100), TestRowLimit.readIterated(TablesawParquetReadOptions
+            .builder(OUTPUT_FILE_NAME).withRowRange(2400, 5100), 100, ROW_GROUP_ROWS, 100));
+        assertSameValues(fullTable.inRange(2400, 5100), TestRowLimit.readIterated(TablesawParquetReadOptions
+            .builder(OUTPUT_FILE_NAME).withBatchSize(1000).withRowRange(2400, 5100), 1000, 1000, 700));
+        assertSameValues(fullTable.inRange(5050, 5250), TestRowLimit.readIterated(TablesawParquetReadOptions
+            .builder(CORRUPTED_FILE_NAME).withRowRange(5050, 5250), 200));
+    }
+
+    @Test
+    void testStreamRangeWithRecordFilter() {
+        final Table table;
+        try (final Stream<Table> stream = READER.stream(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME)
+                .withRowRange(2400, 7600)
+                .withRecordFilter(FilterApi.gtEq(FilterApi.intColumn("id"), 7000))
+                .withRowLimit(500)
+                .build())) {
+            table = stream.reduce(Table::append).orElseThrow(AssertionError::new);
+        }
+        assertSameValues(fullTable.inRange(7000, 7500), table);
+    }
+
+    @Test
+    void testInvalidRange() {
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME);
+        assertThrows(IllegalArgumentException.class, () -> builder.withRowRange(-1, 10),
+            "Negative start should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> builder.withRowRange(10, 5),
+            "End before start should be rejected");
+    }
+}
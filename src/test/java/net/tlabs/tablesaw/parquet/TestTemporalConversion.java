@@ -0,0 +1,307 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.JulianFields;
+import java.util.Random;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.example.data.Group;
+import org.apache.parquet.example.data.simple.NanoTime;
+import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
+import org.apache.parquet.hadoop.ParquetWriter;
+import org.apache.parquet.hadoop.example.ExampleParquetWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tech.tablesaw.api.DateColumn;
+import tech.tablesaw.api.DateTimeColumn;
+import tech.tablesaw.api.InstantColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.api.TimeColumn;
+import tech.tablesaw.columns.dates.PackedLocalDate;
+import tech.tablesaw.columns.datetimes.PackedLocalDateTime;
+import tech.tablesaw.columns.instant.PackedInstant;
+import tech.tablesaw.columns.times.PackedLocalTime;
+
+class TestTemporalConversion {
+
+    private static final String OUTPUT_FILE_NAME = "target/test/results/timestamps.parquet";
+    private static final long[] EPOCH_MILLIS = {
+        0L, 1L, -1L, 999L, -999L, 1_000L, -1_000L, -1_001L, 86_399_999L, -86_400_000L, -86_400_001L,
+        951_782_400_000L, 951_868_799_999L, 4_107_542_399_999L, -2_208_988_800_001L, -62_135_596_800_000L,
+        253_402_300_799_999L
+    };
+    private static final long[] SUB_MILLIS = {0L, 1L, 999L, 999_999L};
+    private static final String DATE_TIME_FILE_NAME = "target/test/results/dates_times.parquet";
+    private static final int[] EPOCH_DAYS = {0, 1, -1, 59, 60, -719_528, -719_529, 11_016, 2_932_896, -25_567};
+    private static final int JULIAN_DAY_OF_EPOCH = 2_440_588;
+    private static final long[] MILLIS_OF_DAY = {0L, 1L, 999L, 1_000L, 59_999L, 3_599_999L, 43_200_123L, 86_399_999L};
+
+    @BeforeAll
+    static void writeFile() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message timestamps {"
+            + " required int64 dt_millis (TIMESTAMP(MILLIS,false));"
+            + " required int64 dt_micros (TIMESTAMP(MICROS,false));"
+            + " required int64 dt_nanos (TIMESTAMP(NANOS,false));"
+            + " required int64 i_millis (TIMESTAMP(MILLIS,true));"
+            + " required int64 i_micros (TIMESTAMP(MICROS,true));"
+            + " required int64 i_nanos (TIMESTAMP(NANOS,true));"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(OUTPUT_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (final long millis : EPOCH_MILLIS) {
+                for (final long subMillis : SUB_MILLIS) {
+                    final long micros = millis * 1_000L + subMillis % 1_000L;
+                    final long nanos = millis * 1_000_000L + subMillis;
+                    final Group group = factory.newGroup();
+                    group.append("dt_millis", millis);
+                    group.append("dt_micros", micros);
+                    group.append("dt_nanos", nanos);
+                    group.append("i_millis", millis);
+                    group.append("i_micros", micros);
+                    group.append("i_nanos", nanos);
+                    writer.write(group);
+                }
+            }
+        }
+    }
+
+    @BeforeAll
+    static void writeDateTimeFile() throws IOException {
+        final MessageType schema = MessageTypeParser.parseMessageType("message dates_times {"
+            + " required int32 date (DATE);"
+            + " required int32 t_millis (TIME(MILLIS,false));"
+            + " required int64 t_micros (TIME(MICROS,false));"
+            + " required int64 t_nanos (TIME(NANOS,false));"
+            + " required int96 ts96;"
+            + " }");
+        final SimpleGroupFactory factory = new SimpleGroupFactory(schema);
+        try (final ParquetWriter<Group> writer = ExampleParquetWriter.builder(new Path(DATE_TIME_FILE_NAME))
+                .withType(schema).withWriteMode(ParquetFileWriter.Mode.OVERWRITE).build()) {
+            for (final int epochDay : EPOCH_DAYS) {
+                for (final long millis : MILLIS_OF_DAY) {
+                    final Group group = factory.newGroup();
+                    group.append("date", epochDay);
+                    group.append("t_millis", (int) millis);
+                    group.append("t_micros", millis * 1_000L + 999L);
+                    group.append("t_nanos", millis * 1_000_000L + 999_999L);
+                    group.append("ts96", new NanoTime(epochDay + JULIAN_DAY_OF_EPOCH, millis * 1_000_000L + 999_999L));
+                    writer.write(group);
+                }
+            }
+        }
+    }
+
+    private static Instant expectedInstant(final long value, final ChronoUnit unit) {
+        return Instant.EPOCH.plus(value, unit).truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    @Test
+    void testReadTimestamps() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).build());
+        assertEquals(EPOCH_MILLIS.length * SUB_MILLIS.length, table.rowCount(), "Wrong number of rows");
+        int row = 0;
+        for (final long millis : EPOCH_MILLIS) {
+            for (final long subMillis : SUB_MILLIS) {
+                final long micros = millis * 1_000L + subMillis % 1_000L;
+                final long nanos = millis * 1_000_000L + subMillis;
+                assertTimestamp(table, "millis", row, expectedInstant(millis, ChronoUnit.MILLIS));
+                assertTimestamp(table, "micros", row, expectedInstant(micros, ChronoUnit.MICROS));
+                assertTimestamp(table, "nanos", row, expectedInstant(nanos, ChronoUnit.NANOS));
+                row++;
+            }
+        }
+    }
+
+    private static void assertTimestamp(final Table table, final String unit, final int row, final Instant expected) {
+        final DateTimeColumn dateTimes = table.dateTimeColumn("dt_" + unit);
+        final InstantColumn instants = table.instantColumn("i_" + unit);
+        assertEquals(LocalDateTime.ofInstant(expected, ZoneOffset.UTC), dateTimes.get(row),
+            "Wrong " + unit + " date time at row " + row);
+        assertEquals(PackedLocalDateTime.pack(LocalDateTime.ofInstant(expected, ZoneOffset.UTC)),
+            dateTimes.getLongInternal(row), "Wrong packed " + unit + " date time at row " + row);
+        assertEquals(expected, instants.get(row), "Wrong " + unit + " instant at row " + row);
+        assertEquals(PackedInstant.pack(expected), instants.getLongInternal(row),
+            "Wrong packed " + unit + " instant at row " + row);
+    }
+
+    @Test
+    void testPackedValuesMatchJavaTime() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Years 0000 to 9999, the range where tablesaw packs dates without loss
+            final long epochMilli = -62_167_219_200_000L + (long) (random.nextDouble() * 315_537_897_600_000L);
+            final Instant instant = Instant.ofEpochMilli(epochMilli);
+            assertEquals(PackedInstant.pack(instant), PackedDateTimes.packEpochMilli(epochMilli),
+                "Wrong packed value for " + instant);
+            final long micros = epochMilli * 1_000L + random.nextInt(1_000);
+            assertEquals(PackedInstant.pack(instant), PackedDateTimes.packEpoch(micros, 1_000L),
+                "Wrong packed value for " + micros + " micros");
+        }
+    }
+
+    @Test
+    void testReadDatesAndTimes() {
+        final Table table = new TablesawParquetReader()
+            .read(TablesawParquetReadOptions.builder(DATE_TIME_FILE_NAME).build());
+        assertEquals(EPOCH_DAYS.length * MILLIS_OF_DAY.length, table.rowCount(), "Wrong number of rows");
+        final DateColumn dates = table.dateColumn("date");
+        int row = 0;
+        for (final int epochDay : EPOCH_DAYS) {
+            for (final long millis : MILLIS_OF_DAY) {
+                final LocalDate expectedDate = LocalDate.ofEpochDay(epochDay);
+                assertEquals(expectedDate, dates.get(row), "Wrong date at row " + row);
+                assertEquals(PackedLocalDate.pack(expectedDate), dates.getIntInternal(row),
+                    "Wrong packed date at row " + row);
+                final LocalTime expectedTime = LocalTime.ofNanoOfDay(millis * 1_000_000L);
+                for (final String column : new String[] {"t_millis", "t_micros", "t_nanos"}) {
+                    final TimeColumn times = table.timeColumn(column);
+                    assertEquals(expectedTime, times.get(row), "Wrong " + column + " time at row " + row);
+                    assertEquals(PackedLocalTime.pack(expectedTime), times.getIntInternal(row),
+                        "Wrong packed " + column + " time at row " + row);
+                }
+                row++;
+            }
+        }
+    }
+
+    @Test
+    void testPackedDatesMatchJavaTime() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            // Years 0000 to 9999
+            final int epochDay = -719_528 + random.nextInt(3_652_425);
+            assertEquals(PackedLocalDate.pack(LocalDate.ofEpochDay(epochDay)), PackedDateTimes.packEpochDay(epochDay),
+                "Wrong packed value for epoch day " + epochDay);
+        }
+    }
+
+    @Test
+    void testInvalidTimeIsRejected() {
+        assertThrows(DateTimeException.class, () -> PackedDateTimes.packMillisOfDay(86_400_000L),
+            "A full day is not a valid time");
+        assertThrows(DateTimeException.class, () -> PackedDateTimes.packMillisOfDay(-1L),
+            "Negative times are not valid");
+    }
+
+    @Test
+    void testReadInt96Timestamps() {
+        final Table table = new TablesawParquetReader().read(TablesawParquetReadOptions.builder(DATE_TIME_FILE_NAME)
+            .withConvertInt96ToTimestamp(true).build());
+        final InstantColumn instants = table.instantColumn("ts96");
+        int row = 0;
+        for (final int epochDay : EPOCH_DAYS) {
+            for (final long millis : MILLIS_OF_DAY) {
+                final Instant expected = Instant.ofEpochMilli(epochDay * 86_400_000L + millis);
+                assertEquals(expected, instants.get(row), "Wrong INT96 instant at row " + row);
+                row++;
+            }
+        }
+    }
+
+    @Test
+    void testInt96FromAllBinaryBackings() {
+        final Table table = Table.create("int96", InstantColumn.create("ts96"));
+        final TablesawRecordConverter converter = new TablesawRecordConverter(table,
+            MessageTypeParser.parseMessageType("message int96 { optional int96 ts96; }"),
+            TablesawParquetReadOptions.builder(OUTPUT_FILE_NAME).withConvertInt96ToTimestamp(true).build());
+        final long nanosOfDay = 43_200_123_456_789L;
+        final byte[] int96 = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN)
+            .putLong(nanosOfDay).putInt(JULIAN_DAY_OF_EPOCH + 1).array();
+        final byte[] padded = new byte[20];
+        System.arraycopy(int96, 0, padded, 5, 12);
+        final ByteBuffer direct = ByteBuffer.allocateDirect(20);
+        direct.position(3);
+        direct.put(int96).position(3).limit(15);
+        final Binary[] values = {
+            Binary.fromConstantByteArray(int96),
+            Binary.fromReusedByteArray(padded, 5, 12),
+            Binary.fromConstantByteBuffer(ByteBuffer.wrap(padded, 5, 12)),
+            Binary.fromConstantByteBuffer(ByteBuffer.wrap(padded, 5, 12).slice().asReadOnlyBuffer()),
+            Binary.fromConstantByteBuffer(direct.slice())
+        };
+        for (final Binary value : values) {
+            converter.start();
+            converter.getConverter(0).asPrimitiveConverter().addBinary(value);
+            converter.end();
+            converter.getCurrentRow();
+        }
+        final Instant expected = Instant.ofEpochMilli(86_400_000L + nanosOfDay / 1_000_000L);
+        for (int row = 0; row < values.length; row++) {
+            assertEquals(expected, converter.getTable().instantColumn("ts96").get(row),
+                "Wrong INT96 instant for binary " + row);
+        }
+    }
+
+    // INT96 decoding through java.time, as done before the arithmetic decoding
+    private static long packInt96WithJavaTime(final byte[] int96) {
+        final ByteBuffer buf = ByteBuffer.wrap(int96).order(ByteOrder.LITTLE_ENDIAN);
+        final long nanotime = buf.getLong();
+        final int julianday = buf.getInt();
+        final LocalDate date = LocalDate.ofEpochDay(0).with(JulianFields.JULIAN_DAY, julianday);
+        return PackedInstant.pack(
+            ZonedDateTime.of(date.atStartOfDay(), ZoneOffset.UTC).toInstant().plus(nanotime, ChronoUnit.NANOS));
+    }
+
+    private static void assertSameInt96(final int julianDay, final long nanosOfDay) {
+        final byte[] int96 = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN)
+            .putLong(nanosOfDay).putInt(julianDay).array();
+        assertEquals(packInt96WithJavaTime(int96), PackedDateTimes.packJulianDay(julianDay, nanosOfDay),
+            "Wrong packed value for julian day " + julianDay + " and nanos " + nanosOfDay);
+    }
+
+    @Test
+    void testPackedInt96MatchJavaTime() {
+        final Random random = new Random(42);
+        final long nanosPerDay = 86_400_000_000_000L;
+        for (int i = 0; i < 100_000; i++) {
+            // Years 1677 to 2262, the range of Spark and Impala timestamps, with nanos within the day
+            assertSameInt96(2_333_836 + random.nextInt(213_503), (long) (random.nextDouble() * nanosPerDay));
+            // Any julian day, nanos from minus two days to plus two days
+            assertSameInt96(random.nextInt(), (long) ((random.nextDouble() * 4 - 2) * nanosPerDay));
+        }
+        assertSameInt96(0, 0L);
+        assertSameInt96(JULIAN_DAY_OF_EPOCH, -1L);
+        assertSameInt96(JULIAN_DAY_OF_EPOCH, nanosPerDay);
+        assertSameInt96(Integer.MIN_VALUE, Long.MIN_VALUE);
+        assertSameInt96(Integer.MAX_VALUE, Long.MAX_VALUE);
+    }
+}
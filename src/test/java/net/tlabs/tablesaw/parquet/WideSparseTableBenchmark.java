@@ -0,0 +1,100 @@
+package net.tlabs.tablesaw.parquet;
+
+/*-
+ * #%L
+ * Tablesaw-Parquet
+ * %%
+ * Copyright (C) 2020 - 2021 Tlabs-data
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+/**
+ * Read time of a table with 300 columns where each row sets one column in 17.
+ * A record filter keeping every row forces record assembly, which fills the missing values row by row,
+ * instead of decoding the column chunks directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class WideSparseTableBenchmark {
+
+    private static final String FILE_NAME = "target/benchmark/wide_sparse.parquet";
+    private static final int COLUMN_COUNT = 300;
+    private static final int ROW_COUNT = 20_000;
+    private static final TablesawParquetReader READER = new TablesawParquetReader();
+
+    @Param({"true", "false"})
+    public boolean recordAssembly;
+
+    private TablesawParquetReadOptions options;
+
+    @Setup
+    public void writeFile() {
+        final Table wide = Table.create("wide");
+        final int[] ids = new int[ROW_COUNT];
+        for (int row = 0; row < ROW_COUNT; row++) {
+            ids[row] = row;
+        }
+        wide.addColumns(IntColumn.create("id", ids));
+        for (int col = 0; col < COLUMN_COUNT; col++) {
+            final Column<?> column = col % 2 == 0 ? IntColumn.create("c" + col) : StringColumn.create("c" + col);
+            for (int row = 0; row < ROW_COUNT; row++) {
+                if ((row * 31 + col) % 17 != 0) {
+                    column.appendMissing();
+                } else if (col % 2 == 0) {
+                    ((IntColumn) column).append(row + col);
+                } else {
+                    ((StringColumn) column).append("v" + row);
+                }
+            }
+            wide.addColumns(column);
+        }
+        new TablesawParquetWriter().write(wide, TablesawParquetWriteOptions.builder(FILE_NAME)
+            .withOverwrite(true).build());
+        final TablesawParquetReadOptions.Builder builder = TablesawParquetReadOptions.builder(FILE_NAME);
+        if (recordAssembly) {
+            builder.withRecordFilter(FilterApi.gtEq(FilterApi.intColumn("id"), 0));
+        }
+        options = builder.build();
+    }
+
+    @Benchmark
+    public Table read() {
+        return READER.read(options);
+    }
+}